@@ -0,0 +1,204 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Coloration équilibrée : répartir les sommets (secteurs) sur un nombre de couleurs (jours) donné en minimisant
+// la charge maximale d'une couleur, sans jamais casser la coloration (deux voisins restent de couleurs différentes)
+// Voisinage : échange de chaînes de Kempe (composante du sous-graphe induit par deux couleurs a et b,
+// dont on permute les couleurs) ; une chaîne réduite à un sommet est un simple déplacement
+// Recherche locale itérée : descente, perturbation aléatoire, nouvelle descente ; plusieurs graines en parallèle
+public class BalancedColoring {
+    private static final double EPS = 1e-9;
+    private static final int KICKS = 3; // Échanges aléatoires par perturbation
+    private static final int SEARCH_STREAMS = 8; // Recherches indépendantes (graines), quel que soit le nombre de threads
+    private final int n;
+    private final int[][] neighbors;
+    private final double[] cost; // Charge de chaque sommet
+
+    public BalancedColoring(int n, int[][] neighbors, double[] cost) {
+        this.n = n;
+        this.neighbors = neighbors;
+        this.cost = cost;
+    }
+
+    // Charge de chaque couleur
+    public static double[] loads(int[] colors, double[] cost, int colorCount) {
+        double[] load = new double[colorCount];
+        for (int v = 0; v < colors.length; v++) {
+            load[colors[v]] += cost[v];
+        }
+        return load;
+    }
+
+    // Équilibrer une coloration valide « initial » sur « colors » couleurs (au moins autant qu'elle en utilise)
+    // SEARCH_STREAMS recherches (graines seed, seed + 1...) réparties sur le pool : le résultat ne dépend que de la graine,
+    // pas du nombre de threads (threads <= 0 : un thread par cœur) ; rounds : perturbations par recherche
+    public int[] balance(int[] initial, int colors, int threads, int rounds, long seed) {
+        if (colors < DsaturColoring.colorCount(initial)) {
+            throw new IllegalArgumentException("La coloration initiale utilise plus de " + colors + " couleurs");
+        }
+        if (colors < 2) {
+            return initial.clone(); // Une seule couleur : rien à répartir
+        }
+        int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        workers = Math.max(1, Math.min(workers, SEARCH_STREAMS));
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        List<Future<int[]>> futures = new ArrayList<>();
+        try {
+            for (int stream = 0; stream < SEARCH_STREAMS; stream++) {
+                long streamSeed = seed + stream;
+                futures.add(pool.submit(() -> search(initial, colors, rounds, streamSeed)));
+            }
+            int[] best = null;
+            for (Future<int[]> future : futures) { // Ordre des graines : égalités départagées de façon stable
+                int[] candidate = future.get();
+                if (best == null || better(loads(candidate, cost, colors), loads(best, cost, colors))) {
+                    best = candidate;
+                }
+            }
+            return best;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return initial.clone();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Échec de l'équilibrage de la coloration", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Recherche locale itérée d'une graine
+    private int[] search(int[] initial, int colors, int rounds, long seed) {
+        Random random = new Random(seed);
+        int[] stamp = new int[n];
+        int[] queue = new int[n];
+        int[] current = initial.clone();
+        double[] load = loads(current, cost, colors);
+        descend(current, load, colors, stamp, queue);
+        int[] best = current.clone();
+        double[] bestLoad = load.clone();
+        for (int round = 0; round < rounds && n > 0; round++) {
+            current = best.clone();
+            load = bestLoad.clone();
+            for (int k = 0; k < KICKS; k++) {
+                int v = random.nextInt(n);
+                int b = random.nextInt(colors - 1);
+                if (b >= current[v]) {
+                    b++; // Couleur différente de celle de v
+                }
+                swapChain(current, load, v, current[v], b, stamp, queue);
+            }
+            descend(current, load, colors, stamp, queue);
+            if (better(load, bestLoad)) {
+                best = current.clone();
+                bestLoad = load.clone();
+            }
+        }
+        return best;
+    }
+
+    // Descente : appliquer la meilleure chaîne de Kempe d'une paire (lourde, légère) tant qu'elle abaisse le maximum de la paire
+    // La somme de la paire est conservée : chaque pas diminue strictement la somme des carrés des charges
+    private void descend(int[] color, double[] load, int colors, int[] stamp, int[] queue) {
+        Integer[] order = new Integer[colors];
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int c = 0; c < colors; c++) {
+                order[c] = c;
+            }
+            Arrays.sort(order, (p, q) -> Double.compare(load[q], load[p])); // Couleurs par charge décroissante
+            for (int i = 0; i < colors && !improved; i++) {
+                for (int j = colors - 1; j > i && !improved; j--) {
+                    int a = order[i];
+                    int b = order[j];
+                    if (load[a] - load[b] > EPS) {
+                        improved = improvePair(color, load, a, b, stamp, queue);
+                    }
+                }
+            }
+        }
+    }
+
+    // Parcourir les chaînes de Kempe (a, b) issues des sommets de couleur a ; appliquer la plus équilibrante
+    private boolean improvePair(int[] color, double[] load, int a, int b, int[] stamp, int[] queue) {
+        Arrays.fill(stamp, -1);
+        double bestPeak = load[a] - EPS;
+        int bestRoot = -1;
+        for (int v = 0; v < n; v++) {
+            if (color[v] != a || stamp[v] != -1) {
+                continue;
+            }
+            int size = collectChain(color, v, a, b, stamp, queue, v);
+            double moved = 0.0; // Charge transférée de a vers b
+            for (int k = 0; k < size; k++) {
+                int u = queue[k];
+                moved += color[u] == a ? cost[u] : -cost[u];
+            }
+            double peak = Math.max(load[a] - moved, load[b] + moved);
+            if (peak < bestPeak) {
+                bestPeak = peak;
+                bestRoot = v;
+            }
+        }
+        if (bestRoot == -1) {
+            return false;
+        }
+        swapChain(color, load, bestRoot, a, b, stamp, queue);
+        return true;
+    }
+
+    // Permuter les couleurs a et b sur la chaîne de Kempe contenant v
+    private void swapChain(int[] color, double[] load, int v, int a, int b, int[] stamp, int[] queue) {
+        Arrays.fill(stamp, -1);
+        int size = collectChain(color, v, a, b, stamp, queue, v);
+        for (int k = 0; k < size; k++) {
+            int u = queue[k];
+            int target = color[u] == a ? b : a;
+            load[color[u]] -= cost[u];
+            load[target] += cost[u];
+            color[u] = target;
+        }
+    }
+
+    // Parcours en largeur de la composante {a, b} contenant v ; retourne sa taille (sommets dans queue[0..taille-1])
+    private int collectChain(int[] color, int v, int a, int b, int[] stamp, int[] queue, int mark) {
+        int head = 0;
+        int tail = 0;
+        stamp[v] = mark;
+        queue[tail++] = v;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int w : neighbors[u]) {
+                if (stamp[w] == -1 && (color[w] == a || color[w] == b)) {
+                    stamp[w] = mark;
+                    queue[tail++] = w;
+                }
+            }
+        }
+        return tail;
+    }
+
+    // Comparer deux répartitions : charge maximale, puis somme des carrés
+    private static boolean better(double[] load, double[] reference) {
+        double max = 0.0;
+        double refMax = 0.0;
+        double squares = 0.0;
+        double refSquares = 0.0;
+        for (int c = 0; c < load.length; c++) {
+            max = Math.max(max, load[c]);
+            refMax = Math.max(refMax, reference[c]);
+            squares += load[c] * load[c];
+            refSquares += reference[c] * reference[c];
+        }
+        if (Math.abs(max - refMax) > EPS) {
+            return max < refMax;
+        }
+        return squares < refSquares - EPS;
+    }
+}
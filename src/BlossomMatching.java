@@ -0,0 +1,675 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Couplage de poids maximal sur un graphe général (algorithme d'Edmonds avec fleurs, version primal-dual en O(n^3))
+// Les poids sont entiers pour que toutes les variables duales restent exactes
+public class BlossomMatching {
+    private final int nvertex; // Nombre de sommets
+    private final int nedge; // Nombre d'arêtes
+    private final int[] edgeFrom; // Extrémité i de chaque arête
+    private final int[] edgeTo; // Extrémité j de chaque arête
+    private final long[] edgeWeight; // Poids de chaque arête
+    private final int[] endpoint; // endpoint[p] = sommet de l'extrémité p (arête p / 2)
+    private final int[][] neighbend; // Extrémités opposées des arêtes incidentes à chaque sommet
+    private final int[] mate; // Extrémité distante de l'arête couplée (-1 si libre)
+    private final int[] label; // 0 = libre, 1 = S, 2 = T (5 = marqué pendant scanBlossom)
+    private final int[] labelend; // Extrémité par laquelle le sommet / la fleur a reçu son label
+    private final int[] inblossom; // Fleur de plus haut niveau contenant chaque sommet
+    private final int[] blossomparent; // Fleur parente directe (-1 si fleur de plus haut niveau)
+    private final int[][] blossomchilds; // Sous-fleurs d'une fleur, dans l'ordre du cycle
+    private final int[] blossombase; // Base de chaque fleur
+    private final int[][] blossomendps; // Extrémités reliant les sous-fleurs consécutives
+    private final int[] bestedge; // Arête de plus petite marge vers un sommet S
+    private final int[][] blossombestedges; // Meilleures arêtes vers les fleurs S voisines
+    private final int[] unusedblossoms; // Pile des indices de fleurs disponibles
+    private int unusedCount;
+    private final long[] dualvar; // Variables duales (sommets puis fleurs)
+    private final boolean[] allowedge; // Arêtes de marge nulle utilisables
+    private int[] queue; // File des sommets S à explorer
+    private int queueSize;
+
+    private BlossomMatching(int vertexCount, int[] from, int[] to, long[] weight) {
+        this.nvertex = vertexCount;
+        this.nedge = from.length;
+        this.edgeFrom = from;
+        this.edgeTo = to;
+        this.edgeWeight = weight;
+        long maxweight = 0;
+        for (long w : weight) {
+            maxweight = Math.max(maxweight, w);
+        }
+        endpoint = new int[2 * nedge];
+        int[] degree = new int[nvertex];
+        for (int k = 0; k < nedge; k++) {
+            if (from[k] == to[k] || from[k] < 0 || to[k] < 0 || from[k] >= nvertex || to[k] >= nvertex) {
+                throw new IllegalArgumentException("Arête invalide : " + from[k] + " - " + to[k]);
+            }
+            endpoint[2 * k] = from[k];
+            endpoint[2 * k + 1] = to[k];
+            degree[from[k]]++;
+            degree[to[k]]++;
+        }
+        neighbend = new int[nvertex][];
+        for (int v = 0; v < nvertex; v++) {
+            neighbend[v] = new int[degree[v]];
+        }
+        int[] fill = new int[nvertex];
+        for (int k = 0; k < nedge; k++) {
+            neighbend[from[k]][fill[from[k]]++] = 2 * k + 1;
+            neighbend[to[k]][fill[to[k]]++] = 2 * k;
+        }
+        mate = new int[nvertex];
+        Arrays.fill(mate, -1);
+        label = new int[2 * nvertex];
+        labelend = new int[2 * nvertex];
+        Arrays.fill(labelend, -1);
+        inblossom = new int[nvertex];
+        for (int v = 0; v < nvertex; v++) {
+            inblossom[v] = v;
+        }
+        blossomparent = new int[2 * nvertex];
+        Arrays.fill(blossomparent, -1);
+        blossomchilds = new int[2 * nvertex][];
+        blossombase = new int[2 * nvertex];
+        for (int v = 0; v < 2 * nvertex; v++) {
+            blossombase[v] = v < nvertex ? v : -1;
+        }
+        blossomendps = new int[2 * nvertex][];
+        bestedge = new int[2 * nvertex];
+        Arrays.fill(bestedge, -1);
+        blossombestedges = new int[2 * nvertex][];
+        unusedblossoms = new int[nvertex];
+        for (int b = nvertex; b < 2 * nvertex; b++) {
+            unusedblossoms[unusedCount++] = b;
+        }
+        dualvar = new long[2 * nvertex];
+        for (int v = 0; v < nvertex; v++) {
+            dualvar[v] = maxweight;
+        }
+        allowedge = new boolean[nedge];
+        queue = new int[Math.max(16, nvertex)];
+    }
+
+    // Calculer un couplage de poids maximal ; avec maxCardinality, le couplage est d'abord de cardinal maximal
+    // Retourner mate[v] = sommet couplé à v, ou -1
+    public static int[] maxWeightMatching(int vertexCount, int[] from, int[] to, long[] weight, boolean maxCardinality) {
+        if (from.length != to.length || from.length != weight.length) {
+            throw new IllegalArgumentException("Tableaux d'arêtes de tailles différentes");
+        }
+        int[] result = new int[vertexCount];
+        Arrays.fill(result, -1);
+        if (from.length == 0) {
+            return result;
+        }
+        BlossomMatching engine = new BlossomMatching(vertexCount, from, to, weight);
+        engine.solve(maxCardinality);
+        for (int v = 0; v < vertexCount; v++) {
+            if (engine.mate[v] >= 0) {
+                result[v] = engine.endpoint[engine.mate[v]];
+            }
+        }
+        return result;
+    }
+
+    // Calculer un couplage de cardinal maximal et de poids total minimal (parfait si le graphe le permet)
+    public static int[] minWeightPerfectMatching(int vertexCount, int[] from, int[] to, long[] weight) {
+        long maxweight = 0;
+        for (long w : weight) {
+            if (w < 0) {
+                throw new IllegalArgumentException("Poids négatif : " + w);
+            }
+            maxweight = Math.max(maxweight, w);
+        }
+        long[] inverted = new long[weight.length];
+        for (int k = 0; k < weight.length; k++) {
+            inverted[k] = maxweight + 1 - weight[k]; // Maximiser (C - w) revient à minimiser w à cardinal fixé
+        }
+        return maxWeightMatching(vertexCount, from, to, inverted, true);
+    }
+
+    // Couplage de poids minimal sur un graphe complet décrit par une matrice de distances (en mètres)
+    // Les distances sont arrondies au centimètre pour travailler en entiers
+    public static int[] minWeightPerfectMatching(double[][] dist, int[] vertices) {
+        int k = vertices.length;
+        int m = k * (k - 1) / 2;
+        int[] from = new int[m];
+        int[] to = new int[m];
+        long[] weight = new long[m];
+        int e = 0;
+        for (int a = 0; a < k; a++) {
+            for (int b = a + 1; b < k; b++) {
+                from[e] = a;
+                to[e] = b;
+                weight[e] = Math.round(dist[vertices[a]][vertices[b]] * 100.0);
+                e++;
+            }
+        }
+        return minWeightPerfectMatching(k, from, to, weight);
+    }
+
+    private long slack(int k) {
+        return dualvar[edgeFrom[k]] + dualvar[edgeTo[k]] - 2 * edgeWeight[k];
+    }
+
+    // Lister les sommets contenus (récursivement) dans une fleur
+    private void blossomLeaves(int b, List<Integer> out) {
+        if (b < nvertex) {
+            out.add(b);
+            return;
+        }
+        for (int t : blossomchilds[b]) {
+            if (t < nvertex) {
+                out.add(t);
+            } else {
+                blossomLeaves(t, out);
+            }
+        }
+    }
+
+    private List<Integer> leaves(int b) {
+        List<Integer> out = new ArrayList<>();
+        blossomLeaves(b, out);
+        return out;
+    }
+
+    private void pushQueue(int v) {
+        if (queueSize == queue.length) {
+            queue = Arrays.copyOf(queue, queue.length * 2);
+        }
+        queue[queueSize++] = v;
+    }
+
+    // Étiqueter le sommet w (et sa fleur) avec t, via l'extrémité p
+    private void assignLabel(int w, int t, int p) {
+        while (true) {
+            int b = inblossom[w];
+            label[w] = t;
+            label[b] = t;
+            labelend[w] = p;
+            labelend[b] = p;
+            bestedge[w] = -1;
+            bestedge[b] = -1;
+            if (t == 1) {
+                for (int v : leaves(b)) {
+                    pushQueue(v); // Les sommets S deviennent à explorer
+                }
+                return;
+            }
+            // t == 2 : le partenaire de la base devient S
+            int base = blossombase[b];
+            w = endpoint[mate[base]];
+            p = mate[base] ^ 1;
+            t = 1;
+        }
+    }
+
+    // Remonter les arbres alternés depuis v et w : retourner la base d'une nouvelle fleur, ou -1 si chemin augmentant
+    private int scanBlossom(int v, int w) {
+        List<Integer> path = new ArrayList<>();
+        int base = -1;
+        while (v != -1 || w != -1) {
+            int b = inblossom[v];
+            if ((label[b] & 4) != 0) {
+                base = blossombase[b];
+                break;
+            }
+            path.add(b);
+            label[b] = 5;
+            if (labelend[b] == -1) {
+                v = -1; // Racine de l'arbre atteinte
+            } else {
+                v = endpoint[labelend[b]];
+                b = inblossom[v];
+                v = endpoint[labelend[b]];
+            }
+            if (w != -1) {
+                int tmp = v;
+                v = w;
+                w = tmp;
+            }
+        }
+        for (int b : path) {
+            label[b] = 1;
+        }
+        return base;
+    }
+
+    // Créer une fleur de base « base » fermée par l'arête k
+    private void addBlossom(int base, int k) {
+        int v = edgeFrom[k];
+        int w = edgeTo[k];
+        int bb = inblossom[base];
+        int bv = inblossom[v];
+        int bw = inblossom[w];
+        int b = unusedblossoms[--unusedCount];
+        blossombase[b] = base;
+        blossomparent[b] = -1;
+        blossomparent[bb] = b;
+        List<Integer> path = new ArrayList<>();
+        List<Integer> endps = new ArrayList<>();
+        while (bv != bb) {
+            blossomparent[bv] = b;
+            path.add(bv);
+            endps.add(labelend[bv]);
+            v = endpoint[labelend[bv]];
+            bv = inblossom[v];
+        }
+        path.add(bb);
+        java.util.Collections.reverse(path);
+        java.util.Collections.reverse(endps);
+        endps.add(2 * k);
+        while (bw != bb) {
+            blossomparent[bw] = b;
+            path.add(bw);
+            endps.add(labelend[bw] ^ 1);
+            w = endpoint[labelend[bw]];
+            bw = inblossom[w];
+        }
+        blossomchilds[b] = toArray(path);
+        blossomendps[b] = toArray(endps);
+        label[b] = 1;
+        labelend[b] = labelend[bb];
+        dualvar[b] = 0;
+        for (int leaf : leaves(b)) {
+            if (label[inblossom[leaf]] == 2) {
+                pushQueue(leaf); // Les anciens sommets T deviennent S
+            }
+            inblossom[leaf] = b;
+        }
+        // Calculer les meilleures arêtes de la nouvelle fleur vers les fleurs S voisines
+        int[] bestedgeto = new int[2 * nvertex];
+        Arrays.fill(bestedgeto, -1);
+        for (int sub : blossomchilds[b]) {
+            List<int[]> nblists = new ArrayList<>();
+            if (blossombestedges[sub] == null) {
+                for (int leaf : leaves(sub)) {
+                    int[] list = new int[neighbend[leaf].length];
+                    for (int q = 0; q < list.length; q++) {
+                        list[q] = neighbend[leaf][q] / 2;
+                    }
+                    nblists.add(list);
+                }
+            } else {
+                nblists.add(blossombestedges[sub]);
+            }
+            for (int[] nblist : nblists) {
+                for (int e : nblist) {
+                    int i = edgeFrom[e];
+                    int j = edgeTo[e];
+                    if (inblossom[j] == b) {
+                        j = i;
+                    }
+                    int bj = inblossom[j];
+                    if (bj != b && label[bj] == 1 && (bestedgeto[bj] == -1 || slack(e) < slack(bestedgeto[bj]))) {
+                        bestedgeto[bj] = e;
+                    }
+                }
+            }
+            blossombestedges[sub] = null;
+            bestedge[sub] = -1;
+        }
+        int count = 0;
+        for (int e : bestedgeto) {
+            if (e != -1) {
+                count++;
+            }
+        }
+        int[] best = new int[count];
+        count = 0;
+        for (int e : bestedgeto) {
+            if (e != -1) {
+                best[count++] = e;
+            }
+        }
+        blossombestedges[b] = best;
+        bestedge[b] = -1;
+        for (int e : best) {
+            if (bestedge[b] == -1 || slack(e) < slack(bestedge[b])) {
+                bestedge[b] = e;
+            }
+        }
+    }
+
+    // Dissoudre une fleur de plus haut niveau
+    private void expandBlossom(int b, boolean endstage) {
+        for (int s : blossomchilds[b]) {
+            blossomparent[s] = -1;
+            if (s < nvertex) {
+                inblossom[s] = s;
+            } else if (endstage && dualvar[s] == 0) {
+                expandBlossom(s, endstage); // Dissoudre récursivement les sous-fleurs à dual nul
+            } else {
+                for (int leaf : leaves(s)) {
+                    inblossom[leaf] = s;
+                }
+            }
+        }
+        if (!endstage && label[b] == 2) {
+            // Réétiqueter les sous-fleurs le long du chemin pair vers la base
+            int[] childs = blossomchilds[b];
+            int[] endps = blossomendps[b];
+            int len = childs.length;
+            int entrychild = inblossom[endpoint[labelend[b] ^ 1]];
+            int j = indexOf(childs, entrychild);
+            int jstep;
+            int endptrick;
+            if ((j & 1) != 0) {
+                j -= len;
+                jstep = 1;
+                endptrick = 0;
+            } else {
+                jstep = -1;
+                endptrick = 1;
+            }
+            int p = labelend[b];
+            while (j != 0) {
+                label[endpoint[p ^ 1]] = 0;
+                label[endpoint[endps[mod(j - endptrick, len)] ^ endptrick ^ 1]] = 0;
+                assignLabel(endpoint[p ^ 1], 2, p);
+                allowedge[endps[mod(j - endptrick, len)] / 2] = true;
+                j += jstep;
+                p = endps[mod(j - endptrick, len)] ^ endptrick;
+                allowedge[p / 2] = true;
+                j += jstep;
+            }
+            int bv = childs[mod(j, len)];
+            label[endpoint[p ^ 1]] = 2;
+            label[bv] = 2;
+            labelend[endpoint[p ^ 1]] = p;
+            labelend[bv] = p;
+            bestedge[bv] = -1;
+            j += jstep;
+            while (childs[mod(j, len)] != entrychild) {
+                bv = childs[mod(j, len)];
+                if (label[bv] == 1) {
+                    j += jstep;
+                    continue; // Sous-fleur déjà étiquetée S par ailleurs
+                }
+                int labelled = -1;
+                for (int leaf : leaves(bv)) {
+                    if (label[leaf] != 0) {
+                        labelled = leaf;
+                        break;
+                    }
+                }
+                if (labelled != -1) {
+                    label[labelled] = 0;
+                    label[endpoint[mate[blossombase[bv]]]] = 0;
+                    assignLabel(labelled, 2, labelend[labelled]);
+                }
+                j += jstep;
+            }
+        }
+        label[b] = -1;
+        labelend[b] = -1;
+        blossomchilds[b] = null;
+        blossomendps[b] = null;
+        blossombase[b] = -1;
+        blossombestedges[b] = null;
+        bestedge[b] = -1;
+        unusedblossoms[unusedCount++] = b;
+    }
+
+    // Échanger arêtes couplées / libres à l'intérieur d'une fleur pour en faire de v la nouvelle base
+    private void augmentBlossom(int b, int v) {
+        int t = v;
+        while (blossomparent[t] != b) {
+            t = blossomparent[t];
+        }
+        if (t >= nvertex) {
+            augmentBlossom(t, v);
+        }
+        int[] childs = blossomchilds[b];
+        int[] endps = blossomendps[b];
+        int len = childs.length;
+        int i = indexOf(childs, t);
+        int j = i;
+        int jstep;
+        int endptrick;
+        if ((i & 1) != 0) {
+            j -= len;
+            jstep = 1;
+            endptrick = 0;
+        } else {
+            jstep = -1;
+            endptrick = 1;
+        }
+        while (j != 0) {
+            j += jstep;
+            t = childs[mod(j, len)];
+            int p = endps[mod(j - endptrick, len)] ^ endptrick;
+            if (t >= nvertex) {
+                augmentBlossom(t, endpoint[p]);
+            }
+            j += jstep;
+            t = childs[mod(j, len)];
+            if (t >= nvertex) {
+                augmentBlossom(t, endpoint[p ^ 1]);
+            }
+            mate[endpoint[p]] = p ^ 1;
+            mate[endpoint[p ^ 1]] = p;
+        }
+        // Faire tourner la liste des sous-fleurs pour placer la nouvelle base en tête
+        int[] rotatedChilds = new int[len];
+        int[] rotatedEndps = new int[len];
+        for (int q = 0; q < len; q++) {
+            rotatedChilds[q] = childs[(i + q) % len];
+            rotatedEndps[q] = endps[(i + q) % len];
+        }
+        blossomchilds[b] = rotatedChilds;
+        blossomendps[b] = rotatedEndps;
+        blossombase[b] = blossombase[rotatedChilds[0]];
+    }
+
+    // Inverser le chemin augmentant passant par l'arête k
+    private void augmentMatching(int k) {
+        int[][] starts = {{edgeFrom[k], 2 * k + 1}, {edgeTo[k], 2 * k}};
+        for (int[] start : starts) {
+            int s = start[0];
+            int p = start[1];
+            while (true) {
+                int bs = inblossom[s];
+                if (bs >= nvertex) {
+                    augmentBlossom(bs, s);
+                }
+                mate[s] = p;
+                if (labelend[bs] == -1) {
+                    break; // Racine de l'arbre atteinte
+                }
+                int t = endpoint[labelend[bs]];
+                int bt = inblossom[t];
+                s = endpoint[labelend[bt]];
+                int j = endpoint[labelend[bt] ^ 1];
+                if (bt >= nvertex) {
+                    augmentBlossom(bt, j);
+                }
+                mate[j] = labelend[bt];
+                p = labelend[bt] ^ 1;
+            }
+        }
+    }
+
+    private void solve(boolean maxCardinality) {
+        for (int stage = 0; stage < nvertex; stage++) {
+            // Réinitialiser les étiquettes au début de chaque phase
+            Arrays.fill(label, 0);
+            Arrays.fill(bestedge, -1);
+            for (int b = nvertex; b < 2 * nvertex; b++) {
+                blossombestedges[b] = null;
+            }
+            Arrays.fill(allowedge, false);
+            queueSize = 0;
+            for (int v = 0; v < nvertex; v++) {
+                if (mate[v] == -1 && label[inblossom[v]] == 0) {
+                    assignLabel(v, 1, -1); // Les sommets libres sont les racines
+                }
+            }
+            boolean augmented = false;
+            while (true) {
+                // Explorer les arêtes de marge nulle depuis les sommets S
+                while (queueSize > 0 && !augmented) {
+                    int v = queue[--queueSize];
+                    for (int p : neighbend[v]) {
+                        int k = p / 2;
+                        int w = endpoint[p];
+                        if (inblossom[v] == inblossom[w]) {
+                            continue; // Arête interne à une fleur
+                        }
+                        long kslack = 0;
+                        if (!allowedge[k]) {
+                            kslack = slack(k);
+                            if (kslack <= 0) {
+                                allowedge[k] = true;
+                            }
+                        }
+                        if (allowedge[k]) {
+                            if (label[inblossom[w]] == 0) {
+                                assignLabel(w, 2, p ^ 1); // w devient T
+                            } else if (label[inblossom[w]] == 1) {
+                                int base = scanBlossom(v, w);
+                                if (base >= 0) {
+                                    addBlossom(base, k); // Cycle impair : nouvelle fleur
+                                } else {
+                                    augmentMatching(k); // Chemin augmentant
+                                    augmented = true;
+                                    break;
+                                }
+                            } else if (label[w] == 0) {
+                                label[w] = 2; // w dans une fleur T sans label propre
+                                labelend[w] = p ^ 1;
+                            }
+                        } else if (label[inblossom[w]] == 1) {
+                            int b = inblossom[v];
+                            if (bestedge[b] == -1 || kslack < slack(bestedge[b])) {
+                                bestedge[b] = k;
+                            }
+                        } else if (label[w] == 0) {
+                            if (bestedge[w] == -1 || kslack < slack(bestedge[w])) {
+                                bestedge[w] = k;
+                            }
+                        }
+                    }
+                }
+                if (augmented) {
+                    break;
+                }
+
+                // Aucun progrès possible : calculer le pas dual delta
+                int deltatype = -1;
+                long delta = 0;
+                int deltaedge = -1;
+                int deltablossom = -1;
+                if (!maxCardinality) {
+                    deltatype = 1;
+                    delta = Long.MAX_VALUE;
+                    for (int v = 0; v < nvertex; v++) {
+                        delta = Math.min(delta, dualvar[v]);
+                    }
+                }
+                for (int v = 0; v < nvertex; v++) {
+                    if (label[inblossom[v]] == 0 && bestedge[v] != -1) {
+                        long d = slack(bestedge[v]);
+                        if (deltatype == -1 || d < delta) {
+                            delta = d;
+                            deltatype = 2;
+                            deltaedge = bestedge[v];
+                        }
+                    }
+                }
+                for (int b = 0; b < 2 * nvertex; b++) {
+                    if (blossomparent[b] == -1 && label[b] == 1 && bestedge[b] != -1) {
+                        long d = slack(bestedge[b]) / 2;
+                        if (deltatype == -1 || d < delta) {
+                            delta = d;
+                            deltatype = 3;
+                            deltaedge = bestedge[b];
+                        }
+                    }
+                }
+                for (int b = nvertex; b < 2 * nvertex; b++) {
+                    if (blossombase[b] >= 0 && blossomparent[b] == -1 && label[b] == 2
+                            && (deltatype == -1 || dualvar[b] < delta)) {
+                        delta = dualvar[b];
+                        deltatype = 4;
+                        deltablossom = b;
+                    }
+                }
+                if (deltatype == -1) {
+                    // Plus aucune amélioration possible (mode cardinal maximal)
+                    deltatype = 1;
+                    long min = Long.MAX_VALUE;
+                    for (int v = 0; v < nvertex; v++) {
+                        min = Math.min(min, dualvar[v]);
+                    }
+                    delta = Math.max(0, min);
+                }
+
+                // Mettre à jour les variables duales
+                for (int v = 0; v < nvertex; v++) {
+                    if (label[inblossom[v]] == 1) {
+                        dualvar[v] -= delta;
+                    } else if (label[inblossom[v]] == 2) {
+                        dualvar[v] += delta;
+                    }
+                }
+                for (int b = nvertex; b < 2 * nvertex; b++) {
+                    if (blossombase[b] >= 0 && blossomparent[b] == -1) {
+                        if (label[b] == 1) {
+                            dualvar[b] += delta;
+                        } else if (label[b] == 2) {
+                            dualvar[b] -= delta;
+                        }
+                    }
+                }
+
+                if (deltatype == 1) {
+                    break; // Optimum atteint
+                } else if (deltatype == 2) {
+                    allowedge[deltaedge] = true;
+                    int i = edgeFrom[deltaedge];
+                    if (label[inblossom[i]] == 0) {
+                        i = edgeTo[deltaedge];
+                    }
+                    pushQueue(i);
+                } else if (deltatype == 3) {
+                    allowedge[deltaedge] = true;
+                    pushQueue(edgeFrom[deltaedge]);
+                } else {
+                    expandBlossom(deltablossom, false);
+                }
+            }
+            if (!augmented) {
+                break; // Plus de chemin augmentant : couplage optimal
+            }
+            // Dissoudre les fleurs S dont la variable duale est nulle
+            for (int b = nvertex; b < 2 * nvertex; b++) {
+                if (blossomparent[b] == -1 && blossombase[b] >= 0 && label[b] == 1 && dualvar[b] == 0) {
+                    expandBlossom(b, true);
+                }
+            }
+        }
+    }
+
+    private static int mod(int j, int len) {
+        int r = j % len;
+        return r < 0 ? r + len : r;
+    }
+
+    private static int indexOf(int[] array, int value) {
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] out = new int[list.size()];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = list.get(i);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,47 @@
+public class CancellationToken {
+    private final long deadlineNanos; // Échéance absolue (System.nanoTime), Long.MAX_VALUE si aucune
+    private volatile boolean cancelled; // Indiquer une annulation demandée par l'appelant
+
+    private CancellationToken(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    // Créer un jeton sans limite de temps (annulable uniquement à la main)
+    public static CancellationToken none() {
+        return new CancellationToken(Long.MAX_VALUE);
+    }
+
+    // Créer un jeton qui expire après le budget donné en millisecondes
+    public static CancellationToken withTimeout(long millis) {
+        long now = System.nanoTime();
+        long budget = Math.max(0L, millis) * 1_000_000L;
+        long deadline = now + budget;
+        if (deadline < now) {
+            deadline = Long.MAX_VALUE; // Éviter le dépassement de capacité
+        }
+        return new CancellationToken(deadline);
+    }
+
+    // Demander l'arrêt des calculs en cours
+    public void cancel() {
+        cancelled = true;
+    }
+
+    // Vérifier si le calcul doit s'arrêter (annulation ou échéance dépassée)
+    public boolean isCancelled() {
+        return cancelled || (deadlineNanos != Long.MAX_VALUE && System.nanoTime() - deadlineNanos >= 0);
+    }
+
+    // Indiquer si une échéance est fixée
+    public boolean hasDeadline() {
+        return deadlineNanos != Long.MAX_VALUE;
+    }
+
+    // Calculer le temps restant (Long.MAX_VALUE si aucune échéance)
+    public long remainingMillis() {
+        if (deadlineNanos == Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0L, (deadlineNanos - System.nanoTime()) / 1_000_000L);
+    }
+}
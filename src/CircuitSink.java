@@ -0,0 +1,7 @@
+// Récepteur d'un circuit diffusé arête par arête (facteur chinois)
+// Les arêtes arrivent dans l'ordre du parcours, chacune partant de l'extrémité d'arrivée de la précédente
+@FunctionalInterface
+public interface CircuitSink {
+    // Recevoir l'arête parcourue de « from » vers « to » (arête virtuelle pour un trajet haut-le-pied)
+    void onEdge(long from, long to, Edge edge);
+}
@@ -0,0 +1,450 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// Graphe de routage simplifié : les chaînes de sommets de degré 2 (points qui ne servent qu'à dessiner la rue)
+// sont fusionnées en super-arêtes pondérées entre sommets « cœur » (degré différent de 2, ou épinglés)
+// Chaque chaîne garde la suite de ses sommets et de ses arêtes d'origine : les chemins trouvés sont dépliés
+// rue par rue. Un sommet intérieur de chaîne peut servir de départ ou d'arrivée (entrée par les deux extrémités)
+public class ContractedGraph {
+    private final RoutingGraph routing; // Instantané d'origine (indices denses)
+    private final int[] coreOf; // Indice dense -> indice cœur (-1 : sommet intérieur d'une chaîne)
+    private final int[] coreNodes; // Indice cœur -> indice dense
+    private final int[] offsets; // Super-arcs sortants du cœur c dans [offsets[c], offsets[c + 1])
+    private final int[] arcTarget; // Cœur d'arrivée de chaque super-arc
+    private final double[] arcWeight; // Longueur de la chaîne parcourue
+    private final int[] arcChain; // Chaîne parcourue (c : sens direct, ~c : sens inverse)
+    private final int[] seqStart; // Début de la suite de sommets de chaque chaîne (extrémités comprises)
+    private final int[] seqNodes; // Sommets (indices denses) des chaînes, bout à bout
+    private final double[] seqDist; // Distance depuis le début de la chaîne
+    private final int[] chainEdges; // Arêtes d'origine ; celles de la chaîne c commencent en seqStart[c] - c
+    private final int[] chainOf; // Chaîne d'un sommet intérieur (-1 pour un sommet cœur)
+    private final int[] seqOf; // Position d'un sommet intérieur dans la suite de sa chaîne
+
+    private ContractedGraph(RoutingGraph routing, int[] coreOf, int[] coreNodes, int[] offsets, int[] arcTarget,
+                            double[] arcWeight, int[] arcChain, int[] seqStart, int[] seqNodes, double[] seqDist,
+                            int[] chainEdges, int[] chainOf, int[] seqOf) {
+        this.routing = routing;
+        this.coreOf = coreOf;
+        this.coreNodes = coreNodes;
+        this.offsets = offsets;
+        this.arcTarget = arcTarget;
+        this.arcWeight = arcWeight;
+        this.arcChain = arcChain;
+        this.seqStart = seqStart;
+        this.seqNodes = seqNodes;
+        this.seqDist = seqDist;
+        this.chainEdges = chainEdges;
+        this.chainOf = chainOf;
+        this.seqOf = seqOf;
+    }
+
+    // Contracter l'instantané ; les sommets épinglés (indices denses : dépôt, points de collecte...) restent cœur
+    public static ContractedGraph build(RoutingGraph routing, int[] pinned) {
+        int n = routing.size();
+        boolean[] core = new boolean[n];
+        for (int v = 0; v < n; v++) {
+            int first = routing.firstArc(v);
+            if (routing.endArc(v) - first != 2) {
+                core[v] = true; // Impasse, carrefour ou sommet isolé
+                continue;
+            }
+            int t0 = routing.getArcTarget(first);
+            int t1 = routing.getArcTarget(first + 1);
+            core[v] = t0 == t1 || t0 == v || t1 == v; // Arêtes parallèles ou boucle : garder le sommet
+        }
+        if (pinned != null) {
+            for (int p : pinned) {
+                if (p >= 0 && p < n) {
+                    core[p] = true;
+                }
+            }
+        }
+
+        int[] chainOf = new int[n];
+        int[] seqOf = new int[n];
+        Arrays.fill(chainOf, -1);
+        ChainBuilder chains = new ChainBuilder(routing, core, chainOf, seqOf);
+        for (int v = 0; v < n; v++) {
+            if (core[v]) {
+                chains.walkFrom(v);
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            if (!core[v] && chainOf[v] < 0) {
+                core[v] = true; // Cycle isolé sans carrefour : en promouvoir un sommet
+                chains.walkFrom(v);
+            }
+        }
+
+        // Numéroter les sommets cœur
+        int[] coreOf = new int[n];
+        int m = 0;
+        for (int v = 0; v < n; v++) {
+            coreOf[v] = core[v] ? m++ : -1;
+        }
+        int[] coreNodes = new int[m];
+        for (int v = 0; v < n; v++) {
+            if (core[v]) {
+                coreNodes[coreOf[v]] = v;
+            }
+        }
+
+        // Super-arcs (deux sens par chaîne ; les chaînes qui reviennent à leur départ n'en portent pas)
+        int chainCount = chains.chainCount;
+        int[] seqStart = Arrays.copyOf(chains.starts, chainCount + 1);
+        seqStart[chainCount] = chains.seqCount;
+        int[] offsets = new int[m + 1];
+        for (int c = 0; c < chainCount; c++) {
+            int from = chains.nodes[seqStart[c]];
+            int to = chains.nodes[seqStart[c + 1] - 1];
+            if (from != to) {
+                offsets[coreOf[from] + 1]++;
+                offsets[coreOf[to] + 1]++;
+            }
+        }
+        for (int c = 0; c < m; c++) {
+            offsets[c + 1] += offsets[c];
+        }
+        int[] fill = Arrays.copyOf(offsets, m);
+        int[] arcTarget = new int[offsets[m]];
+        double[] arcWeight = new double[offsets[m]];
+        int[] arcChain = new int[offsets[m]];
+        for (int c = 0; c < chainCount; c++) {
+            int from = coreOf[chains.nodes[seqStart[c]]];
+            int to = coreOf[chains.nodes[seqStart[c + 1] - 1]];
+            if (from == to) {
+                continue;
+            }
+            double w = chains.dist[seqStart[c + 1] - 1];
+            int a = fill[from]++;
+            arcTarget[a] = to;
+            arcWeight[a] = w;
+            arcChain[a] = c;
+            a = fill[to]++;
+            arcTarget[a] = from;
+            arcWeight[a] = w;
+            arcChain[a] = ~c;
+        }
+        return new ContractedGraph(routing, coreOf, coreNodes, offsets, arcTarget, arcWeight, arcChain, seqStart,
+                Arrays.copyOf(chains.nodes, chains.seqCount), Arrays.copyOf(chains.dist, chains.seqCount),
+                Arrays.copyOf(chains.edges, chains.edgeCount), chainOf, seqOf);
+    }
+
+    public RoutingGraph getRouting() {
+        return routing;
+    }
+
+    // Nombre de sommets conservés (les recherches ne parcourent qu'eux)
+    public int getCoreCount() {
+        return coreNodes.length;
+    }
+
+    public int getSuperArcCount() {
+        return arcTarget.length;
+    }
+
+    public boolean isCore(int node) {
+        return coreOf[node] >= 0;
+    }
+
+    // Distances depuis une source vers plusieurs cibles (indices denses), comme Dijkstra.distancesFrom
+    // S'arrêter dès que les sommets cœur donnant accès à toutes les cibles sont fixés ; +infini si inatteignable
+    public double[] distancesFrom(int source, int[] targets) {
+        Search search = new Search(source);
+        search.run(targets);
+        double[] result = new double[targets.length];
+        for (int i = 0; i < targets.length; i++) {
+            result[i] = search.distanceTo(targets[i]);
+        }
+        return result;
+    }
+
+    // Plus court chemin entre deux sommets (indices denses), déplié en sommets et arêtes d'origine
+    public Dijkstra.PathResult shortestPath(int source, int target) {
+        if (source == target) {
+            return new Dijkstra.PathResult(0.0, Collections.singletonList(routing.getNodeId(source)), new int[0]);
+        }
+        Search search = new Search(source);
+        search.run(new int[]{target});
+        double best = search.distanceTo(target);
+        if (Double.isInfinite(best)) {
+            return new Dijkstra.PathResult(Double.POSITIVE_INFINITY, Collections.emptyList());
+        }
+        PathBuilder path = new PathBuilder(source);
+        int sc = chainOf[source];
+        int tc = chainOf[target];
+        if (sc >= 0 && sc == tc && Math.abs(seqDist[seqStart[sc] + seqOf[source]] - seqDist[seqStart[sc] + seqOf[target]]) <= best) {
+            path.along(sc, seqOf[source], seqOf[target]); // Même chaîne : le trajet direct est le plus court
+            return path.toResult(best);
+        }
+        // Choisir le sommet cœur par lequel arriver à la cible, puis remonter les super-arcs jusqu'à la source
+        int endCore;
+        int endSeq = -1; // Position de ce sommet cœur dans la chaîne de la cible
+        if (tc < 0) {
+            endCore = coreOf[target];
+        } else {
+            int first = seqStart[tc];
+            int last = seqStart[tc + 1] - 1;
+            double viaFrom = search.dist(coreOf[seqNodes[first]]) + seqDist[first + seqOf[target]];
+            double viaTo = search.dist(coreOf[seqNodes[last]]) + seqDist[last] - seqDist[first + seqOf[target]];
+            endSeq = viaFrom <= viaTo ? 0 : last - first;
+            endCore = coreOf[seqNodes[first + endSeq]];
+        }
+        List<Integer> arcs = new ArrayList<>();
+        int root = endCore;
+        while (search.prevArc[root] >= 0) {
+            arcs.add(search.prevArc[root]);
+            root = search.prevCore[root];
+        }
+        if (sc >= 0) {
+            path.along(sc, seqOf[source], search.rootSeq(root)); // Rejoindre le premier sommet cœur
+        }
+        for (int i = arcs.size() - 1; i >= 0; i--) {
+            int chain = arcChain[arcs.get(i)];
+            int length = chainLength(chain >= 0 ? chain : ~chain);
+            if (chain >= 0) {
+                path.along(chain, 0, length - 1);
+            } else {
+                path.along(~chain, length - 1, 0);
+            }
+        }
+        if (tc >= 0) {
+            path.along(tc, endSeq, seqOf[target]); // Finir le long de la chaîne de la cible
+        }
+        return path.toResult(best);
+    }
+
+    private int chainLength(int chain) {
+        return seqStart[chain + 1] - seqStart[chain];
+    }
+
+    // Dijkstra sur les sommets cœur ; une source intérieure entre par les deux extrémités de sa chaîne
+    private class Search {
+        private final int source;
+        private final double[] dist;
+        private final int[] prevArc; // Super-arc ayant mené à chaque cœur (-1 : entrée depuis la source)
+        private final int[] prevCore;
+        private final boolean[] settled;
+        private final MinHeap heap = new MinHeap(64);
+
+        Search(int source) {
+            this.source = source;
+            int m = coreNodes.length;
+            dist = new double[m];
+            prevArc = new int[m];
+            prevCore = new int[m];
+            settled = new boolean[m];
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+            Arrays.fill(prevArc, -1);
+            int c = chainOf[source];
+            if (c < 0) {
+                enter(coreOf[source], 0.0);
+            } else {
+                int first = seqStart[c];
+                int last = seqStart[c + 1] - 1;
+                double d = seqDist[first + seqOf[source]];
+                enter(coreOf[seqNodes[first]], d);
+                enter(coreOf[seqNodes[last]], seqDist[last] - d);
+            }
+        }
+
+        private void enter(int core, double d) {
+            if (d < dist[core]) {
+                dist[core] = d;
+                heap.push(d, core);
+            }
+        }
+
+        // Fixer les sommets cœur jusqu'à ce que chaque cible soit accessible par des cœurs fixés
+        void run(int[] targets) {
+            int[] pending = new int[coreNodes.length];
+            int remaining = 0;
+            for (int t : targets) {
+                int c = chainOf[t];
+                if (c < 0) {
+                    remaining += pending[coreOf[t]]++ == 0 ? 1 : 0;
+                } else {
+                    remaining += pending[coreOf[seqNodes[seqStart[c]]]]++ == 0 ? 1 : 0;
+                    remaining += pending[coreOf[seqNodes[seqStart[c + 1] - 1]]]++ == 0 ? 1 : 0;
+                }
+            }
+            while (!heap.isEmpty() && remaining > 0) {
+                double d = heap.peekKey();
+                int u = heap.pop();
+                if (settled[u] || d > dist[u]) {
+                    continue; // Ignorer les entrées obsolètes
+                }
+                settled[u] = true;
+                if (pending[u] > 0) {
+                    remaining--;
+                }
+                for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                    int v = arcTarget[a];
+                    double nd = d + arcWeight[a];
+                    if (!settled[v] && nd < dist[v]) {
+                        dist[v] = nd;
+                        prevArc[v] = a;
+                        prevCore[v] = u;
+                        heap.push(nd, v);
+                    }
+                }
+            }
+        }
+
+        double dist(int core) {
+            return settled[core] ? dist[core] : Double.POSITIVE_INFINITY;
+        }
+
+        // Distance finale d'une cible : par son cœur, par l'une des extrémités de sa chaîne, ou le long de la chaîne
+        double distanceTo(int target) {
+            if (target == source) {
+                return 0.0;
+            }
+            int c = chainOf[target];
+            if (c < 0) {
+                return dist(coreOf[target]);
+            }
+            int first = seqStart[c];
+            int last = seqStart[c + 1] - 1;
+            double d = seqDist[first + seqOf[target]];
+            double best = Math.min(dist(coreOf[seqNodes[first]]) + d, dist(coreOf[seqNodes[last]]) + seqDist[last] - d);
+            if (chainOf[source] == c) {
+                best = Math.min(best, Math.abs(seqDist[first + seqOf[source]] - d));
+            }
+            return best;
+        }
+
+        // Extrémité de la chaîne de la source par laquelle la recherche est entrée dans le cœur root
+        int rootSeq(int root) {
+            int c = chainOf[source];
+            int first = seqStart[c];
+            int last = seqStart[c + 1] - 1;
+            if (seqNodes[first] != seqNodes[last]) {
+                return coreNodes[root] == seqNodes[first] ? 0 : last - first;
+            }
+            double d = seqDist[first + seqOf[source]]; // Chaîne en boucle : l'entrée la plus courte
+            return d <= seqDist[last] - d ? 0 : last - first;
+        }
+    }
+
+    // Chemin déplié : sommets (identifiants) et arêtes d'origine
+    private class PathBuilder {
+        private final List<Long> nodes = new ArrayList<>();
+        private int[] edges = new int[16];
+        private int edgeCount;
+
+        PathBuilder(int source) {
+            nodes.add(routing.getNodeId(source));
+        }
+
+        // Parcourir la chaîne de la position i à la position j (sommet de départ déjà ajouté)
+        void along(int chain, int i, int j) {
+            int s0 = seqStart[chain];
+            int e0 = s0 - chain;
+            if (j > i) {
+                for (int k = i; k < j; k++) {
+                    add(chainEdges[e0 + k], seqNodes[s0 + k + 1]);
+                }
+            } else {
+                for (int k = i - 1; k >= j; k--) {
+                    add(chainEdges[e0 + k], seqNodes[s0 + k]);
+                }
+            }
+        }
+
+        private void add(int edgeId, int node) {
+            if (edgeCount == edges.length) {
+                edges = Arrays.copyOf(edges, edgeCount * 2);
+            }
+            edges[edgeCount++] = edgeId;
+            nodes.add(routing.getNodeId(node));
+        }
+
+        Dijkstra.PathResult toResult(double distance) {
+            return new Dijkstra.PathResult(distance, nodes, Arrays.copyOf(edges, edgeCount));
+        }
+    }
+
+    // Découpage en chaînes : depuis chaque sommet cœur, suivre chaque arc non encore parcouru jusqu'au cœur suivant
+    private static class ChainBuilder {
+        private final RoutingGraph routing;
+        private final boolean[] core;
+        private final int[] chainOf;
+        private final int[] seqOf;
+        private final boolean[] arcDone;
+        private int[] starts = new int[16];
+        private int chainCount;
+        private int[] nodes = new int[64];
+        private double[] dist = new double[64];
+        private int seqCount;
+        private int[] edges = new int[64];
+        private int edgeCount;
+
+        ChainBuilder(RoutingGraph routing, boolean[] core, int[] chainOf, int[] seqOf) {
+            this.routing = routing;
+            this.core = core;
+            this.chainOf = chainOf;
+            this.seqOf = seqOf;
+            this.arcDone = new boolean[routing.getArcCount()];
+        }
+
+        void walkFrom(int u) {
+            for (int a = routing.firstArc(u); a < routing.endArc(u); a++) {
+                if (!arcDone[a]) {
+                    walk(u, a);
+                }
+            }
+        }
+
+        private void walk(int u, int arc) {
+            if (chainCount == starts.length) {
+                starts = Arrays.copyOf(starts, chainCount * 2);
+            }
+            int chain = chainCount++;
+            int start = seqCount;
+            starts[chain] = start;
+            addNode(u, 0.0);
+            double d = 0.0;
+            while (true) {
+                arcDone[arc] = true;
+                int edgeId = routing.getArcEdgeId(arc);
+                d += routing.getArcWeight(arc);
+                addEdge(edgeId);
+                int v = routing.getArcTarget(arc);
+                addNode(v, d);
+                if (core[v]) {
+                    // Marquer l'arc retour pour ne pas reparcourir la chaîne depuis l'autre extrémité
+                    for (int b = routing.firstArc(v); b < routing.endArc(v); b++) {
+                        if (b != arc && !arcDone[b] && routing.getArcEdgeId(b) == edgeId) {
+                            arcDone[b] = true;
+                            break;
+                        }
+                    }
+                    return;
+                }
+                chainOf[v] = chain;
+                seqOf[v] = seqCount - 1 - start;
+                int first = routing.firstArc(v);
+                arc = routing.getArcEdgeId(first) == edgeId ? first + 1 : first; // Sortir par l'autre arête
+            }
+        }
+
+        private void addNode(int node, double d) {
+            if (seqCount == nodes.length) {
+                nodes = Arrays.copyOf(nodes, seqCount * 2);
+                dist = Arrays.copyOf(dist, seqCount * 2);
+            }
+            nodes[seqCount] = node;
+            dist[seqCount++] = d;
+        }
+
+        private void addEdge(int edgeId) {
+            if (edgeCount == edges.length) {
+                edges = Arrays.copyOf(edges, edgeCount * 2);
+            }
+            edges[edgeCount++] = edgeId;
+        }
+    }
+}
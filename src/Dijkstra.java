@@ -1,7 +1,11 @@
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.PriorityQueue;
@@ -21,10 +25,16 @@ public class Dijkstra {
     public static class PathResult {
         private final double distance; // Stocker la distance totale du chemin
         private final List<Long> path; // Stocker la liste des sommets du chemin
+        private final int[] edgeIds; // Arêtes parcourues, dans l'ordre (path.size() - 1 éléments si connues)
 
         public PathResult(double distance, List<Long> path) {
+            this(distance, path, new int[0]);
+        }
+
+        public PathResult(double distance, List<Long> path, int[] edgeIds) {
             this.distance = distance;
             this.path = path;
+            this.edgeIds = edgeIds;
         }
 
         public double getDistance() {
@@ -38,12 +48,18 @@ public class Dijkstra {
         public boolean isReachable() {
             return !path.isEmpty();
         }
+
+        // Identifiants des arêtes parcourues (Graph.getEdge), vide si la recherche ne les a pas relevées
+        public int[] getEdgeIds() {
+            return edgeIds;
+        }
     }
 
     // Exécuter l’algorithme de Dijkstra avec reconstruction du chemin
     public static PathResult shortestPath(Graph graph, long source, long target) {
         Map<Long, Double> distances = new HashMap<>(); // Stocker les distances minimales
         Map<Long, Long> previous = new HashMap<>(); // Associer chaque sommet à son prédécesseur
+        Map<Long, Integer> previousEdge = new HashMap<>(); // Arête ayant mené à chaque sommet
         Set<Long> visited = new HashSet<>(); // Suivre les sommets déjà découverts
         PriorityQueue<NodeDistance> queue = new PriorityQueue<>(
                 (a, b) -> Double.compare(a.distance, b.distance)); // Définir la file triée par distance
@@ -78,6 +94,7 @@ public class Dijkstra {
                 if (newDist < distances.get(neighbor)) { // Vérifier si une meilleure distance existe
                     distances.put(neighbor, newDist); // Mettre à jour la distance
                     previous.put(neighbor, current); // Enregistrer le précédent
+                    previousEdge.put(neighbor, edge.getId());
                     queue.add(new NodeDistance(neighbor, newDist)); // Réinsérer dans la file
                 }
             }
@@ -87,6 +104,7 @@ public class Dijkstra {
             return new PathResult(Double.POSITIVE_INFINITY, Collections.emptyList()); // Aucun chemin trouvé
         }
         List<Long> path = new ArrayList<>(); // Créer la liste du chemin
+        List<Integer> edges = new ArrayList<>(); // Arêtes parcourues (en sens inverse)
         long current = target; // Partir de la cible
         path.add(current); // Ajouter la cible au chemin
         while (current != source) { // Remonter jusqu'à la source
@@ -94,10 +112,217 @@ public class Dijkstra {
             if (prev == null) {
                 return new PathResult(Double.POSITIVE_INFINITY, Collections.emptyList());// Gérer une rupture
             }
+            edges.add(previousEdge.get(current));
             current = prev; // Remonter d’un niveau
             path.add(current); // Ajouter au chemin
         }
         Collections.reverse(path); // Inverser pour remettre dans l’ordre
-        return new PathResult(distances.get(target), path); // Retourner le chemin et la distance
+        return new PathResult(distances.get(target), path, reversedIds(edges)); // Retourner le chemin et la distance
+    }
+
+    // Calculer les distances depuis une source vers plusieurs cibles en une seule recherche
+    // La recherche s'arrête dès que toutes les cibles sont fixées ; les cibles inatteignables sont absentes du résultat
+    public static Map<Long, Double> distancesFrom(Graph graph, long source, Set<Long> targets) {
+        return distancesFrom(graph, source, targets, targets.size());
+    }
+
+    // Variante bornée : s'arrêter après avoir fixé les « limit » cibles les plus proches
+    // Le résultat est ordonné par distance croissante
+    public static Map<Long, Double> distancesFrom(Graph graph, long source, Set<Long> targets, int limit) {
+        Map<Long, Double> result = new LinkedHashMap<>(); // Distances définitives des cibles atteintes
+        if (graph.getNode(source) == null) {
+            return result; // Gérer une source invalide
+        }
+        Map<Long, Double> distances = new HashMap<>(); // Distances provisoires
+        Set<Long> visited = new HashSet<>();
+        PriorityQueue<NodeDistance> queue = new PriorityQueue<>(
+                (a, b) -> Double.compare(a.distance, b.distance));
+        distances.put(source, 0.0);
+        queue.add(new NodeDistance(source, 0.0));
+        int remaining = Math.min(limit, targets.size()); // Nombre de cibles encore à fixer
+
+        while (!queue.isEmpty() && remaining > 0) {
+            NodeDistance entry = queue.poll();
+            long current = entry.nodeId;
+            if (!visited.add(current)) {
+                continue; // Ignorer les entrées obsolètes
+            }
+            if (targets.contains(current)) {
+                result.put(current, entry.distance); // Fixer la distance de la cible
+                remaining--;
+            }
+            for (Edge edge : graph.getEdges(current)) {
+                long neighbor = edge.getOther(current);
+                if (visited.contains(neighbor)) {
+                    continue;
+                }
+                double newDist = entry.distance + edge.getWeight();
+                if (newDist < distances.getOrDefault(neighbor, Double.POSITIVE_INFINITY)) {
+                    distances.put(neighbor, newDist);
+                    queue.add(new NodeDistance(neighbor, newDist));
+                }
+            }
+        }
+        return result;
+    }
+
+    // Recherche multi-sources : trouver la cible la plus proche de l'ensemble des sources
+    // Retourner le chemin (source la plus proche -> cible), ou un résultat inatteignable
+    public static PathResult nearestTarget(Graph graph, Collection<Long> sources, Set<Long> targets) {
+        Map<Long, Double> distances = new HashMap<>();
+        Map<Long, Long> previous = new HashMap<>();
+        Map<Long, Integer> previousEdge = new HashMap<>();
+        Set<Long> visited = new HashSet<>();
+        PriorityQueue<NodeDistance> queue = new PriorityQueue<>(
+                (a, b) -> Double.compare(a.distance, b.distance));
+        for (long source : sources) {
+            if (graph.getNode(source) != null && distances.put(source, 0.0) == null) {
+                queue.add(new NodeDistance(source, 0.0)); // Toutes les sources partent à distance nulle
+            }
+        }
+        while (!queue.isEmpty()) {
+            NodeDistance entry = queue.poll();
+            long current = entry.nodeId;
+            if (!visited.add(current)) {
+                continue;
+            }
+            if (targets.contains(current)) {
+                // Remonter jusqu'à la source d'origine
+                List<Long> path = new ArrayList<>();
+                List<Integer> edges = new ArrayList<>();
+                path.add(current);
+                for (long v = current; previous.containsKey(v); v = previous.get(v)) {
+                    edges.add(previousEdge.get(v));
+                    path.add(previous.get(v));
+                }
+                Collections.reverse(path);
+                return new PathResult(entry.distance, path, reversedIds(edges));
+            }
+            for (Edge edge : graph.getEdges(current)) {
+                long neighbor = edge.getOther(current);
+                if (visited.contains(neighbor)) {
+                    continue;
+                }
+                double newDist = entry.distance + edge.getWeight();
+                if (newDist < distances.getOrDefault(neighbor, Double.POSITIVE_INFINITY)) {
+                    distances.put(neighbor, newDist);
+                    previous.put(neighbor, current);
+                    previousEdge.put(neighbor, edge.getId());
+                    queue.add(new NodeDistance(neighbor, newDist));
+                }
+            }
+        }
+        return new PathResult(Double.POSITIVE_INFINITY, Collections.emptyList());
+    }
+
+    // Recherche sur l'instantané compact : s'arrêter dès qu'un sommet marqué est fixé
+    // Les sommets étant fixés par distance croissante, c'est le sommet marqué le plus proche (la source comprise)
+    // Retourner le chemin source -> sommet marqué, ou un résultat inatteignable
+    public static PathResult nearestMarked(RoutingGraph routing, int source, BitSet marked) {
+        int n = routing.size();
+        double[] dist = new double[n];
+        int[] previous = new int[n]; // Sommet précédent sur le plus court chemin (-1 pour la source)
+        int[] previousArc = new int[n]; // Arc ayant mené à chaque sommet
+        boolean[] settled = new boolean[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        MinHeap heap = new MinHeap(64);
+        dist[source] = 0.0;
+        previous[source] = -1;
+        heap.push(0.0, source);
+        while (!heap.isEmpty()) {
+            double d = heap.peekKey();
+            int u = heap.pop();
+            if (settled[u] || d > dist[u]) {
+                continue; // Ignorer les entrées obsolètes
+            }
+            settled[u] = true;
+            if (marked.get(u)) {
+                List<Long> path = new ArrayList<>();
+                int hops = 0;
+                for (int v = u; v != -1; v = previous[v]) {
+                    path.add(routing.getNodeId(v));
+                    hops++;
+                }
+                Collections.reverse(path);
+                int[] edges = new int[hops - 1];
+                for (int v = u, k = hops - 2; previous[v] != -1; v = previous[v], k--) {
+                    edges[k] = routing.getArcEdgeId(previousArc[v]);
+                }
+                return new PathResult(d, path, edges);
+            }
+            for (int a = routing.firstArc(u); a < routing.endArc(u); a++) {
+                int v = routing.getArcTarget(a);
+                double nd = d + routing.getArcWeight(a);
+                if (!settled[v] && nd < dist[v]) {
+                    dist[v] = nd;
+                    previous[v] = u;
+                    previousArc[v] = a;
+                    heap.push(nd, v);
+                }
+            }
+        }
+        return new PathResult(Double.POSITIVE_INFINITY, Collections.emptyList());
+    }
+
+    // Plus court chemin entre deux sommets (indices denses) de l'instantané compact
+    public static PathResult shortestPath(RoutingGraph routing, int source, int target) {
+        BitSet marked = new BitSet(routing.size());
+        marked.set(target);
+        return nearestMarked(routing, source, marked);
+    }
+
+    // Distances depuis une source vers plusieurs cibles (indices denses) sur l'instantané compact
+    // S'arrêter dès que toutes les cibles sont fixées ; +infini pour les cibles inatteignables
+    public static double[] distancesFrom(RoutingGraph routing, int source, int[] targets) {
+        int n = routing.size();
+        double[] result = new double[targets.length];
+        Arrays.fill(result, Double.POSITIVE_INFINITY);
+        int[] pending = new int[n]; // Nombre d'occurrences de chaque sommet parmi les cibles
+        int remaining = 0;
+        for (int t : targets) {
+            if (pending[t]++ == 0) {
+                remaining++;
+            }
+        }
+        double[] dist = new double[n];
+        boolean[] settled = new boolean[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        MinHeap heap = new MinHeap(64);
+        dist[source] = 0.0;
+        heap.push(0.0, source);
+        while (!heap.isEmpty() && remaining > 0) {
+            double d = heap.peekKey();
+            int u = heap.pop();
+            if (settled[u] || d > dist[u]) {
+                continue;
+            }
+            settled[u] = true;
+            if (pending[u] > 0) {
+                remaining--; // Cible fixée
+            }
+            for (int a = routing.firstArc(u); a < routing.endArc(u); a++) {
+                int v = routing.getArcTarget(a);
+                double nd = d + routing.getArcWeight(a);
+                if (!settled[v] && nd < dist[v]) {
+                    dist[v] = nd;
+                    heap.push(nd, v);
+                }
+            }
+        }
+        for (int i = 0; i < targets.length; i++) {
+            if (settled[targets[i]]) {
+                result[i] = dist[targets[i]];
+            }
+        }
+        return result;
+    }
+
+    // Convertir une liste d'arêtes relevée de la cible vers la source en tableau dans le sens du parcours
+    private static int[] reversedIds(List<Integer> edges) {
+        int[] ids = new int[edges.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = edges.get(ids.length - 1 - i);
+        }
+        return ids;
     }
-}
\ No newline at end of file
+}
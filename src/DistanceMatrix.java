@@ -0,0 +1,77 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class DistanceMatrix {
+    private final long[] ids; // Sommets du graphe associés à chaque ligne / colonne
+    private final double[][] dist; // Distances de plus court chemin (symétriques)
+    private final Map<Long, Integer> indexById; // Retrouver l'indice d'un sommet (sa première ligne s'il est répété)
+
+    private DistanceMatrix(long[] ids, double[][] dist) {
+        this.ids = ids;
+        this.dist = dist;
+        this.indexById = new HashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            indexById.putIfAbsent(ids[i], i);
+        }
+    }
+
+    // Construire la matrice avec une recherche un-vers-plusieurs par ligne, sur le graphe contracté
+    // (chaînes de degré 2 fusionnées, sommets de la matrice épinglés)
+    // Retourner null si une paire est inatteignable ou si le jeton est annulé avant la fin
+    public static DistanceMatrix build(Graph graph, List<Long> nodeIds, CancellationToken token) {
+        int n = nodeIds.size();
+        RoutingGraph routing = graph.getRoutingGraph();
+        long[] ids = new long[n];
+        int[] dense = new int[n]; // Indices denses des sommets dans l'instantané
+        for (int i = 0; i < n; i++) {
+            ids[i] = nodeIds.get(i);
+            dense[i] = routing.indexOf(ids[i]);
+            if (dense[i] < 0) {
+                return null; // Sommet absent du graphe
+            }
+        }
+        ContractedGraph contracted = ContractedGraph.build(routing, dense);
+        double[][] dist = new double[n][n];
+        for (int i = 0; i < n - 1; i++) {
+            if (token.isCancelled()) {
+                return null; // Arrêter si le budget est épuisé
+            }
+            int[] targets = Arrays.copyOfRange(dense, i + 1, n); // Cibles restantes (triangle supérieur)
+            double[] row = contracted.distancesFrom(dense[i], targets);
+            for (int j = i + 1; j < n; j++) {
+                double d = row[j - i - 1];
+                if (Double.isInfinite(d)) {
+                    return null; // Paire inatteignable (graphe non connexe)
+                }
+                dist[i][j] = d;
+                dist[j][i] = d;
+            }
+        }
+        return new DistanceMatrix(ids, dist);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public long getId(int index) {
+        return ids[index];
+    }
+
+    // Récupérer l'indice d'un sommet (-1 si absent)
+    public int indexOf(long nodeId) {
+        Integer idx = indexById.get(nodeId);
+        return idx == null ? -1 : idx;
+    }
+
+    public double get(int i, int j) {
+        return dist[i][j];
+    }
+
+    // Accéder directement au tableau (lecture seule par convention)
+    public double[][] getDistances() {
+        return dist;
+    }
+}
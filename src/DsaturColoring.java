@@ -0,0 +1,243 @@
+import java.util.Arrays;
+
+// Coloration de graphe indexée par entiers (secteurs -> jours)
+// DSATUR : colorer à chaque étape le sommet dont les voisins portent le plus de couleurs distinctes (saturation),
+// à égalité celui qui a le plus de voisins non colorés ; file de priorité par paquets (clé entière bornée)
+// Mode exact : séparation-évaluation guidée par DSATUR, bornée par une clique (borne basse) et la meilleure coloration
+public class DsaturColoring {
+    private static final int DEGREE_CAP = 1023; // Part du degré dans la clé de priorité (départage)
+    private final int n;
+    private final int[][] neighbors; // Listes d'adjacence (sans doublon ni boucle)
+    private final long[][] masks; // Masques de voisinage en bits (test d'adjacence en O(1))
+    private boolean provenOptimal; // La dernière coloration exacte est-elle prouvée optimale ?
+    private long exploredNodes; // Nœuds explorés par la dernière recherche exacte
+
+    public DsaturColoring(int n, int[][] neighbors) {
+        this.n = n;
+        this.neighbors = neighbors;
+        int words = (n + 63) >>> 6;
+        this.masks = new long[n][words];
+        for (int v = 0; v < n; v++) {
+            for (int u : neighbors[v]) {
+                masks[v][u >>> 6] |= 1L << (u & 63);
+            }
+        }
+    }
+
+    public boolean isProvenOptimal() {
+        return provenOptimal;
+    }
+
+    public long getExploredNodes() {
+        return exploredNodes;
+    }
+
+    public boolean adjacent(int u, int v) {
+        return (masks[u][v >>> 6] & (1L << (v & 63))) != 0;
+    }
+
+    // Nombre de couleurs d'une coloration (couleurs numérotées à partir de 0)
+    public static int colorCount(int[] colors) {
+        int max = -1;
+        for (int c : colors) {
+            max = Math.max(max, c);
+        }
+        return max + 1;
+    }
+
+    // Colorer par DSATUR en O((n + m) · mots) ; retourner la couleur (0..k-1) de chaque sommet
+    public int[] color() {
+        int[] color = new int[n];
+        Arrays.fill(color, -1);
+        if (n == 0) {
+            return color;
+        }
+        int maxDegree = 0;
+        for (int[] adj : neighbors) {
+            maxDegree = Math.max(maxDegree, adj.length);
+        }
+        int degreeSpan = Math.min(maxDegree, DEGREE_CAP) + 1;
+        int bucketCount = (maxDegree + 1) * degreeSpan; // Saturation <= degré maximal
+        int[] head = new int[bucketCount];
+        Arrays.fill(head, -1);
+        int[] next = new int[n];
+        int[] prev = new int[n];
+        int[] key = new int[n];
+        int[] saturation = new int[n];
+        int[] freeDegree = new int[n]; // Voisins non colorés
+        int colorWords = (maxDegree + 1 + 63) >>> 6; // Au plus maxDegree + 1 couleurs
+        long[][] seen = new long[n][colorWords]; // Couleurs présentes dans le voisinage
+        int top = 0; // Plus grande clé potentiellement non vide
+        for (int v = 0; v < n; v++) {
+            freeDegree[v] = neighbors[v].length;
+            key[v] = Math.min(freeDegree[v], DEGREE_CAP);
+            insert(v, key[v], head, next, prev);
+            top = Math.max(top, key[v]);
+        }
+
+        for (int step = 0; step < n; step++) {
+            while (head[top] == -1) {
+                top--;
+            }
+            int v = head[top];
+            remove(v, key[v], head, next, prev);
+            // Plus petite couleur absente du voisinage
+            int c = 0;
+            for (int w = 0; w < colorWords; w++) {
+                long free = ~seen[v][w];
+                if (free != 0) {
+                    c = (w << 6) + Long.numberOfTrailingZeros(free);
+                    break;
+                }
+            }
+            color[v] = c;
+            for (int u : neighbors[v]) {
+                if (color[u] != -1) {
+                    continue;
+                }
+                freeDegree[u]--;
+                long bit = 1L << (c & 63);
+                if ((seen[u][c >>> 6] & bit) == 0) {
+                    seen[u][c >>> 6] |= bit;
+                    saturation[u]++;
+                }
+                int updated = saturation[u] * degreeSpan + Math.min(freeDegree[u], DEGREE_CAP);
+                if (updated != key[u]) {
+                    remove(u, key[u], head, next, prev);
+                    key[u] = updated;
+                    insert(u, updated, head, next, prev);
+                    top = Math.max(top, updated);
+                }
+            }
+        }
+        return color;
+    }
+
+    // Coloration exacte (pour les petits graphes) : retourner la meilleure coloration trouvée
+    // isProvenOptimal() indique si l'optimalité est prouvée (recherche terminée avant nodeLimit nœuds)
+    public int[] colorExact(long nodeLimit) {
+        int[] best = color();
+        int upper = colorCount(best);
+        int lower = greedyCliqueSize();
+        exploredNodes = 0;
+        if (n == 0 || lower >= upper) {
+            provenOptimal = true;
+            return best;
+        }
+        int[] color = new int[n];
+        Arrays.fill(color, -1);
+        int[][] count = new int[n][upper]; // count[v][c] = voisins de v de couleur c
+        int[] saturation = new int[n];
+        ExactState state = new ExactState(best, upper, lower, nodeLimit);
+        search(color, count, saturation, 0, 0, state);
+        provenOptimal = !state.aborted;
+        return state.best;
+    }
+
+    // Étape de séparation : colorer le sommet le plus saturé avec chaque couleur admissible (ou une nouvelle)
+    private void search(int[] color, int[][] count, int[] saturation, int colored, int usedColors, ExactState state) {
+        if (state.aborted || state.upper <= state.lower) {
+            return;
+        }
+        if (++exploredNodes > state.nodeLimit) {
+            state.aborted = true;
+            return;
+        }
+        if (colored == n) {
+            state.best = color.clone();
+            state.upper = usedColors; // Nouvelle meilleure coloration
+            return;
+        }
+        int v = -1;
+        for (int u = 0; u < n; u++) {
+            if (color[u] == -1 && (v == -1 || saturation[u] > saturation[v]
+                    || (saturation[u] == saturation[v] && neighbors[u].length > neighbors[v].length))) {
+                v = u;
+            }
+        }
+        int limit = Math.min(usedColors + 1, state.upper - 1); // Ne jamais atteindre la meilleure borne connue
+        for (int c = 0; c < limit; c++) {
+            if (count[v][c] > 0) {
+                continue; // Couleur déjà portée par un voisin
+            }
+            color[v] = c;
+            for (int u : neighbors[v]) {
+                if (count[u][c]++ == 0) {
+                    saturation[u]++;
+                }
+            }
+            search(color, count, saturation, colored + 1, Math.max(usedColors, c + 1), state);
+            for (int u : neighbors[v]) {
+                if (--count[u][c] == 0) {
+                    saturation[u]--;
+                }
+            }
+            color[v] = -1;
+            if (state.aborted || state.upper <= state.lower) {
+                return;
+            }
+        }
+    }
+
+    // Borne basse : clique gloutonne (sommets par degré décroissant, intersection des masques de voisinage)
+    private int greedyCliqueSize() {
+        Integer[] order = new Integer[n];
+        for (int v = 0; v < n; v++) {
+            order[v] = v;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(neighbors[b].length, neighbors[a].length));
+        int best = n == 0 ? 0 : 1;
+        for (int start = 0; start < Math.min(n, 32); start++) { // Quelques graines de fort degré
+            int s = order[start];
+            long[] candidates = masks[s].clone();
+            int size = 1;
+            for (int k = 0; k < n; k++) {
+                int v = order[k];
+                if ((candidates[v >>> 6] & (1L << (v & 63))) != 0) {
+                    size++;
+                    for (int w = 0; w < candidates.length; w++) {
+                        candidates[w] &= masks[v][w];
+                    }
+                }
+            }
+            best = Math.max(best, size);
+        }
+        return best;
+    }
+
+    private static void insert(int v, int k, int[] head, int[] next, int[] prev) {
+        prev[v] = -1;
+        next[v] = head[k];
+        if (head[k] != -1) {
+            prev[head[k]] = v;
+        }
+        head[k] = v;
+    }
+
+    private static void remove(int v, int k, int[] head, int[] next, int[] prev) {
+        if (prev[v] != -1) {
+            next[prev[v]] = next[v];
+        } else {
+            head[k] = next[v];
+        }
+        if (next[v] != -1) {
+            prev[next[v]] = prev[v];
+        }
+    }
+
+    // État partagé de la recherche exacte
+    private static class ExactState {
+        private int[] best;
+        private int upper;
+        private final int lower;
+        private final long nodeLimit;
+        private boolean aborted;
+
+        private ExactState(int[] best, int upper, int lower, long nodeLimit) {
+            this.best = best;
+            this.upper = upper;
+            this.lower = lower;
+            this.nodeLimit = nodeLimit;
+        }
+    }
+}
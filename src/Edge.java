@@ -3,14 +3,24 @@ public class Edge {
     private final long from; // Stocker le sommet de départ
     private final long to; // Stocker le sommet d'arrivée
     private final double weight; // Stocker le poids de l'arête
-    private final String name; // Stocker le nom de la rue
+    private final int nameId; // Identifiant du nom de la rue dans NameTable.STREETS
+    private final int baseEdgeId; // Rue doublée par un trajet haut-le-pied (-1 : rue ordinaire)
 
     public Edge(int id, long from, long to, double weight, String name) {
+        this(id, from, to, weight, NameTable.STREETS.intern(name));
+    }
+
+    public Edge(int id, long from, long to, double weight, int nameId) {
+        this(id, from, to, weight, nameId, -1);
+    }
+
+    public Edge(int id, long from, long to, double weight, int nameId, int baseEdgeId) {
         this.id = id;
         this.from = from;
         this.to = to;
         this.weight = weight;
-        this.name = name;
+        this.nameId = nameId;
+        this.baseEdgeId = baseEdgeId;
     }
 
     public int getId() {
@@ -30,7 +40,20 @@ public class Edge {
     }
 
     public String getName() {
-        return name;
+        return NameTable.STREETS.get(nameId);
+    }
+
+    public int getNameId() {
+        return nameId;
+    }
+
+    // Trajet haut-le-pied ajouté par-dessus une rue existante (même nom, même longueur)
+    public boolean isDeadhead() {
+        return baseEdgeId >= 0;
+    }
+
+    public int getBaseEdgeId() {
+        return baseEdgeId;
     }
 
     public long getOther(long nodeId) {
@@ -1,10 +1,7 @@
-import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Deque;
-import java.util.HashSet;
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Set;
 
 public class EulerianSolver {
     private final Graph graph; // Stocker le graphe à traiter
@@ -39,100 +36,166 @@ public class EulerianSolver {
 
     // Résoudre le problème du facteur chinois depuis un sommet donné
     public PostmanResult solveChinesePostman(long startId) {
+        List<Long> trail = new ArrayList<>(); // Créer la liste du circuit
+        double distance = streamChinesePostman(startId, (from, to, edge) -> {
+            if (trail.isEmpty()) {
+                trail.add(from); // Sommet de départ
+            }
+            trail.add(to);
+        });
+        boolean feasible = !trail.isEmpty() && !Double.isInfinite(distance); // Vérifier la faisabilité
+        return new PostmanResult(feasible, feasible ? trail : new ArrayList<>(), distance); // Retourner le résultat
+    }
+
+    // Résoudre le facteur chinois en diffusant le circuit arête par arête vers « sink », sans matérialiser le trajet
+    // Retourner la distance totale, ou +infini si aucun circuit n'existe (rien n'est alors émis)
+    public double streamChinesePostman(long startId, CircuitSink sink) {
         if (!graph.getNodeIds().contains(startId)) {
-            return new PostmanResult(false, new ArrayList<>(), Double.POSITIVE_INFINITY); // Vérifier la validité du départ
+            return Double.POSITIVE_INFINITY; // Vérifier la validité du départ
         }
 
         if (!graph.isConnectedFrom(startId)) {
-            return new PostmanResult(false, new ArrayList<>(), Double.POSITIVE_INFINITY); // Vérifier la connexité du graphe
+            return Double.POSITIVE_INFINITY; // Vérifier la connexité du graphe
         }
 
-        Graph working = graph.createCopy(); // Créer une copie pour ajouter les chemins virtuels
+        GraphOverlay working = new GraphOverlay(graph); // Vue superposée : le graphe reste partagé, seuls les chemins virtuels sont ajoutés
         // Équilibrer les degrés via ajout de chemins virtuels
         List<Long> oddNodes = working.getOddDegreeNodes(); // Identifier les sommets de degré impair
         if (oddNodes.size() == 2) {
             addShortestPathBetween(working, oddNodes.get(0), oddNodes.get(1)); // Ajouter un chemin entre les deux nœuds impairs
         } else if (oddNodes.size() > 2) {
-            boolean matched = addGreedyMatchingPaths(working, oddNodes); // Faire un appariement glouton
+            boolean matched = addMatchingPaths(working, oddNodes); // Faire un couplage parfait de poids minimal
             if (!matched) {
-                return new PostmanResult(false, new ArrayList<>(), Double.POSITIVE_INFINITY); // Échec si impossible
+                return Double.POSITIVE_INFINITY; // Échec si impossible
             }
         }
-
-        List<Long> trail = new ArrayList<>(); // Créer la liste du circuit
-        double distance = runHierholzer(working, startId, trail); // Exécuter l’algorithme de Hierholzer
-        boolean feasible = !trail.isEmpty() && !Double.isInfinite(distance); // Vérifier la faisabilité
-        return new PostmanResult(feasible, trail, distance); // Retourner le résultat
+        return runHierholzer(working, startId, sink); // Exécuter l’algorithme de Hierholzer
     }
 
     // Ajouter le chemin le plus court entre deux sommets impairs
-    private void addShortestPathBetween(Graph working, long a, long b) {
-        Dijkstra.PathResult path = Dijkstra.shortestPath(working, a, b); // Calculer le chemin le plus court
+    private void addShortestPathBetween(GraphOverlay working, long a, long b) {
+        RoutingGraph routing = graph.getRoutingGraph();
+        Dijkstra.PathResult path = Dijkstra.shortestPath(routing, routing.indexOf(a), routing.indexOf(b)); // Calculer le chemin le plus court
         if (path.isReachable()) {
-            working.addVirtualPath(path.getPath(), "virtual"); // Ajouter un chemin virtuel dans le graphe
+            working.addDeadheadPath(path); // Doubler les rues du chemin (trajet haut-le-pied)
         }
     }
 
     // Ajouter des chemins pour équilibrer tous les sommets impairs
-    private boolean addGreedyMatchingPaths(Graph working, List<Long> oddNodes) {
-        Set<Long> unmatched = new HashSet<>(oddNodes); // Créer un ensemble de sommets non appariés
-        while (!unmatched.isEmpty()) {
-            long current = unmatched.iterator().next(); // Sélectionner un sommet courant
-            unmatched.remove(current); // Retirer le sommet courant
-            long bestPartner = -1; // Initialiser le meilleur partenaire
-            double bestDistance = Double.POSITIVE_INFINITY; // Initialiser la meilleure distance
-            for (long candidate : unmatched) {
-                Dijkstra.PathResult path = Dijkstra.shortestPath(working, current, candidate); // Calculer le chemin vers un candidat
-                if (path.isReachable() && path.getDistance() < bestDistance) {
-                    bestDistance = path.getDistance(); // Mettre à jour la meilleure distance
-                    bestPartner = candidate; // Mettre à jour le meilleur partenaire
-                }
-            }
-            if (bestPartner == -1) {
-                return false; // Retourner false si aucun appariement possible
+    // Couplage parfait de poids minimal (voisins impairs proches + fleurs d'Edmonds), puis un chemin virtuel par paire
+    private boolean addMatchingPaths(GraphOverlay working, List<Long> oddNodes) {
+        List<long[]> pairs = OddVertexMatching.match(graph, oddNodes); // Distances sur le graphe d'origine
+        if (pairs == null) {
+            return false; // Retourner false si aucun appariement possible
+        }
+        RoutingGraph routing = graph.getRoutingGraph();
+        for (long[] pair : pairs) {
+            Dijkstra.PathResult path = Dijkstra.shortestPath(routing, routing.indexOf(pair[0]), routing.indexOf(pair[1]));
+            if (!path.isReachable()) {
+                return false;
             }
-            unmatched.remove(bestPartner); // Retirer le partenaire choisi
-            Dijkstra.PathResult path = Dijkstra.shortestPath(working, current, bestPartner); // Calculer à nouveau le chemin
-            working.addVirtualPath(path.getPath(), "virtual"); // Ajouter le chemin virtuel
+            working.addDeadheadPath(path); // Doubler les rues du chemin
         }
         return true; // Retourner true si tous les appariements sont réalisés
     }
 
     // Exécuter l’algorithme de Hierholzer pour construire le circuit eulérien
-    private double runHierholzer(Graph working, long startId, List<Long> outputTrail) {
-        if (working.getEdges(startId).isEmpty()) {
+    // Adjacence compacte indexée, curseur par sommet, arêtes utilisées en boolean[] et pile d'entiers : O(V + E)
+    // Chaque arête est émise au moment où son sommet d'arrivée est dépilé : on obtient le circuit parcouru
+    // en sens inverse, qui reste un circuit eulérien valide partant du même sommet (graphe non orienté)
+    // La vue doit être connexe (sur ses arêtes) et tous ses degrés pairs ; sinon +infini (circuit partiel)
+    public static double runHierholzer(GraphOverlay working, long startId, CircuitSink sink) {
+        List<Edge> edges = new ArrayList<>(); // Arêtes ouvertes de la vue, chacune une fois
+        BitSet seen = new BitSet(working.getEdgeIdBound());
+        for (long id : working.getNodeIds()) {
+            for (Edge e : working.getEdges(id)) {
+                if (!seen.get(e.getId())) {
+                    seen.set(e.getId());
+                    edges.add(e);
+                }
+            }
+        }
+        return runHierholzer(edges, startId, sink);
+    }
+
+    // Même algorithme sur une liste d'arêtes : seuls leurs sommets sont indexés (circuit d'un secteur, par exemple)
+    public static double runHierholzer(List<Edge> edges, long startId, CircuitSink sink) {
+        NodeStore index = new NodeStore(); // Identifiant -> indice local (table de hachage ouverte, sans objets Long)
+        int m = edges.size();
+        int[] endA = new int[m];
+        int[] endB = new int[m];
+        for (int k = 0; k < m; k++) {
+            endA[k] = localIndex(index, edges.get(k).getFrom());
+            endB[k] = localIndex(index, edges.get(k).getTo());
+        }
+        int startIndex = index.slotOf(startId);
+        if (startIndex < 0) {
             return Double.POSITIVE_INFINITY; // Vérifier qu’il existe au moins une arête
         }
-        Deque<Long> stack = new ArrayDeque<>(); // Créer une pile pour Hierholzer
-        stack.push(startId); // Empiler le sommet de départ
-        Set<Integer> usedEdges = new HashSet<>(); // Stocker les arêtes déjà utilisées
-        double distance = 0.0; // Initialiser la distance totale
+        int n = index.size();
+        long[] ids = new long[n]; // Indice local -> identifiant
+        for (int i = 0; i < n; i++) {
+            ids[i] = index.idAt(i);
+        }
+        int[] first = new int[n + 1]; // Début des arcs de chaque sommet
+        for (int k = 0; k < m; k++) {
+            first[endA[k] + 1]++;
+            first[endB[k] + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            first[i + 1] += first[i];
+        }
+        int[] arcEdge = new int[first[n]]; // Arête (indice dans la liste) portée par chaque arc
+        int[] arcTarget = new int[first[n]]; // Extrémité opposée de chaque arc
+        int[] fill = Arrays.copyOf(first, n);
+        for (int k = 0; k < m; k++) {
+            int a = fill[endA[k]]++;
+            arcEdge[a] = k;
+            arcTarget[a] = endB[k];
+            a = fill[endB[k]]++;
+            arcEdge[a] = k;
+            arcTarget[a] = endA[k];
+        }
 
-        while (!stack.isEmpty()) {
+        int[] cursor = Arrays.copyOf(first, n); // Prochain arc à examiner pour chaque sommet
+        boolean[] usedEdges = new boolean[m]; // Arêtes déjà utilisées
+        int[] stack = new int[first[n] / 2 + 2]; // Au plus E + 1 sommets empilés
+        int[] stackEdge = new int[stack.length]; // Arête ayant mené à chaque sommet empilé
+        int top = 0;
+        stack[top++] = startIndex; // Empiler le sommet de départ
+        double distance = 0.0; // Initialiser la distance totale
+        int used = 0; // Arêtes parcourues
+        while (top > 0) {
             // Étape Hierholzer: empiler tant qu'il reste des arêtes, dépiler sinon
-            long v = stack.peek();
-            Iterator<Edge> iterator = working.getEdges(v).iterator(); // Obtenir un itérateur sur les arêtes
-            Edge nextEdge = null; // Initialiser l’arête suivante
-            while (iterator.hasNext()) {
-                Edge e = iterator.next();
-                if (!usedEdges.contains(e.getId())) {
-                    nextEdge = e; // Sélectionner la première arête non utilisée
-                    break;
-                }
+            int v = stack[top - 1];
+            int c = cursor[v];
+            while (c < first[v + 1] && usedEdges[arcEdge[c]]) {
+                c++; // Chaque arc n'est sauté qu'une seule fois au total
             }
-            if (nextEdge != null) {
-                usedEdges.add(nextEdge.getId()); // Marquer l’arête comme utilisée
-                distance += nextEdge.getWeight(); // Ajouter son poids à la distance
-                long u = nextEdge.getOther(v); // Obtenir l’autre extrémité
-                stack.push(u); // Empiler le voisin
+            cursor[v] = c;
+            if (c < first[v + 1]) {
+                int e = arcEdge[c];
+                usedEdges[e] = true; // Marquer l’arête comme utilisée
+                used++;
+                distance += edges.get(e).getWeight(); // Ajouter son poids à la distance
+                cursor[v] = c + 1;
+                stackEdge[top] = e;
+                stack[top++] = arcTarget[c]; // Empiler le voisin
             } else {
-                outputTrail.add(stack.pop()); // Dépiler si aucune arête disponible
+                top--; // Dépiler si aucune arête disponible
+                if (top > 0) {
+                    sink.onEdge(ids[v], ids[stack[top - 1]], edges.get(stackEdge[top])); // Émettre l'arête
+                }
             }
         }
-        if (outputTrail.isEmpty()) {
-            return Double.POSITIVE_INFINITY; // Retourner infini si aucun circuit trouvé
+        if (used < m) {
+            return Double.POSITIVE_INFINITY; // Arêtes non atteintes : pas de circuit couvrant
         }
-        java.util.Collections.reverse(outputTrail); // Inverser la liste pour obtenir l’ordre correct
         return distance; // Retourner la distance totale du circuit
     }
+
+    private static int localIndex(NodeStore index, long nodeId) {
+        int slot = index.slotOf(nodeId);
+        return slot >= 0 ? slot : index.add(nodeId, 0.0, 0.0, false);
+    }
 }
@@ -0,0 +1,398 @@
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Planification d'une flotte de camions (Thème 2)
+// 1) Affectation des points aux camions par insertion à regret (charge équilibrée selon la capacité, limite de service)
+// 2) Amélioration de chaque tournée indépendamment sur un pool de threads, puis découpage à la capacité du camion
+public class FleetPlanner {
+    private final Graph graph;
+    private final List<Vehicle> vehicles;
+    private final List<CollectionPoint> points;
+
+    public FleetPlanner(Graph graph, List<Vehicle> vehicles, List<CollectionPoint> points) {
+        this.graph = graph;
+        this.vehicles = vehicles;
+        this.points = points;
+    }
+
+    // Construire une flotte homogène partant du même dépôt, sans limite de service
+    public static List<Vehicle> homogeneousFleet(int count, int capacity, long depotId) {
+        List<Vehicle> fleet = new ArrayList<>();
+        for (int k = 0; k < count; k++) {
+            fleet.add(new Vehicle("Camion " + (k + 1), capacity, depotId, Double.POSITIVE_INFINITY));
+        }
+        return fleet;
+    }
+
+    // Planifier toute la flotte ; threads <= 0 : un thread par cœur disponible
+    // Retourner null si un dépôt ou un point n'est pas atteignable
+    public FleetPlan plan(int threads, CancellationToken token) {
+        long start = System.nanoTime();
+        if (vehicles.isEmpty()) {
+            return null;
+        }
+
+        // Sommets de la matrice : dépôts d'abord, puis points de collecte (volumes cumulés par sommet)
+        // Un point situé sur un dépôt reste un client, à distance nulle de ce dépôt
+        LinkedHashSet<Long> idSet = new LinkedHashSet<>();
+        for (Vehicle v : vehicles) {
+            idSet.add(v.depotId);
+        }
+        Map<Long, Integer> volumeByNode = new LinkedHashMap<>();
+        for (CollectionPoint cp : points) {
+            volumeByNode.merge(cp.getNearestNodeId(), cp.getVolume(), Integer::sum);
+        }
+        List<Long> customers = new ArrayList<>(); // Points à servir (hors dépôts)
+        for (long id : volumeByNode.keySet()) {
+            idSet.add(id);
+            customers.add(id);
+        }
+        DistanceMatrix matrix = DistanceMatrix.build(graph, new ArrayList<>(idSet), token);
+        if (matrix == null) {
+            return null;
+        }
+        double[][] d = matrix.getDistances();
+        int n = customers.size();
+        int[] custIdx = new int[n]; // Indice matrice de chaque point
+        int[] custVol = new int[n];
+        for (int c = 0; c < n; c++) {
+            custIdx[c] = matrix.indexOf(customers.get(c));
+            custVol[c] = volumeByNode.get(customers.get(c));
+        }
+
+        List<List<Integer>> routes = assign(d, matrix, custIdx, custVol);
+
+        // Améliorer chaque tournée sur le pool (matrice partagée en lecture seule)
+        int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        workers = Math.max(1, Math.min(workers, vehicles.size()));
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        List<Future<VehicleRoute>> futures = new ArrayList<>();
+        try {
+            for (int v = 0; v < vehicles.size(); v++) {
+                Vehicle vehicle = vehicles.get(v);
+                List<Integer> route = routes.get(v);
+                futures.add(pool.submit(() -> optimizeRoute(vehicle, route, d, matrix, volumeByNode, token)));
+            }
+            List<VehicleRoute> result = new ArrayList<>();
+            for (Future<VehicleRoute> future : futures) {
+                result.add(future.get());
+            }
+            List<Long> unassigned = new ArrayList<>();
+            for (int idx : routes.get(vehicles.size())) {
+                unassigned.add(matrix.getId(idx));
+            }
+            return new FleetPlan(result, unassigned, (System.nanoTime() - start) / 1_000_000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Échec de l'optimisation d'une tournée de la flotte", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Affecter les points par insertion à regret : à chaque étape, insérer le point dont le second meilleur camion
+    // coûterait le plus cher par rapport au meilleur. Un camion n'accepte un point que si sa charge reste sous sa part
+    // de la charge totale (au prorata des capacités) et si la tournée estimée respecte sa limite de service.
+    // Retourner une liste d'indices matrice par camion (dépôt non inclus) ; la dernière liste contient les points non affectés
+    private List<List<Integer>> assign(double[][] d, DistanceMatrix matrix, int[] custIdx, int[] custVol) {
+        int vCount = vehicles.size();
+        int n = custIdx.length;
+        int[] depotIdx = new int[vCount];
+        long totalVolume = 0;
+        long totalCapacity = 0;
+        int maxVolume = 0;
+        for (int v = 0; v < vCount; v++) {
+            depotIdx[v] = matrix.indexOf(vehicles.get(v).depotId);
+            totalCapacity += vehicles.get(v).capacity;
+        }
+        for (int c = 0; c < n; c++) {
+            totalVolume += custVol[c];
+            maxVolume = Math.max(maxVolume, custVol[c]);
+        }
+        int[] quota = new int[vCount]; // Part de charge de chaque camion (marge d'un point)
+        for (int v = 0; v < vCount; v++) {
+            quota[v] = (int) Math.ceil((double) totalVolume * vehicles.get(v).capacity / Math.max(1, totalCapacity)) + maxVolume;
+        }
+
+        List<List<Integer>> tours = new ArrayList<>(); // Tournée de chaque camion, dépôt en tête
+        for (int v = 0; v < vCount; v++) {
+            List<Integer> tour = new ArrayList<>();
+            tour.add(depotIdx[v]);
+            tours.add(tour);
+        }
+        int[] load = new int[vCount];
+        double[] length = new double[vCount]; // Longueur de la tournée géante de chaque camion
+        double[][] cost = new double[n][vCount]; // Surcoût d'insertion de chaque point dans chaque camion
+        int[][] position = new int[n][vCount]; // Position d'insertion correspondante
+        boolean[] done = new boolean[n];
+        for (int c = 0; c < n; c++) {
+            for (int v = 0; v < vCount; v++) {
+                evaluate(c, v, d, custIdx, custVol, tours, load, length, quota, cost, position);
+            }
+        }
+
+        List<Integer> unassigned = new ArrayList<>();
+        for (int step = 0; step < n; step++) {
+            int bestC = -1;
+            int bestV = -1;
+            double bestRegret = Double.NEGATIVE_INFINITY;
+            for (int c = 0; c < n; c++) {
+                if (done[c]) {
+                    continue;
+                }
+                int first = -1;
+                double c1 = Double.POSITIVE_INFINITY;
+                double c2 = Double.POSITIVE_INFINITY;
+                for (int v = 0; v < vCount; v++) {
+                    if (cost[c][v] < c1) {
+                        c2 = c1;
+                        c1 = cost[c][v];
+                        first = v;
+                    } else if (cost[c][v] < c2) {
+                        c2 = cost[c][v];
+                    }
+                }
+                if (first == -1) {
+                    continue; // Aucun camion ne peut le prendre pour l'instant
+                }
+                // Regret infini (un seul camion possible) : à traiter en priorité ; égalité => plus petit surcoût
+                double regret = Double.isInfinite(c2) ? Double.MAX_VALUE : c2 - c1;
+                if (regret > bestRegret || (regret == bestRegret && c1 < cost[bestC][bestV])) {
+                    bestRegret = regret;
+                    bestC = c;
+                    bestV = first;
+                }
+            }
+            if (bestC == -1) {
+                break; // Les points restants ne rentrent nulle part
+            }
+            List<Integer> tour = tours.get(bestV);
+            tour.add(position[bestC][bestV] + 1, custIdx[bestC]);
+            load[bestV] += custVol[bestC];
+            length[bestV] += cost[bestC][bestV];
+            done[bestC] = true;
+            for (int c = 0; c < n; c++) { // Seul le camion modifié doit être réévalué
+                if (!done[c]) {
+                    evaluate(c, bestV, d, custIdx, custVol, tours, load, length, quota, cost, position);
+                }
+            }
+        }
+        for (int c = 0; c < n; c++) {
+            if (!done[c]) {
+                unassigned.add(custIdx[c]);
+            }
+        }
+
+        List<List<Integer>> result = new ArrayList<>();
+        for (List<Integer> tour : tours) {
+            result.add(new ArrayList<>(tour.subList(1, tour.size())));
+        }
+        result.add(unassigned);
+        return result;
+    }
+
+    // Calculer le meilleur surcoût d'insertion du point c dans la tournée du camion v (infini si interdit)
+    private void evaluate(int c, int v, double[][] d, int[] custIdx, int[] custVol, List<List<Integer>> tours,
+                          int[] load, double[] length, int[] quota, double[][] cost, int[][] position) {
+        cost[c][v] = Double.POSITIVE_INFINITY;
+        Vehicle vehicle = vehicles.get(v);
+        if (load[v] + custVol[c] > quota[v]) {
+            return; // Part de charge atteinte
+        }
+        List<Integer> tour = tours.get(v);
+        int p = custIdx[c];
+        int size = tour.size();
+        for (int i = 0; i < size; i++) {
+            int a = tour.get(i);
+            int b = tour.get((i + 1) % size);
+            double delta = d[a][p] + d[p][b] - d[a][b];
+            if (delta < cost[c][v]) {
+                cost[c][v] = delta;
+                position[c][v] = i;
+            }
+        }
+        // Estimation de la journée : tournée géante + allers-retours au dépôt pour vider le camion
+        int trips = (load[v] + custVol[c] + vehicle.capacity - 1) / vehicle.capacity;
+        double unload = Math.max(0, trips - 1) * 2.0 * d[tour.get(0)][p];
+        if (length[v] + cost[c][v] + unload > vehicle.maxShiftDistance) {
+            cost[c][v] = Double.POSITIVE_INFINITY; // Limite de service dépassée
+        }
+    }
+
+    // Améliorer la tournée d'un camion (2-opt / Or-opt) puis la découper à sa capacité
+    private VehicleRoute optimizeRoute(Vehicle vehicle, List<Integer> route, double[][] d, DistanceMatrix matrix,
+                                       Map<Long, Integer> volumeByNode, CancellationToken token) {
+        int m = route.size();
+        int depot = matrix.indexOf(vehicle.depotId);
+        // Sous-matrice locale : 0 = dépôt, 1..m = points du camion (meilleure localité mémoire)
+        int[] global = new int[m + 1];
+        global[0] = depot;
+        for (int i = 0; i < m; i++) {
+            global[i + 1] = route.get(i);
+        }
+        double[][] local = new double[m + 1][m + 1];
+        for (int i = 0; i <= m; i++) {
+            for (int j = 0; j <= m; j++) {
+                local[i][j] = d[global[i]][global[j]];
+            }
+        }
+        int[] tour = new int[m + 1];
+        for (int i = 0; i <= m; i++) {
+            tour[i] = i;
+        }
+        new TourImprover(local, token).improve(tour);
+
+        int[] idx = new int[m + 1];
+        int[] vol = new int[m + 1];
+        for (int j = 1; j <= m; j++) {
+            idx[j] = tour[j];
+            vol[j] = volumeByNode.get(matrix.getId(global[tour[j]]));
+        }
+        List<Theme2Solver.SplitTour> splits = new ArrayList<>();
+        double total = 0.0;
+        int totalLoad = 0;
+        for (int[] range : TourSplitter.split(local, 0, idx, vol, vehicle.capacity)) {
+            List<Long> path = new ArrayList<>();
+            path.add(vehicle.depotId);
+            int used = 0;
+            double dist = 0.0;
+            int prev = 0;
+            for (int q = range[0]; q <= range[1]; q++) {
+                path.add(matrix.getId(global[idx[q]]));
+                used += vol[q];
+                dist += local[prev][idx[q]];
+                prev = idx[q];
+            }
+            dist += local[prev][0];
+            path.add(vehicle.depotId);
+            splits.add(new Theme2Solver.SplitTour(path, used, dist));
+            total += dist;
+            totalLoad += used;
+        }
+        return new VehicleRoute(vehicle, splits, total, totalLoad);
+    }
+
+    // Afficher le plan de la flotte (sous-tournées de chaque camion)
+    public static void printPlan(FleetPlan plan) {
+        double total = 0.0;
+        double longest = 0.0;
+        for (VehicleRoute vr : plan.getRoutes()) {
+            Vehicle v = vr.getVehicle();
+            System.out.printf("%s (capacité %d m3, dépôt %d) : %d m3, %.2f m%s%n", v.getName(), v.getCapacity(),
+                    v.getDepotId(), vr.getLoad(), vr.getDistance(), vr.isWithinShift() ? "" : " (limite de service dépassée)");
+            List<Theme2Solver.SplitTour> splits = vr.getSplits();
+            for (int i = 0; i < splits.size(); i++) {
+                Theme2Solver.SplitTour st = splits.get(i);
+                System.out.println("  Tournée " + (i + 1) + " (" + st.usedVolume + "/" + v.getCapacity() + " m3) : " + st.path);
+                System.out.printf("    Distance : %.2f m%n", st.distance);
+            }
+            total += vr.getDistance();
+            longest = Math.max(longest, vr.getDistance());
+        }
+        System.out.printf("Distance totale de la flotte : %.2f m (camion le plus chargé : %.2f m)%n", total, longest);
+        if (!plan.getUnassigned().isEmpty()) {
+            System.out.println("Points non affectés (capacité ou limite de service) : " + plan.getUnassigned());
+        }
+        System.out.println("Calcul : " + plan.getElapsedMillis() + " ms");
+    }
+
+    // Camion de la flotte
+    public static class Vehicle {
+        private final String name;
+        private final int capacity; // m3 par tournée
+        private final long depotId; // Dépôt de rattachement
+        private final double maxShiftDistance; // Limite de service en mètres (infini : aucune)
+
+        public Vehicle(String name, int capacity, long depotId, double maxShiftDistance) {
+            this.name = name;
+            this.capacity = capacity;
+            this.depotId = depotId;
+            this.maxShiftDistance = maxShiftDistance;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public long getDepotId() {
+            return depotId;
+        }
+
+        public double getMaxShiftDistance() {
+            return maxShiftDistance;
+        }
+    }
+
+    // Journée d'un camion : sous-tournées successives depuis son dépôt
+    public static class VehicleRoute {
+        private final Vehicle vehicle;
+        private final List<Theme2Solver.SplitTour> splits;
+        private final double distance;
+        private final int load;
+
+        public VehicleRoute(Vehicle vehicle, List<Theme2Solver.SplitTour> splits, double distance, int load) {
+            this.vehicle = vehicle;
+            this.splits = splits;
+            this.distance = distance;
+            this.load = load;
+        }
+
+        public Vehicle getVehicle() {
+            return vehicle;
+        }
+
+        public List<Theme2Solver.SplitTour> getSplits() {
+            return splits;
+        }
+
+        public double getDistance() {
+            return distance;
+        }
+
+        public int getLoad() {
+            return load;
+        }
+
+        public boolean isWithinShift() {
+            return distance <= vehicle.maxShiftDistance;
+        }
+    }
+
+    // Résultat de la planification de la flotte
+    public static class FleetPlan {
+        private final List<VehicleRoute> routes;
+        private final List<Long> unassigned;
+        private final long elapsedMillis;
+
+        public FleetPlan(List<VehicleRoute> routes, List<Long> unassigned, long elapsedMillis) {
+            this.routes = routes;
+            this.unassigned = unassigned;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public List<VehicleRoute> getRoutes() {
+            return routes;
+        }
+
+        public List<Long> getUnassigned() {
+            return unassigned;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+}
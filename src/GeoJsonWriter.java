@@ -0,0 +1,279 @@
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+// Écriture GeoJSON en flux : FeatureCollection de LineString écrite directement en octets dans un tampon,
+// vidé dans un FileChannel (ou à travers GZIP). Les coordonnées sont formatées en virgule fixe
+// (7 décimales, précision OSM) sans passer par Double.toString ni créer de chaîne par point
+// Les tracés se donnent point par point, par séquence de sommets, d'arêtes, ou d'arrêts reliés par plus courts chemins
+public class GeoJsonWriter implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int DECIMALS = 7;
+    private static final long SCALE = 10_000_000L; // 10^DECIMALS
+    private static final String[] COLORS = {"#ff0000", "#0000ff", "#00aa00", "#ff9900", "#9900ff", "#00cccc", "#cc00cc"};
+    private final String filename;
+    private final FileChannel channel;
+    private final GZIPOutputStream gzip; // null : écriture directe dans le canal
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private int features; // Entités déjà commencées
+    private int points; // Points de la LineString en cours (-1 : aucune ouverte)
+
+    private GeoJsonWriter(String filename, boolean compress) throws IOException {
+        this.filename = filename;
+        File parent = new File(filename).getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs(); // Créer les dossiers si besoin
+        }
+        this.channel = FileChannel.open(new File(filename).toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.gzip = compress ? new GZIPOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE) : null;
+        this.points = -1;
+        ascii("{\"type\":\"FeatureCollection\",\"features\":["); // Ouvrir FeatureCollection
+    }
+
+    // Ouvrir un fichier ; compress : sortie GZIP (extension .geojson.gz conseillée)
+    public static GeoJsonWriter open(String filename, boolean compress) throws IOException {
+        return new GeoJsonWriter(filename, compress);
+    }
+
+    // Commencer une LineString ; color null : couleur cyclique selon le rang de l'entité
+    public void beginLineString(String name, String color) throws IOException {
+        if (points >= 0) {
+            throw new IllegalStateException("Une LineString est déjà ouverte");
+        }
+        if (features > 0) {
+            put((byte) ','); // Virgule entre deux features
+        }
+        ascii("{\"type\":\"Feature\",\"properties\":{\"name\":\"");
+        text(name == null ? "" : name);
+        ascii("\",\"stroke\":\"");
+        text(color == null ? COLORS[features % COLORS.length] : color);
+        ascii("\",\"stroke-width\":3},\"geometry\":{\"type\":\"LineString\",\"coordinates\":[");
+        features++;
+        points = 0;
+    }
+
+    // Ajouter un point (longitude, latitude) à la LineString ouverte
+    public void point(double longitude, double latitude) throws IOException {
+        if (points < 0) {
+            throw new IllegalStateException("Aucune LineString ouverte");
+        }
+        ensure(64); // Deux nombres de 28 octets au plus, crochets et virgule
+        if (points > 0) {
+            buffer.put((byte) ',');
+        }
+        buffer.put((byte) '[');
+        fixed(longitude);
+        buffer.put((byte) ',');
+        fixed(latitude);
+        buffer.put((byte) ']');
+        points++;
+    }
+
+    public void node(Node node) throws IOException {
+        point(node.getLongitude(), node.getLatitude());
+    }
+
+    public void endLineString() throws IOException {
+        if (points < 0) {
+            throw new IllegalStateException("Aucune LineString ouverte");
+        }
+        ascii("]}}"); // Fermer geometry et feature
+        points = -1;
+    }
+
+    // Écrire une séquence de sommets (déjà adjacents) ; les sommets inconnus sont ignorés
+    public void writeNodePath(Graph graph, long[] nodeIds, String name, String color) throws IOException {
+        beginLineString(name, color);
+        for (long id : nodeIds) {
+            Node n = graph.getNode(id);
+            if (n != null) {
+                node(n);
+            }
+        }
+        endLineString();
+    }
+
+    // Écrire un tracé donné par ses coordonnées (tableaux parallèles)
+    public void writeCoordinates(double[] latitudes, double[] longitudes, String name, String color) throws IOException {
+        beginLineString(name, color);
+        for (int i = 0; i < latitudes.length; i++) {
+            point(longitudes[i], latitudes[i]);
+        }
+        endLineString();
+    }
+
+    // Écrire une séquence d'arêtes parcourue depuis startId (chaque arête part de l'extrémité atteinte précédemment)
+    public void writeEdgePath(Graph graph, long startId, int[] edgeIds, String name, String color) throws IOException {
+        beginLineString(name, color);
+        long current = startId;
+        Node start = graph.getNode(startId);
+        if (start != null) {
+            node(start);
+        }
+        for (int edgeId : edgeIds) {
+            Edge e = graph.getEdge(edgeId);
+            if (e == null) {
+                continue; // Arête inconnue : ignorer
+            }
+            current = e.getOther(current);
+            Node n = graph.getNode(current);
+            if (n != null) {
+                node(n);
+            }
+        }
+        endLineString();
+    }
+
+    // Écrire une tournée d'arrêts (dépôt, points, dépôt) en la développant rue par rue (plus courts chemins)
+    public void writeTour(Graph graph, List<Long> stops, String name, String color) throws IOException {
+        writeNodePath(graph, streetNodeIds(graph, stops), name, color);
+    }
+
+    // Développer une suite d'arrêts en suite de sommets adjacents (sommet de jonction non répété)
+    public static long[] streetNodeIds(Graph graph, List<Long> stops) {
+        ContractedGraph contracted = graph.getContractedGraph();
+        RoutingGraph routing = contracted.getRouting();
+        long[] ids = new long[16];
+        int size = 0;
+        for (int i = 0; i + 1 < stops.size(); i++) {
+            int a = routing.indexOf(stops.get(i));
+            int b = routing.indexOf(stops.get(i + 1));
+            if (a < 0 || b < 0) {
+                continue; // Arrêt hors du graphe
+            }
+            List<Long> leg = contracted.shortestPath(a, b).getPath();
+            for (int j = size > 0 ? 1 : 0; j < leg.size(); j++) {
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                }
+                ids[size++] = leg.get(j);
+            }
+        }
+        return Arrays.copyOf(ids, size);
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    // Fermer la collection, vider le tampon et fermer le fichier
+    @Override
+    public void close() throws IOException {
+        try {
+            if (points >= 0) {
+                endLineString();
+            }
+            ascii("]}"); // Fermer FeatureCollection
+            flush();
+            if (gzip != null) {
+                gzip.finish();
+            }
+        } finally {
+            if (gzip != null) {
+                gzip.close(); // Ferme aussi le canal
+            } else {
+                channel.close();
+            }
+        }
+    }
+
+    // Formater en virgule fixe : signe, partie entière, puis décimales sans zéros finaux
+    private void fixed(double value) {
+        long scaled = Math.round(value * SCALE);
+        if (scaled < 0) {
+            buffer.put((byte) '-');
+            scaled = -scaled;
+        }
+        digits(scaled / SCALE);
+        long frac = scaled % SCALE;
+        if (frac == 0) {
+            return;
+        }
+        int width = DECIMALS;
+        while (frac % 10 == 0) {
+            frac /= 10;
+            width--;
+        }
+        buffer.put((byte) '.');
+        int pos = buffer.position() + width;
+        for (int i = 1; i <= width; i++) {
+            buffer.put(pos - i, (byte) ('0' + frac % 10));
+            frac /= 10;
+        }
+        buffer.position(pos);
+    }
+
+    // Écrire un entier positif en décimal (chiffres posés de droite à gauche)
+    private void digits(long value) {
+        int length = 1;
+        for (long v = value / 10; v > 0; v /= 10) {
+            length++;
+        }
+        int pos = buffer.position() + length;
+        for (int i = 1; i <= length; i++) {
+            buffer.put(pos - i, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+        buffer.position(pos);
+    }
+
+    private void ascii(String s) throws IOException {
+        for (int i = 0; i < s.length(); i++) {
+            put((byte) s.charAt(i));
+        }
+    }
+
+    // Écrire une chaîne JSON échappée en UTF-8
+    private void text(String s) throws IOException {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                put((byte) '\\');
+                put((byte) c);
+            } else if (c < 0x20) {
+                ascii(String.format("\\u%04x", (int) c));
+            } else if (c < 0x80) {
+                put((byte) c);
+            } else {
+                int end = Character.isHighSurrogate(c) && i + 1 < s.length() ? i + 2 : i + 1;
+                for (byte b : s.substring(i, end).getBytes(StandardCharsets.UTF_8)) {
+                    put(b);
+                }
+                i = end - 1;
+            }
+        }
+    }
+
+    private void put(byte b) throws IOException {
+        ensure(1);
+        buffer.put(b);
+    }
+
+    // Garantir « bytes » octets libres dans le tampon
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        if (gzip != null) {
+            gzip.write(buffer.array(), 0, buffer.position());
+        } else {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        buffer.clear();
+    }
+}
@@ -13,12 +13,18 @@ import java.util.Random;
 import java.util.Set;
 
 public class Graph {
-    // Stocker les sommets du graphe indexés par ID
-    private final Map<Long, Node> nodes = new HashMap<>();
+    // Stocker les sommets du graphe en colonnes (coordonnées en tableaux, indexées par ID)
+    private NodeStore nodes = new NodeStore();
     // Stocker les arêtes adjacentes à chaque sommet
     private final Map<Long, List<Edge>> adjacency = new HashMap<>();
     // Gérer les identifiants uniques pour chaque arête
     private int nextEdgeId = 1;
+    // Instantané compact (CSR) pour les recherches, reconstruit après modification
+    private RoutingGraph routing;
+    // Graphe contracté (chaînes de degré 2 fusionnées) construit sur l'instantané courant
+    private ContractedGraph contracted;
+    // Arêtes indexées par identifiant, construites à la demande (publiées entières : lues sans verrou par les workers)
+    private volatile Edge[] edgesById;
 
     // Charger les sommets puis les arêtes depuis les CSV
     public static Graph loadFromCsv(String nodesFile, String edgesFile) throws IOException {
@@ -40,7 +46,7 @@ public class Graph {
                     long id = Long.parseLong(parts[0].trim());
                     double lat = Double.parseDouble(parts[1].trim().replace(",", "."));
                     double lon = Double.parseDouble(parts[2].trim().replace(",", "."));
-                    graph.addNode(new Node(id, lat, lon, false)); // Ajouter le sommet
+                    graph.addNode(id, lat, lon, false); // Ajouter le sommet
                     nodesRead++;
                 } catch (NumberFormatException ignored) {
                     // Ignorer les lignes mal formées
@@ -85,8 +91,8 @@ public class Graph {
                     String name = parts.length > 5 ? parts[5] : "";
                     edgesRead++;
                     Node template = graph.getNode(from);
-                    if (template == null && graph.nodes.values().iterator().hasNext()) {
-                        template = graph.nodes.values().iterator().next(); // Prendre un sommet comme modèle
+                    if (template == null && !graph.nodes.isEmpty()) {
+                        template = new Node(graph.nodes, 0); // Prendre un sommet comme modèle
                     }
                     graph.ensureNodeExists(from, template); // Créer le sommet source si absent
                     graph.ensureNodeExists(to, graph.getNode(from)); // Créer le sommet cible si absent
@@ -109,7 +115,7 @@ public class Graph {
 
         int orphanCount = 0;
         // Compter les sommets sans arête
-        for (long id : graph.nodes.keySet()) {
+        for (long id : graph.nodes.ids()) {
             if (graph.getDegree(id) == 0) {
                 orphanCount++;
             }
@@ -153,13 +159,15 @@ public class Graph {
     }
 
     // Ajouter un sommet au graphe si absent
-    public void addNode(Node node) {
-        nodes.putIfAbsent(node.getId(), node);
+    public void addNode(long id, double latitude, double longitude, boolean inferred) {
+        if (nodes.add(id, latitude, longitude, inferred) >= 0) {
+            routing = null; // Invalider l'instantané compact
+        }
     }
 
     // Vérifier si un sommet existe et le créer si nécessaire
     public void ensureNodeExists(long id, Node template) {
-        if (nodes.containsKey(id)) {
+        if (nodes.contains(id)) {
             return; // Ne rien faire si le sommet existe
         }
         double lat = 0.0;
@@ -169,8 +177,7 @@ public class Graph {
             lon = template.getLongitude();
         }
         // Créer un sommet inféré et l’ajouter
-        Node inferred = new Node(id, lat, lon, true);
-        addNode(inferred);
+        addNode(id, lat, lon, true);
     }
 
     // Ajouter une arête non orientée entre deux sommets
@@ -183,10 +190,54 @@ public class Graph {
 
     // Ajouter une arête dans la structure d’adjacence
     private void addEdgeReference(Edge edge) {
+        routing = null; // Invalider l'instantané compact
+        edgesById = null;
         adjacency.computeIfAbsent(edge.getFrom(), k -> new ArrayList<>()).add(edge); // Lier l’arête au sommet de départ
         adjacency.computeIfAbsent(edge.getTo(), k -> new ArrayList<>()).add(edge); // Lier l’arête au sommet d’arrivée
     }
 
+    // Récupérer l'instantané compact (indices denses, adjacence CSR) pour les recherches intensives
+    public RoutingGraph getRoutingGraph() {
+        if (routing == null) {
+            routing = RoutingGraph.build(this);
+        }
+        return routing;
+    }
+
+    // Récupérer le graphe contracté sans sommet épinglé (reconstruit si l'instantané a changé)
+    // Les chemins entre sommets quelconques restent exacts : un sommet intérieur est rejoint par sa chaîne
+    public ContractedGraph getContractedGraph() {
+        RoutingGraph current = getRoutingGraph();
+        if (contracted == null || contracted.getRouting() != current) {
+            contracted = ContractedGraph.build(current, null);
+        }
+        return contracted;
+    }
+
+    // Récupérer une arête par son identifiant (null si inconnue ou supprimée)
+    public Edge getEdge(int edgeId) {
+        Edge[] byId = edgesById;
+        if (byId == null) {
+            byId = buildEdgeIndex();
+        }
+        return edgeId >= 0 && edgeId < byId.length ? byId[edgeId] : null;
+    }
+
+    // Construire l'index des arêtes une seule fois, même si plusieurs threads le demandent en même temps
+    private synchronized Edge[] buildEdgeIndex() {
+        Edge[] byId = edgesById;
+        if (byId == null) {
+            byId = new Edge[nextEdgeId];
+            for (List<Edge> edges : adjacency.values()) {
+                for (Edge e : edges) {
+                    byId[e.getId()] = e;
+                }
+            }
+            edgesById = byId;
+        }
+        return byId;
+    }
+
     // Récupérer un sommet par son ID
     public Node getNode(long id) {
         return nodes.get(id);
@@ -196,15 +247,15 @@ public class Graph {
     public Long findNearestNodeId(double latitude, double longitude) {
         long bestId = -1;
         double bestDist = Double.POSITIVE_INFINITY;
-        for (Node node : nodes.values()) {
+        for (int slot = 0; slot < nodes.size(); slot++) {
             // Calculer distance euclidienne simplifiée
-            double dLat = node.getLatitude() - latitude;
-            double dLon = node.getLongitude() - longitude;
+            double dLat = nodes.latitudeAt(slot) - latitude;
+            double dLon = nodes.longitudeAt(slot) - longitude;
             double dist = dLat * dLat + dLon * dLon;
             // Mettre à jour le sommet le plus proche si nécessaire
             if (dist < bestDist) {
                 bestDist = dist;
-                bestId = node.getId();
+                bestId = nodes.idAt(slot);
             }
         }
         return bestId == -1 ? null : bestId; // Retourner null si aucun sommet trouvé
@@ -233,7 +284,7 @@ public class Graph {
 
     // Récupérer tous les IDs des sommets
     public Set<Long> getNodeIds() {
-        return nodes.keySet();
+        return nodes.ids();
     }
 
     // Compter le nombre total d’arêtes
@@ -245,6 +296,11 @@ public class Graph {
         return total / 2; // Diviser par 2 car graphe non orienté
     }
 
+    // Récupérer la borne (exclue) des identifiants d’arêtes déjà attribués
+    public int getEdgeIdBound() {
+        return nextEdgeId;
+    }
+
     // Récupérer le degré d’un sommet (nombre d’arêtes)
     public int getDegree(long nodeId) {
         return adjacency.getOrDefault(nodeId, Collections.emptyList()).size();
@@ -254,7 +310,7 @@ public class Graph {
     public List<Long> getOddDegreeNodes() {
         List<Long> odd = new ArrayList<>();
         // Vérifier chaque sommet
-        for (long id : nodes.keySet()) {
+        for (long id : nodes.ids()) {
             if (getDegree(id) % 2 != 0) {
                 odd.add(id); // Ajouter le sommet à la liste
             }
@@ -262,29 +318,6 @@ public class Graph {
         return odd;
     }
 
-    // Créer une copie complète du graphe
-    public Graph createCopy() {
-        Graph copy = new Graph();
-        copy.nodes.putAll(this.nodes); // Copier tous les sommets
-        Map<Integer, Edge> uniqueEdges = new HashMap<>();
-        int maxEdgeId = 0;
-        // Copier toutes les arêtes uniques
-        for (List<Edge> edges : adjacency.values()) {
-            for (Edge e : edges) {
-                uniqueEdges.putIfAbsent(e.getId(), e); // Ajouter chaque arête unique
-                maxEdgeId = Math.max(maxEdgeId, e.getId());
-            }
-        }
-        // Ajouter chaque arête à la copie
-        for (Edge e : uniqueEdges.values()) {
-            Edge duplicate = new Edge(e.getId(), e.getFrom(), e.getTo(), e.getWeight(), e.getName());
-            copy.addEdgeReference(duplicate);
-        }
-        // Mettre à jour le compteur d’ID d’arête
-        copy.nextEdgeId = Math.max(maxEdgeId + 1, this.nextEdgeId);
-        return copy;
-    }
-
     // Récupérer le poids de l’arête entre deux sommets
     public double getEdgeWeightBetween(long from, long to) {
         double best = Double.POSITIVE_INFINITY;
@@ -297,26 +330,9 @@ public class Graph {
         return best;
     }
 
-    // Ajouter un chemin virtuel composé de plusieurs sommets
-    public void addVirtualPath(List<Long> path, String label) {
-        if (path == null || path.size() < 2) {
-            return; // Ignorer les chemins invalides
-        }
-        // Parcourir les sommets du chemin
-        for (int i = 0; i < path.size() - 1; i++) {
-            long u = path.get(i);
-            long v = path.get(i + 1);
-            double w = getEdgeWeightBetween(u, v); // Récupérer le poids de l’arête existante
-            if (Double.isInfinite(w)) {
-                continue; // Ignorer si l’arête est manquante
-            }
-            addUndirectedEdge(u, v, w, label); // Ajouter l’arête virtuelle au graphe
-        }
-    }
-
     // Vérifier si tous les sommets sont connectés depuis un sommet donné
     public boolean isConnectedFrom(long startId) {
-        if (!nodes.containsKey(startId)) {
+        if (!nodes.contains(startId)) {
             return false; // Retourner faux si le sommet n’existe pas
         }
         Set<Long> visited = new HashSet<>();
@@ -338,7 +354,7 @@ public class Graph {
 
     // Récupérer tous les sommets atteignables depuis un sommet
     public List<Long> getReachableNodes(long startId) {
-        if (!nodes.containsKey(startId)) {
+        if (!nodes.contains(startId)) {
             return Collections.emptyList(); // Retourner liste vide si sommet inexistant
         }
         Set<Long> visited = new HashSet<>();
@@ -367,7 +383,7 @@ public class Graph {
         List<Set<Long>> components = new ArrayList<>();
 
         // Identifier toutes les composantes connexes
-        for (long nodeId : nodes.keySet()) {
+        for (long nodeId : nodes.ids()) {
             if (visited.contains(nodeId)) {
                 continue; // Ignorer si sommet déjà visité
             }
@@ -409,7 +425,9 @@ public class Graph {
         int before = nodes.size();
 
         // Supprimer les sommets hors de la plus grande composante
-        nodes.keySet().removeIf(id -> !largest.contains(id));
+        routing = null; // Invalider l'instantané compact
+        edgesById = null;
+        nodes.retainAll(largest);
         adjacency.keySet().removeIf(id -> !largest.contains(id));
         // Supprimer les arêtes qui ne sont plus connectées
         for (Map.Entry<Long, List<Edge>> entry : adjacency.entrySet()) {
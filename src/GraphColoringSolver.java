@@ -1,12 +1,15 @@
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 public class GraphColoringSolver {
+    private static final int BALANCE_ROUNDS = 200; // Perturbations par thread (coloration équilibrée)
+    private static final long BALANCE_SEED = 42L;
+
     // Enumération des jours, utilisée comme couleurs
     public enum Day {
         LUNDI, MARDI, MERCREDI, JEUDI, VENDREDI, SAMEDI, DIMANCHE
@@ -15,10 +18,23 @@ public class GraphColoringSolver {
     public static class ColoringResult {
         private final Map<String, String> colorBySector; // Map secteur -> couleur assignée
         private final int chromaticNumber; // Nombre chromatique final
+        private final boolean provenOptimal; // Nombre de couleurs prouvé minimal (mode exact)
+        private final Map<String, Double> loadByColor; // Charge de chaque couleur (mode équilibré, vide sinon)
 
         public ColoringResult(Map<String, String> colorBySector, int chromaticNumber) {
+            this(colorBySector, chromaticNumber, false);
+        }
+
+        public ColoringResult(Map<String, String> colorBySector, int chromaticNumber, boolean provenOptimal) {
+            this(colorBySector, chromaticNumber, provenOptimal, new LinkedHashMap<>());
+        }
+
+        public ColoringResult(Map<String, String> colorBySector, int chromaticNumber, boolean provenOptimal,
+                Map<String, Double> loadByColor) {
             this.colorBySector = colorBySector;
             this.chromaticNumber = chromaticNumber;
+            this.provenOptimal = provenOptimal;
+            this.loadByColor = loadByColor;
         }
 
         public Map<String, String> getColorBySector() {
@@ -28,45 +44,92 @@ public class GraphColoringSolver {
         public int getChromaticNumber() {
             return chromaticNumber;
         }
+
+        public boolean isProvenOptimal() {
+            return provenOptimal;
+        }
+
+        public Map<String, Double> getLoadByColor() {
+            return loadByColor;
+        }
     }
 
-    // Algorithme Welsh-Powell
+    // Coloration DSATUR indexée par entiers (moteur DsaturColoring) : moins de jours que Welsh-Powell en général
     public ColoringResult color(List<Sector> sectors) {
-        // Créer une map d'accès rapide par ID
-        Map<String, Sector> byId = sectors.stream().collect(Collectors.toMap(Sector::getId, s -> s));
-        // Copier la liste et trier par degré décroissant (Welsh-Powell)
-        List<Sector> sorted = new ArrayList<>(sectors);
-        sorted.sort(Comparator.comparingInt((Sector s) -> s.getNeighbors().size()).reversed());
-
-        Map<String, String> assignment = new HashMap<>(); // Map pour stocker la couleur assignée à chaque secteur
-        List<String> colors = colorPalette(); // Liste des couleurs disponibles (initialisées avec les jours)
-
-        // Parcourir les secteurs dans l'ordre décroissant de degré
-        for (Sector sector : sorted) {
-            // Récupérer les couleurs déjà utilisées par les voisins
-            Set<String> used = sector.getNeighbors().stream()
-                    .map(assignment::get) // Récupérer couleur assignée au voisin
-                    .filter(c -> c != null) // Ignorer voisins non colorés
-                    .collect(Collectors.toSet());
-            String chosen = null; // Stocker la couleur choisie pour ce secteur
-            // Chercher la première couleur libre dans la palette
-            for (String c : colors) {
-                if (!used.contains(c)) {
-                    chosen = c;
-                    break; // Stop dès qu’une couleur disponible est trouvée
+        DsaturColoring engine = new DsaturColoring(sectors.size(), neighborIndices(sectors));
+        return toResult(sectors, engine.color(), false);
+    }
+
+    // Coloration exacte pour les petits graphes : séparation-évaluation bornée à nodeLimit nœuds
+    // Le résultat indique si le nombre chromatique est prouvé (sinon : meilleure coloration trouvée)
+    public ColoringResult colorExact(List<Sector> sectors, long nodeLimit) {
+        DsaturColoring engine = new DsaturColoring(sectors.size(), neighborIndices(sectors));
+        int[] colors = engine.colorExact(nodeLimit);
+        return toResult(sectors, colors, engine.isProvenOptimal());
+    }
+
+    // Coloration équilibrée sur « days » jours : minimiser la charge du jour le plus chargé (longueur de rues,
+    // volume, durée...) par échanges de chaînes de Kempe en parallèle, en partant de DSATUR
+    // Si DSATUR utilise plus de « days » couleurs, l'équilibrage se fait sur ce nombre de couleurs
+    public ColoringResult colorBalanced(List<Sector> sectors, Map<String, Double> costBySector, int days, int threads) {
+        int[][] neighbors = neighborIndices(sectors);
+        int[] initial = new DsaturColoring(sectors.size(), neighbors).color();
+        int colors = Math.max(days, DsaturColoring.colorCount(initial));
+        double[] cost = new double[sectors.size()];
+        for (int i = 0; i < cost.length; i++) {
+            cost[i] = costBySector.getOrDefault(sectors.get(i).getId(), 0.0);
+        }
+        BalancedColoring balancer = new BalancedColoring(sectors.size(), neighbors, cost);
+        int[] balanced = balancer.balance(initial, colors, threads, BALANCE_ROUNDS, BALANCE_SEED);
+        ColoringResult named = toResult(sectors, balanced, false);
+        Map<String, Double> loadByColor = new LinkedHashMap<>();
+        double[] load = BalancedColoring.loads(balanced, cost, colors);
+        for (int c = 0; c < colors; c++) {
+            loadByColor.put(colorName(c), load[c]);
+        }
+        return new ColoringResult(named.getColorBySector(), named.getChromaticNumber(), false, loadByColor);
+    }
+
+    // Indexer les secteurs (position dans la liste) et convertir les voisinages en tableaux d'indices
+    // Les voisins absents de la liste sont ignorés, les relations sont symétrisées
+    private static int[][] neighborIndices(List<Sector> sectors) {
+        int n = sectors.size();
+        Map<String, Integer> index = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            index.put(sectors.get(i).getId(), i);
+        }
+        List<Set<Integer>> sets = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            sets.add(new LinkedHashSet<>());
+        }
+        for (int i = 0; i < n; i++) {
+            for (String neighbor : sectors.get(i).getNeighbors()) {
+                Integer j = index.get(neighbor);
+                if (j != null && j != i) {
+                    sets.get(i).add(j);
+                    sets.get(j).add(i);
                 }
             }
-            // Si aucune couleur n'est libre, créer une nouvelle couleur
-            if (chosen == null) {
-                chosen = "Couleur_" + (colors.size() + 1);
-                colors.add(chosen); // Ajouter la nouvelle couleur à la palette
-            }
-            assignment.put(sector.getId(), chosen); // Assigner la couleur choisie au secteur
         }
+        int[][] neighbors = new int[n][];
+        for (int i = 0; i < n; i++) {
+            neighbors[i] = sets.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return neighbors;
+    }
+
+    // Traduire les couleurs entières en noms (jours, puis « Couleur_N » au-delà de la semaine)
+    private ColoringResult toResult(List<Sector> sectors, int[] colors, boolean provenOptimal) {
+        Map<String, String> assignment = new HashMap<>();
+        for (int i = 0; i < colors.length; i++) {
+            assignment.put(sectors.get(i).getId(), colorName(colors[i]));
+        }
+        return new ColoringResult(assignment, DsaturColoring.colorCount(colors), provenOptimal);
+    }
 
-        // Calculer le nombre chromatique (nombre de couleurs utilisées)
-        int chromatic = assignment.values().stream().collect(Collectors.toSet()).size();
-        return new ColoringResult(assignment, chromatic); // Retourner le résultat de la coloration
+    private String colorName(int c) {
+        List<String> palette = colorPalette();
+        return c < palette.size() ? palette.get(c) : "Couleur_" + (c + 1);
     }
 
     // Créer la palette initiale de couleurs basée sur les jours
@@ -0,0 +1,140 @@
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Vue superposée à un graphe de base partagé en lecture seule
+// Les arêtes ajoutées (chemins virtuels du facteur chinois, déviations) vivent dans de petites structures annexes
+// et les arêtes fermées (travaux, scénarios « et si ») sont masquées ; les parcours fusionnent les deux à la volée
+public class GraphOverlay {
+    private final Graph base; // Graphe de base, jamais modifié
+    private final int firstAddedId; // Identifiant de la première arête ajoutée
+    private final List<Edge> addedEdges = new ArrayList<>(); // Arêtes ajoutées, dans l'ordre
+    private final Map<Long, List<Edge>> addedAdjacency = new HashMap<>(); // Arêtes ajoutées par sommet
+    private final BitSet closedEdges = new BitSet(); // Identifiants des arêtes fermées
+
+    public GraphOverlay(Graph base) {
+        this.base = base;
+        this.firstAddedId = base.getEdgeIdBound();
+    }
+
+    public Graph getBase() {
+        return base;
+    }
+
+    // Ajouter une arête non orientée entre deux sommets existants du graphe de base
+    public Edge addEdge(long from, long to, double weight, String name) {
+        if (base.getNode(from) == null || base.getNode(to) == null) {
+            throw new IllegalArgumentException("Sommet inconnu du graphe de base : " + (base.getNode(from) == null ? from : to));
+        }
+        return link(new Edge(firstAddedId + addedEdges.size(), from, to, weight, name == null ? "" : name));
+    }
+
+    // Ajouter un trajet haut-le-pied : copie d'une rue du graphe de base qui garde son nom, sa longueur et son identifiant
+    public Edge addDeadheadEdge(Edge street) {
+        return link(new Edge(firstAddedId + addedEdges.size(), street.getFrom(), street.getTo(), street.getWeight(),
+                street.getNameId(), street.getId()));
+    }
+
+    // Doubler chaque rue d'un plus court chemin (arêtes relevées par la recherche) ; retourner la longueur ajoutée
+    public double addDeadheadPath(Dijkstra.PathResult path) {
+        double length = 0.0;
+        for (int edgeId : path.getEdgeIds()) {
+            Edge street = base.getEdge(edgeId);
+            if (street == null) {
+                continue; // Ignorer si l’arête est manquante
+            }
+            addDeadheadEdge(street);
+            length += street.getWeight();
+        }
+        return length;
+    }
+
+    private Edge link(Edge edge) {
+        addedEdges.add(edge);
+        addedAdjacency.computeIfAbsent(edge.getFrom(), k -> new ArrayList<>()).add(edge); // Lier l’arête au sommet de départ
+        addedAdjacency.computeIfAbsent(edge.getTo(), k -> new ArrayList<>()).add(edge); // Lier l’arête au sommet d’arrivée
+        return edge;
+    }
+
+    // Fermer une arête (de base ou ajoutée) : elle n'apparaît plus dans les parcours
+    public void closeEdge(int edgeId) {
+        closedEdges.set(edgeId);
+    }
+
+    public void reopenEdge(int edgeId) {
+        closedEdges.clear(edgeId);
+    }
+
+    public boolean isClosed(int edgeId) {
+        return closedEdges.get(edgeId);
+    }
+
+    // Récupérer les arêtes ouvertes d'un sommet (base puis ajoutées) ; la liste de base est partagée s'il n'y a rien à fusionner
+    public List<Edge> getEdges(long nodeId) {
+        List<Edge> baseEdges = base.getEdges(nodeId);
+        List<Edge> extra = addedAdjacency.getOrDefault(nodeId, Collections.emptyList());
+        if (extra.isEmpty() && closedEdges.isEmpty()) {
+            return baseEdges;
+        }
+        List<Edge> merged = new ArrayList<>(baseEdges.size() + extra.size());
+        for (Edge e : baseEdges) {
+            if (!closedEdges.get(e.getId())) {
+                merged.add(e);
+            }
+        }
+        for (Edge e : extra) {
+            if (!closedEdges.get(e.getId())) {
+                merged.add(e);
+            }
+        }
+        return merged;
+    }
+
+    public Set<Long> getNodeIds() {
+        return base.getNodeIds();
+    }
+
+    public int getDegree(long nodeId) {
+        return getEdges(nodeId).size();
+    }
+
+    // Récupérer les sommets ayant un nombre impair d’arêtes ouvertes
+    public List<Long> getOddDegreeNodes() {
+        List<Long> odd = new ArrayList<>();
+        for (long id : base.getNodeIds()) {
+            if (getDegree(id) % 2 != 0) {
+                odd.add(id);
+            }
+        }
+        return odd;
+    }
+
+    // Récupérer le poids de l’arête ouverte la plus courte entre deux sommets
+    public double getEdgeWeightBetween(long from, long to) {
+        double best = Double.POSITIVE_INFINITY;
+        for (Edge edge : getEdges(from)) {
+            if (edge.getOther(from) == to) {
+                best = Math.min(best, edge.getWeight());
+            }
+        }
+        return best;
+    }
+
+    public List<Edge> getAddedEdges() {
+        return Collections.unmodifiableList(addedEdges);
+    }
+
+    // Borne (exclue) des identifiants d'arêtes de la vue
+    public int getEdgeIdBound() {
+        return firstAddedId + addedEdges.size();
+    }
+
+    // Construire un instantané compact de la vue (pour les recherches sur un scénario de fermetures)
+    public RoutingGraph toRoutingGraph() {
+        return RoutingGraph.build(this);
+    }
+}
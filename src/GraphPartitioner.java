@@ -0,0 +1,413 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Partitionnement multiniveau d'un graphe (à la METIS) par bissections récursives
+// Chaque bissection : contraction par couplage des arêtes lourdes, bissection initiale par croissance gloutonne,
+// puis décontraction avec affinage Fiduccia-Mattheyses (variante linéaire de Kernighan-Lin) à chaque niveau
+// Objectif : parties de poids équilibré (tolérance IMBALANCE) et coupe (somme des poids d'arêtes coupées) minimale
+public class GraphPartitioner {
+    private static final int COARSEST_SIZE = 80; // Taille à partir de laquelle on arrête la contraction
+    private static final double IMBALANCE = 0.01; // Écart toléré au poids cible à chaque bissection (fraction du poids total)
+    private static final int INITIAL_TRIES = 8; // Essais de bissection initiale
+    private static final int FM_PASSES = 8; // Passes d'affinage par niveau
+    private static final int FM_PATIENCE = 64; // Mouvements sans amélioration avant d'arrêter une passe
+    private final SplittableRandom random;
+
+    public GraphPartitioner(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    // Partitionner un graphe non orienté en « parts » parties
+    // Adjacence CSR : les voisins de v sont adj[xadj[v] .. xadj[v + 1]), chaque arête présente dans les deux sens
+    // Retourner la partie (0..parts-1) de chaque sommet
+    public int[] partition(int n, int[] xadj, int[] adj, int[] edgeWeight, double[] vertexWeight, int parts) {
+        int[] result = new int[n];
+        if (n == 0 || parts <= 1) {
+            return result;
+        }
+        int[] ids = new int[n];
+        for (int v = 0; v < n; v++) {
+            ids[v] = v;
+        }
+        recurse(new Level(n, xadj, adj, edgeWeight, vertexWeight), ids, parts, 0, result);
+        return result;
+    }
+
+    // Somme des poids des arêtes coupées par une partition
+    public static long cutWeight(int n, int[] xadj, int[] adj, int[] edgeWeight, int[] part) {
+        long cut = 0;
+        for (int v = 0; v < n; v++) {
+            for (int a = xadj[v]; a < xadj[v + 1]; a++) {
+                if (part[v] != part[adj[a]]) {
+                    cut += edgeWeight[a];
+                }
+            }
+        }
+        return cut / 2; // Chaque arête est vue deux fois
+    }
+
+    // Bissection récursive : parts/2 parties d'un côté, le reste de l'autre (poids cible proportionnel)
+    private void recurse(Level g, int[] ids, int parts, int firstPart, int[] result) {
+        if (parts == 1 || g.n <= 1) {
+            for (int v = 0; v < g.n; v++) {
+                result[ids[v]] = firstPart;
+            }
+            return;
+        }
+        int leftParts = parts / 2;
+        int[] side = bisect(g, (double) leftParts / parts);
+        for (int s = 0; s < 2; s++) {
+            int[] local = new int[g.n]; // Ancien indice -> indice dans le sous-graphe
+            int count = 0;
+            for (int v = 0; v < g.n; v++) {
+                local[v] = side[v] == s ? count++ : -1;
+            }
+            int[] subIds = new int[count];
+            for (int v = 0; v < g.n; v++) {
+                if (local[v] >= 0) {
+                    subIds[local[v]] = ids[v];
+                }
+            }
+            Level sub = g.induced(local, count);
+            recurse(sub, subIds, s == 0 ? leftParts : parts - leftParts, s == 0 ? firstPart : firstPart + leftParts, result);
+        }
+    }
+
+    // Bissection multiniveau : le côté 0 reçoit la fraction « fraction » du poids total
+    private int[] bisect(Level finest, double fraction) {
+        List<Level> levels = new ArrayList<>();
+        levels.add(finest);
+        Level current = finest;
+        double maxVertex = IMBALANCE * finest.totalWeight(); // Éviter des super-sommets qui empêchent l'équilibre
+        while (current.n > COARSEST_SIZE) {
+            Level coarse = coarsen(current, maxVertex);
+            if (coarse.n > 0.95 * current.n) {
+                break; // La contraction ne progresse plus
+            }
+            levels.add(coarse);
+            current = coarse;
+        }
+        int[] side = initialBisection(current, fraction);
+        for (int l = levels.size() - 1; l > 0; l--) {
+            Level fine = levels.get(l - 1);
+            int[] projected = new int[fine.n];
+            for (int v = 0; v < fine.n; v++) {
+                projected[v] = side[fine.cmap[v]];
+            }
+            side = projected;
+            refine(fine, side, fraction);
+        }
+        return side;
+    }
+
+    // Contracter par couplage des arêtes lourdes (ordre aléatoire, super-sommets de poids borné)
+    private Level coarsen(Level g, double maxVertex) {
+        int n = g.n;
+        int[] match = new int[n];
+        Arrays.fill(match, -1);
+        int[] order = permutation(n);
+        for (int v : order) {
+            if (match[v] != -1) {
+                continue;
+            }
+            int best = -1;
+            int bestWeight = -1;
+            for (int a = g.xadj[v]; a < g.xadj[v + 1]; a++) {
+                int u = g.adj[a];
+                if (u != v && match[u] == -1 && g.ew[a] > bestWeight && g.vw[u] + g.vw[v] <= maxVertex) {
+                    best = u;
+                    bestWeight = g.ew[a];
+                }
+            }
+            match[v] = best == -1 ? v : best;
+            if (best != -1) {
+                match[best] = v;
+            }
+        }
+        int[] cmap = new int[n];
+        int cn = 0;
+        for (int v = 0; v < n; v++) {
+            if (match[v] >= v) { // Le plus petit indice du couple porte le super-sommet
+                cmap[v] = cn;
+                if (match[v] != v) {
+                    cmap[match[v]] = cn;
+                }
+                cn++;
+            }
+        }
+        g.cmap = cmap;
+
+        double[] cvw = new double[cn];
+        for (int v = 0; v < n; v++) {
+            cvw[cmap[v]] += g.vw[v];
+        }
+        // Fusionner les voisinages des deux sommets du couple (arêtes parallèles additionnées, boucles supprimées)
+        int[] cxadj = new int[cn + 1];
+        int[] cadj = new int[g.adj.length];
+        int[] cew = new int[g.adj.length];
+        int[] slot = new int[cn]; // Position du voisin dans la ligne courante (-1 si absent)
+        Arrays.fill(slot, -1);
+        int m = 0;
+        int c = 0;
+        for (int v = 0; v < n; v++) {
+            if (match[v] < v) {
+                continue;
+            }
+            int rowStart = m;
+            int[] members = match[v] == v ? new int[]{v} : new int[]{v, match[v]};
+            for (int w : members) {
+                for (int a = g.xadj[w]; a < g.xadj[w + 1]; a++) {
+                    int cu = cmap[g.adj[a]];
+                    if (cu == c) {
+                        continue;
+                    }
+                    if (slot[cu] == -1) {
+                        slot[cu] = m;
+                        cadj[m] = cu;
+                        cew[m] = g.ew[a];
+                        m++;
+                    } else {
+                        cew[slot[cu]] += g.ew[a];
+                    }
+                }
+            }
+            for (int a = rowStart; a < m; a++) {
+                slot[cadj[a]] = -1;
+            }
+            cxadj[++c] = m;
+        }
+        return new Level(cn, cxadj, Arrays.copyOf(cadj, m), Arrays.copyOf(cew, m), cvw);
+    }
+
+    // Bissection initiale par croissance gloutonne depuis des graines aléatoires ; garder la meilleure coupe affinée
+    private int[] initialBisection(Level g, double fraction) {
+        double target = fraction * g.totalWeight();
+        int[] best = null;
+        long bestCut = Long.MAX_VALUE;
+        for (int t = 0; t < INITIAL_TRIES; t++) {
+            int[] side = new int[g.n];
+            Arrays.fill(side, 1);
+            int[] gain = new int[g.n]; // Poids vers la région moins poids vers l'extérieur (sommets frontière)
+            boolean[] frontier = new boolean[g.n];
+            double weight = 0.0;
+            int seed = random.nextInt(g.n);
+            while (weight < target) {
+                int pick = -1;
+                for (int v = 0; v < g.n; v++) {
+                    if (frontier[v] && side[v] == 1 && (pick == -1 || gain[v] > gain[pick])) {
+                        pick = v;
+                    }
+                }
+                if (pick == -1) { // Région isolée : repartir d'un sommet libre
+                    pick = side[seed] == 1 ? seed : -1;
+                    for (int v = 0; v < g.n && pick == -1; v++) {
+                        if (side[v] == 1) {
+                            pick = v;
+                        }
+                    }
+                    if (pick == -1) {
+                        break;
+                    }
+                }
+                side[pick] = 0;
+                weight += g.vw[pick];
+                for (int a = g.xadj[pick]; a < g.xadj[pick + 1]; a++) {
+                    int u = g.adj[a];
+                    if (side[u] == 1) {
+                        if (!frontier[u]) {
+                            frontier[u] = true;
+                            gain[u] = -degreeWeight(g, u);
+                        }
+                        gain[u] += 2 * g.ew[a];
+                    }
+                }
+            }
+            refine(g, side, fraction);
+            long cut = cut(g, side);
+            if (cut < bestCut) {
+                bestCut = cut;
+                best = side;
+            }
+        }
+        return best;
+    }
+
+    // Affinage Fiduccia-Mattheyses : déplacer les sommets de meilleur gain en respectant l'équilibre,
+    // puis revenir au meilleur préfixe de la passe ; s'arrêter quand une passe n'améliore plus
+    private void refine(Level g, int[] side, double fraction) {
+        int n = g.n;
+        double total = g.totalWeight();
+        double target = fraction * total;
+        double tolerance = IMBALANCE * total;
+        int[] gain = new int[n];
+        boolean[] locked = new boolean[n];
+        int[] moved = new int[n];
+        MinHeap[] heaps = {new MinHeap(64), new MinHeap(64)}; // Sommets candidats de chaque côté, clé = -gain
+        for (int pass = 0; pass < FM_PASSES; pass++) {
+            double weight0 = 0.0;
+            for (int v = 0; v < n; v++) {
+                if (side[v] == 0) {
+                    weight0 += g.vw[v];
+                }
+            }
+            heaps[0].clear();
+            heaps[1].clear();
+            Arrays.fill(locked, false);
+            for (int v = 0; v < n; v++) {
+                gain[v] = 0;
+                for (int a = g.xadj[v]; a < g.xadj[v + 1]; a++) {
+                    gain[v] += side[g.adj[a]] != side[v] ? g.ew[a] : -g.ew[a];
+                }
+                heaps[side[v]].push(-gain[v], v);
+            }
+            long cutNow = cut(g, side);
+            long bestCut = cutNow;
+            double bestImbalance = Math.abs(weight0 - target);
+            int bestMoves = 0;
+            int moves = 0;
+            while (moves - bestMoves < FM_PATIENCE) {
+                int[] candidate = {popValid(heaps[0], gain, locked), popValid(heaps[1], gain, locked)};
+                int pick = -1;
+                double pickWeight0 = 0.0;
+                for (int s = 0; s < 2; s++) {
+                    int v = candidate[s];
+                    if (v == -1) {
+                        continue;
+                    }
+                    double next = s == 0 ? weight0 - g.vw[v] : weight0 + g.vw[v];
+                    boolean balanced = Math.abs(next - target) <= tolerance || Math.abs(next - target) < Math.abs(weight0 - target);
+                    if (balanced && (pick == -1 || gain[v] > gain[pick])) {
+                        pick = v;
+                        pickWeight0 = next;
+                    }
+                }
+                for (int s = 0; s < 2; s++) {
+                    if (candidate[s] != -1 && candidate[s] != pick) {
+                        heaps[s].push(-gain[candidate[s]], candidate[s]); // Remettre le candidat non retenu
+                    }
+                }
+                if (pick == -1) {
+                    break; // Aucun mouvement admissible
+                }
+                locked[pick] = true;
+                cutNow -= gain[pick];
+                side[pick] = 1 - side[pick];
+                weight0 = pickWeight0;
+                gain[pick] = -gain[pick];
+                for (int a = g.xadj[pick]; a < g.xadj[pick + 1]; a++) {
+                    int u = g.adj[a];
+                    gain[u] += side[u] == side[pick] ? -2 * g.ew[a] : 2 * g.ew[a];
+                    if (!locked[u]) {
+                        heaps[side[u]].push(-gain[u], u); // L'ancienne entrée devient obsolète
+                    }
+                }
+                moved[moves++] = pick;
+                double imbalance = Math.abs(weight0 - target);
+                boolean withinBefore = bestImbalance <= tolerance;
+                boolean withinNow = imbalance <= tolerance;
+                if ((withinNow && !withinBefore) || (withinNow == withinBefore
+                        && (cutNow < bestCut || (cutNow == bestCut && imbalance < bestImbalance)))) {
+                    bestCut = cutNow;
+                    bestImbalance = imbalance;
+                    bestMoves = moves;
+                }
+            }
+            for (int k = moves - 1; k >= bestMoves; k--) {
+                side[moved[k]] = 1 - side[moved[k]]; // Annuler les mouvements après le meilleur préfixe
+            }
+            if (bestMoves == 0) {
+                break; // Passe sans amélioration
+            }
+        }
+    }
+
+    // Retirer le sommet de meilleur gain d'un tas en écartant les entrées obsolètes (-1 si vide)
+    private static int popValid(MinHeap heap, int[] gain, boolean[] locked) {
+        while (!heap.isEmpty()) {
+            double key = heap.peekKey();
+            int v = heap.pop();
+            if (!locked[v] && key == -gain[v]) {
+                return v;
+            }
+        }
+        return -1;
+    }
+
+    private static long cut(Level g, int[] side) {
+        return cutWeight(g.n, g.xadj, g.adj, g.ew, side);
+    }
+
+    private static int degreeWeight(Level g, int v) {
+        int total = 0;
+        for (int a = g.xadj[v]; a < g.xadj[v + 1]; a++) {
+            total += g.ew[a];
+        }
+        return total;
+    }
+
+    private int[] permutation(int n) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        return order;
+    }
+
+    // Un niveau de la hiérarchie : graphe CSR pondéré et correspondance vers le niveau plus grossier
+    private static class Level {
+        private final int n;
+        private final int[] xadj;
+        private final int[] adj;
+        private final int[] ew;
+        private final double[] vw;
+        private int[] cmap; // Sommet -> super-sommet du niveau suivant
+
+        private Level(int n, int[] xadj, int[] adj, int[] ew, double[] vw) {
+            this.n = n;
+            this.xadj = xadj;
+            this.adj = adj;
+            this.ew = ew;
+            this.vw = vw;
+        }
+
+        private double totalWeight() {
+            double total = 0.0;
+            for (double w : vw) {
+                total += w;
+            }
+            return total;
+        }
+
+        // Sous-graphe induit par les sommets de local[v] >= 0
+        private Level induced(int[] local, int count) {
+            int[] sxadj = new int[count + 1];
+            int[] sadj = new int[adj.length];
+            int[] sew = new int[adj.length];
+            double[] svw = new double[count];
+            int m = 0;
+            for (int v = 0; v < n; v++) {
+                if (local[v] < 0) {
+                    continue;
+                }
+                svw[local[v]] = vw[v];
+                for (int a = xadj[v]; a < xadj[v + 1]; a++) {
+                    if (local[adj[a]] >= 0) {
+                        sadj[m] = local[adj[a]];
+                        sew[m] = ew[a];
+                        m++;
+                    }
+                }
+                sxadj[local[v] + 1] = m;
+            }
+            return new Level(count, sxadj, Arrays.copyOf(sadj, m), Arrays.copyOf(sew, m), svw);
+        }
+    }
+}
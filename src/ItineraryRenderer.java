@@ -0,0 +1,170 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Feuille de route « tour par tour » : les tronçons consécutifs d'une même rue sont fusionnés en une instruction
+// (distance cumulée), la direction est déduite du changement de cap au carrefour
+// Alimenté arête par arête (CircuitSink) : un circuit complet se rend en temps linéaire, sans liste intermédiaire
+public class ItineraryRenderer implements CircuitSink {
+    private static final String UNNAMED = "Rue sans nom";
+    private static final double STRAIGHT_ANGLE = 30.0; // En dessous : continuer tout droit
+    private static final double U_TURN_ANGLE = 150.0; // Au-dessus : demi-tour
+    private final Graph graph;
+    private final Consumer<Instruction> out;
+    private String street; // Rue de l'instruction en cours (null : aucune)
+    private boolean deadhead;
+    private Turn turn;
+    private double distance;
+    private int segments;
+    private double lastBearing; // Cap du dernier tronçon reçu
+
+    public ItineraryRenderer(Graph graph, Consumer<Instruction> out) {
+        this.graph = graph;
+        this.out = out;
+    }
+
+    // Rendre un plus court chemin (arêtes relevées par la recherche)
+    public static List<Instruction> render(Graph graph, Dijkstra.PathResult path) {
+        List<Instruction> result = new ArrayList<>();
+        if (path.getPath().isEmpty()) {
+            return result;
+        }
+        ItineraryRenderer renderer = new ItineraryRenderer(graph, result::add);
+        renderer.walk(path.getPath().get(0), path.getEdgeIds());
+        renderer.finish();
+        return result;
+    }
+
+    // Suivre une séquence d'arêtes depuis un sommet de départ
+    public void walk(long startId, int[] edgeIds) {
+        long current = startId;
+        for (int edgeId : edgeIds) {
+            Edge e = graph.getEdge(edgeId);
+            if (e == null) {
+                continue; // Arête inconnue : ignorer
+            }
+            long next = e.getOther(current);
+            onEdge(current, next, e);
+            current = next;
+        }
+    }
+
+    @Override
+    public void onEdge(long from, long to, Edge edge) {
+        boolean virtual = edge.isDeadhead(); // Un trajet haut-le-pied porte déjà le nom de la rue doublée
+        String name = edge.getName().isBlank() ? UNNAMED : edge.getName();
+        double bearing = bearing(graph.getNode(from), graph.getNode(to));
+        if (street == null || !street.equals(name) || deadhead != virtual) {
+            Turn next = street == null ? Turn.DEPART : turnBetween(lastBearing, bearing);
+            flush();
+            street = name;
+            deadhead = virtual;
+            turn = next;
+        }
+        distance += edge.getWeight();
+        segments++;
+        lastBearing = bearing;
+    }
+
+    // Émettre la dernière instruction
+    public void finish() {
+        flush();
+        street = null;
+    }
+
+    private void flush() {
+        if (street != null && segments > 0) {
+            out.accept(new Instruction(turn, street, distance, segments, deadhead));
+        }
+        distance = 0.0;
+        segments = 0;
+    }
+
+    // Cap en degrés (0 = nord, sens horaire), approximation plane locale
+    private static double bearing(Node a, Node b) {
+        if (a == null || b == null) {
+            return 0.0;
+        }
+        double dLon = (b.getLongitude() - a.getLongitude()) * Math.cos(Math.toRadians(a.getLatitude()));
+        double dLat = b.getLatitude() - a.getLatitude();
+        return Math.toDegrees(Math.atan2(dLon, dLat));
+    }
+
+    private static Turn turnBetween(double from, double to) {
+        double delta = to - from;
+        while (delta > 180.0) {
+            delta -= 360.0;
+        }
+        while (delta <= -180.0) {
+            delta += 360.0;
+        }
+        double abs = Math.abs(delta);
+        if (abs < STRAIGHT_ANGLE) {
+            return Turn.CONTINUER;
+        }
+        if (abs > U_TURN_ANGLE) {
+            return Turn.DEMI_TOUR;
+        }
+        return delta > 0 ? Turn.DROITE : Turn.GAUCHE;
+    }
+
+    public enum Turn {
+        DEPART("Partir par"),
+        CONTINUER("Continuer sur"),
+        GAUCHE("Tourner à gauche sur"),
+        DROITE("Tourner à droite sur"),
+        DEMI_TOUR("Faire demi-tour sur");
+
+        private final String label;
+
+        Turn(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    // Une instruction : manœuvre, rue et distance parcourue sur cette rue
+    public static class Instruction {
+        private final Turn turn;
+        private final String street;
+        private final double distance;
+        private final int segments; // Tronçons fusionnés
+        private final boolean deadhead; // Trajet haut-le-pied (sans collecte)
+
+        public Instruction(Turn turn, String street, double distance, int segments, boolean deadhead) {
+            this.turn = turn;
+            this.street = street;
+            this.distance = distance;
+            this.segments = segments;
+            this.deadhead = deadhead;
+        }
+
+        public Turn getTurn() {
+            return turn;
+        }
+
+        public String getStreet() {
+            return street;
+        }
+
+        public double getDistance() {
+            return distance;
+        }
+
+        public int getSegments() {
+            return segments;
+        }
+
+        public boolean isDeadhead() {
+            return deadhead;
+        }
+
+        @Override
+        public String toString() {
+            return turn.getLabel() + " " + street + " sur " + Math.round(distance) + " m" + (deadhead ? " (haut-le-pied)" : "");
+        }
+    }
+}
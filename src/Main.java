@@ -1,4 +1,9 @@
+import java.io.BufferedWriter;
+import java.io.File;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -11,7 +16,15 @@ public class Main {
     private static final String NODES_FILE = "data/nodes.csv";
     private static final String EDGES_FILE = "data/edges.csv";
     private static final String COLLECTION_FILE = "data/dechets_semicolon_clean.csv";
+    private static final String POSTMAN_GEOJSON_FILE = "output/facteur_chinois.geojson.gz";
     private static final int DEFAULT_TOUR_SIZE = 10;
+    private static final int DEFAULT_FLEET_SIZE = 12;
+    private static final int SECTOR_COUNT = 16;
+    private static final double QUADTREE_MAX_LENGTH = 10000.0; // Mètres de rues par secteur (quadtree)
+    private static final long SECTOR_ROUTING_MILLIS = 2000L; // Budget de recherche locale par secteur (planning hebdomadaire)
+    private static final int PLANNING_DAYS = 5; // Jours de collecte par semaine (planning équilibré)
+    private static final int EXACT_COLORING_MAX_SECTORS = 200; // Coloration exacte en dessous de ce nombre de secteurs
+    private static final long EXACT_COLORING_NODE_LIMIT = 2_000_000L; // Nœuds explorés au plus par la coloration exacte
 
     public static void main(String[] args) {
         Graph graph;
@@ -47,7 +60,7 @@ public class Main {
             System.out.print("Votre choix : ");
             String profileChoice = scanner.nextLine();
             switch (profileChoice) {
-                case "1" -> collectiviteMenu(scanner, graph);
+                case "1" -> collectiviteMenu(scanner, graph, depotId, mappedPoints);
                 case "2" -> prestataireMenu(scanner, graph, depotId, mappedPoints);
                 case "3" -> running = false;
                 default -> System.out.println("Le choix est invalide.");
@@ -56,7 +69,7 @@ public class Main {
         System.out.println("Vous avez quitté le programme.");
     }
 
-    private static void collectiviteMenu(Scanner scanner, Graph graph) {
+    private static void collectiviteMenu(Scanner scanner, Graph graph, long depotId, List<CollectionPoint> mappedPoints) {
         boolean back = false;
         while (!back) {
             //menu restreint pour la mairie (planification globale uniquement)
@@ -68,7 +81,7 @@ public class Main {
             String choice = scanner.nextLine();
             switch (choice) {
                 case "1" -> showGraphStats(graph);
-                case "2" -> runTheme3(graph);
+                case "2" -> runTheme3(scanner, graph, depotId, mappedPoints);
                 case "3" -> back = true;
                 default -> System.out.println("Le choix est invalide.");
             }
@@ -114,7 +127,7 @@ public class Main {
             switch (choice) {
                 case "1" -> runSinglePickup(scanner, graph, depotId, random);
                 case "2" -> runTourPickup(scanner, graph, depotId, random);
-                case "3" -> runChinesePostman(graph, depotId);
+                case "3" -> runChinesePostman(scanner, graph, depotId);
                 case "4" -> back = true;
                 default -> System.out.println("Le choix est invalide.");
             }
@@ -132,8 +145,14 @@ public class Main {
             System.out.println("\nThème 2");
             System.out.println("1. Plus proche voisin");
             System.out.println("2. MST");
-            System.out.println("3. Lancer le Comparatif");
-            System.out.println("4. Retour");
+            System.out.println("3. Christofides");
+            System.out.println("4. Lancer le Comparatif");
+            System.out.println("5. Recherche bornée dans le temps");
+            System.out.println("6. Recherche multi-départs (parallèle)");
+            System.out.println("7. Économies Clarke-Wright (capacité native)");
+            System.out.println("8. Session de replanification (événements en journée)");
+            System.out.println("9. Flotte de camions (tournées en parallèle)");
+            System.out.println("10. Retour");
             System.out.print("Votre choix : ");
             String choice = scanner.nextLine();
             switch (choice) {
@@ -144,7 +163,7 @@ public class Main {
                         break;
                     }
                     solver.printTourWithSplits(res);
-                    List<Theme2Solver.SplitTour> splits = solver.splitTourIntoSubTours(res.getOrder());
+                    List<Theme2Solver.SplitTour> splits = solver.splitTourOptimal(res.getOrder());
                     maybeExportGeoJson(scanner, graph, solver, splits, "output/resultat_theme2_greedy.geojson");
                 }
                 case "2" -> {
@@ -154,10 +173,20 @@ public class Main {
                         break;
                     }
                     solver.printTourWithSplits(res);
-                    List<Theme2Solver.SplitTour> splits = solver.splitTourIntoSubTours(res.getOrder());
+                    List<Theme2Solver.SplitTour> splits = solver.splitTourOptimal(res.getOrder());
                     maybeExportGeoJson(scanner, graph, solver, splits, "output/resultat_theme2_mst.geojson");
                 }
                 case "3" -> {
+                    Theme2Solver.TourResult res = solver.solveChristofides();
+                    if (!res.isFeasible()) {
+                        System.out.println("Approche Christofides impossible (graphe non connexe ?)");
+                        break;
+                    }
+                    solver.printTourWithSplits(res);
+                    List<Theme2Solver.SplitTour> splits = solver.splitTourOptimal(res.getOrder());
+                    maybeExportGeoJson(scanner, graph, solver, splits, "output/resultat_theme2_christofides.geojson");
+                }
+                case "4" -> {
                     Theme2Solver.TourResult nn = solver.solveNearestNeighbor();
                     Theme2Solver.TourResult mst = solver.solveMSTApprox();
                     if (!nn.isFeasible()) {
@@ -185,18 +214,168 @@ public class Main {
                     if (best != null && best.isFeasible()) {
                         System.out.println("Meilleure tournée : " + best.getMethod());
                         solver.printTourWithSplits(best);
-                        List<Theme2Solver.SplitTour> splits = solver.splitTourIntoSubTours(best.getOrder());
+                        List<Theme2Solver.SplitTour> splits = solver.splitTourOptimal(best.getOrder());
                         maybeExportGeoJson(scanner, graph, solver, splits, "output/resultat_theme2_best.geojson");
                     } else {
                         System.out.println("Aucune tournée trouvable.");
                     }
                 }
-                case "4" -> back = true;
+                case "5" -> runAnytimeSearch(scanner, graph, solver);
+                case "6" -> solver.runMultiStart();
+                case "7" -> {
+                    List<Theme2Solver.SplitTour> splits = solver.solveClarkeWright();
+                    if (splits.isEmpty()) {
+                        System.out.println("Approche Clarke-Wright impossible (graphe non connexe ?)");
+                        break;
+                    }
+                    System.out.println("Tournées des points de collectes (Clarke-Wright)");
+                    solver.printSplitTours(splits);
+                    maybeExportGeoJson(scanner, graph, solver, splits, "output/resultat_theme2_clarke_wright.geojson");
+                }
+                case "8" -> runPlanningSession(scanner, graph, depotId, collectionPoints, solver);
+                case "9" -> runFleetPlanning(scanner, graph, depotId, collectionPoints);
+                case "10" -> back = true;
                 default -> System.out.println("Le choix est invalide.");
             }
         }
     }
 
+    private static void runFleetPlanning(Scanner scanner, Graph graph, long depotId, List<CollectionPoint> collectionPoints) {
+        System.out.print("Nombre de camions (Par défaut " + DEFAULT_FLEET_SIZE + " : entrée) : ");
+        String line = scanner.nextLine();
+        int count = DEFAULT_FLEET_SIZE;
+        if (!line.isBlank()) {
+            try {
+                count = Integer.parseInt(line.trim());
+                if (count <= 0) {
+                    System.out.println("Le nombre de camions doit etre positif.");
+                    return;
+                }
+            } catch (NumberFormatException e) {
+                System.out.println("La valeur est invalide.");
+                return;
+            }
+        }
+        List<FleetPlanner.Vehicle> fleet = FleetPlanner.homogeneousFleet(count, Theme2Solver.MAX_TRUCK_CAPACITY, depotId);
+        FleetPlanner.FleetPlan plan = new FleetPlanner(graph, fleet, collectionPoints).plan(0, CancellationToken.none());
+        if (plan == null) {
+            System.out.println("Planification de la flotte impossible (graphe non connexe ?)");
+            return;
+        }
+        FleetPlanner.printPlan(plan);
+    }
+
+    private static void runPlanningSession(Scanner scanner, Graph graph, long depotId,
+                                           List<CollectionPoint> collectionPoints, Theme2Solver solver) {
+        PlanningSession session = new PlanningSession(graph, depotId, Theme2Solver.MAX_TRUCK_CAPACITY);
+        if (!session.initialize(collectionPoints)) {
+            System.out.println("Initialisation impossible (graphe non connexe ?)");
+            return;
+        }
+        System.out.printf("Session initialisée : %d points, %.2f m (%d ms)%n",
+                session.getPointCount(), session.getTourDistance(), session.getLastRepairMillis());
+        boolean back = false;
+        while (!back) {
+            System.out.println("1. Ajouter un point");
+            System.out.println("2. Retirer un point");
+            System.out.println("3. Modifier le volume d'un point");
+            System.out.println("4. Afficher les tournées");
+            System.out.println("5. Retour");
+            System.out.print("Choix : ");
+            String choice = scanner.nextLine();
+            try {
+                boolean applied;
+                switch (choice) {
+                    case "1" -> {
+                        System.out.print("Identifiant du sommet : ");
+                        long nodeId = Long.parseLong(scanner.nextLine().trim());
+                        System.out.print("Volume (m3) : ");
+                        int volume = Integer.parseInt(scanner.nextLine().trim());
+                        applied = session.insertPoint(new CollectionPoint(nodeId, 0.0, 0.0, "", "",
+                                "Ajout " + nodeId, 0.0, volume, nodeId));
+                    }
+                    case "2" -> {
+                        System.out.print("Identifiant du sommet : ");
+                        applied = session.removePoint(Long.parseLong(scanner.nextLine().trim()));
+                    }
+                    case "3" -> {
+                        System.out.print("Identifiant du sommet : ");
+                        long nodeId = Long.parseLong(scanner.nextLine().trim());
+                        System.out.print("Nouveau volume (m3) : ");
+                        applied = session.updateVolume(nodeId, Integer.parseInt(scanner.nextLine().trim()));
+                    }
+                    case "4" -> {
+                        System.out.printf("Tournée géante : %.2f m%n", session.getTourDistance());
+                        solver.printSplitTours(session.getSplits());
+                        continue;
+                    }
+                    case "5" -> {
+                        back = true;
+                        continue;
+                    }
+                    default -> {
+                        System.out.println("Le choix est invalide.");
+                        continue;
+                    }
+                }
+                if (!applied) {
+                    System.out.println("Événement ignoré (sommet inconnu ou inatteignable).");
+                } else {
+                    System.out.printf("Tournée réparée : %.2f m, %d sous-tournée(s) (%d ms)%n",
+                            session.getTourDistance(), session.getSplits().size(), session.getLastRepairMillis());
+                }
+            } catch (NumberFormatException e) {
+                System.out.println("La valeur est invalide.");
+            }
+        }
+    }
+
+    private static void runAnytimeSearch(Scanner scanner, Graph graph, Theme2Solver solver) {
+        System.out.print("Budget de calcul en secondes (Par défaut 5 : entrée) : ");
+        String line = scanner.nextLine();
+        long seconds = 5;
+        if (!line.isBlank()) {
+            try {
+                seconds = Long.parseLong(line.trim());
+                if (seconds <= 0) {
+                    System.out.println("Le budget doit etre positif.");
+                    return;
+                }
+            } catch (NumberFormatException e) {
+                System.out.println("La valeur est invalide.");
+                return;
+            }
+        }
+        CancellationToken token = CancellationToken.withTimeout(seconds * 1000L);
+        SolverListener.SearchStatistics[] lastStats = new SolverListener.SearchStatistics[1];
+        Theme2Solver.TourResult res = solver.solveAnytime(token, new SolverListener() {
+            @Override
+            public void onImprovement(String method, double distance, List<Long> order) {
+                System.out.printf("  Nouvelle meilleure tournée (%s) : %.2f m%n", method, distance);
+            }
+
+            @Override
+            public void onStatistics(SolverListener.SearchStatistics stats) {
+                lastStats[0] = stats; // Garder uniquement les dernières statistiques
+            }
+        });
+        if (lastStats[0] != null) {
+            SolverListener.SearchStatistics stats = lastStats[0];
+            if (stats.isInterrupted()) {
+                System.out.println("  Budget épuisé, meilleure tournée conservée.");
+            }
+            System.out.printf("  %d mouvements évalués, %d amélioration(s), %d ms%n",
+                    stats.getIterations(), stats.getImprovements(), stats.getElapsedMillis());
+        }
+        if (!res.isFeasible()) {
+            System.out.println("Aucune tournée trouvée dans le budget (graphe non connexe ?)");
+            return;
+        }
+        solver.printTourWithSplits(res);
+        List<Theme2Solver.SplitTour> splits = solver.splitTourOptimal(res.getOrder());
+        maybeExportGeoJson(scanner, graph, solver, splits, "output/resultat_theme2_anytime.geojson");
+    }
+
     private static void runSinglePickup(Scanner scanner, Graph graph, long depotId, Random random) {
         System.out.println("Collecte Encombrants (1 point) - Algorithme de Dijkstra");
         System.out.print("Entrez l'identifiant du sommet cible (ou aléatoire : entrée) : ");
@@ -219,7 +398,7 @@ public class Main {
             return;
         }
         System.out.printf("Itinéraire (distance : %.2f m%n)", result.getDistance());
-        printPathWithStreets(graph, result.getPath());
+        printPathWithStreets(graph, result);
     }
 
     private static void runTourPickup(Scanner scanner, Graph graph, long depotId, Random random) {
@@ -256,24 +435,92 @@ public class Main {
         }
         System.out.println("Ordre de visite (retour au dépôt inclus) : " + solution.getOrder());
         System.out.println("Détails des trajets :");
-        for (int i = 0; i < solution.getLegs().size(); i++) {
+        for (int i = 0; i < solution.getLegPaths().size(); i++) {
             System.out.println("Trajet n°" + (i + 1) + " :");
-            printPathWithStreets(graph, solution.getLegs().get(i));
+            printPathWithStreets(graph, solution.getLegPaths().get(i));
         }
         System.out.printf("Distance totale estimée : %.2f m%n", solution.getDistance());
     }
 
-    private static void runChinesePostman(Graph graph, long depotId) {
+    private static void runChinesePostman(Scanner scanner, Graph graph, long depotId) {
+        System.out.print("Exporter aussi le circuit en GeoJSON compressé ? (O/N) : ");
+        boolean export = scanner.nextLine().trim().equalsIgnoreCase("o");
         System.out.println("Chargement en cours ...");
 
         EulerianSolver solver = new EulerianSolver(graph);
-        EulerianSolver.PostmanResult result = solver.solveChinesePostman(depotId);
-        if (!result.isFeasible()) {
+        // Écrire le circuit au fil de l'eau, sans construire la liste des sommets ni une chaîne géante
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out)));
+        GeoJsonWriter writer;
+        try {
+            writer = export ? GeoJsonWriter.open(POSTMAN_GEOJSON_FILE, true) : null;
+        } catch (IOException e) {
+            System.out.println("Echec export GeoJSON : " + e.getMessage());
+            return;
+        }
+        boolean[] started = new boolean[1];
+        int[] count = new int[1];
+        ItineraryRenderer itinerary = new ItineraryRenderer(graph, step -> out.println("  " + (++count[0]) + ". " + step));
+        double distance = Double.POSITIVE_INFINITY;
+        String exportError = null;
+        boolean aborted = false;
+        try {
+            distance = solver.streamChinesePostman(depotId, (from, to, edge) -> {
+                if (!started[0]) {
+                    started[0] = true;
+                    traceNode(writer, graph, from, true);
+                }
+                traceNode(writer, graph, to, false);
+                itinerary.onEdge(from, to, edge); // Tronçons d'une même rue fusionnés en une instruction
+            });
+        } catch (UncheckedIOException e) {
+            exportError = e.getCause().getMessage(); // Écriture interrompue : le circuit affiché est incomplet
+            aborted = true;
+        } finally {
+            if (writer != null) {
+                try {
+                    writer.close(); // Toujours fermer le fichier (canal et flux compressé)
+                } catch (IOException e) {
+                    if (exportError == null) {
+                        exportError = e.getMessage();
+                    }
+                }
+            }
+        }
+        out.flush(); // Ne pas fermer : System.out reste utilisé
+        if (aborted) {
+            System.out.println("Echec export GeoJSON : " + exportError);
+            return;
+        }
+        itinerary.finish();
+        if (started[0]) {
+            out.println("  Arrivée");
+        }
+        out.flush();
+        if (exportError != null) {
+            System.out.println("Echec export GeoJSON : " + exportError);
+        } else if (writer != null) {
+            System.out.println("Fichier exporté : " + POSTMAN_GEOJSON_FILE);
+        }
+        if (Double.isInfinite(distance)) {
             System.out.println("Aucun circuit eulerien trouvé (graphe non connexe ?).");
             return;
         }
-        printPathWithStreets(graph, result.getTrail());
-        System.out.printf("Distance totale : %.2f m%n", result.getDistance());
+        System.out.printf("Distance totale : %.2f m%n", distance);
+    }
+
+    // Ajouter un sommet du circuit au tracé GeoJSON (first : ouvrir la LineString)
+    private static void traceNode(GeoJsonWriter writer, Graph graph, long nodeId, boolean first) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            if (first) {
+                writer.beginLineString("Facteur chinois", null);
+            }
+            writer.node(graph.getNode(nodeId));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     private static long pickRandomNode(Graph graph, long depotId, Random random) {
@@ -298,36 +545,43 @@ public class Main {
         return reachable;
     }
 
-    private static void printPathWithStreets(Graph graph, List<Long> path) {
-        if (path == null || path.size() < 2) {
+    // Afficher un trajet sous forme de feuille de route (tronçons d'une même rue fusionnés)
+    private static void printPathWithStreets(Graph graph, Dijkstra.PathResult path) {
+        List<ItineraryRenderer.Instruction> steps = ItineraryRenderer.render(graph, path);
+        if (steps.isEmpty()) {
             System.out.println("Aucun trajet.");
             return;
         }
-        StringBuilder sb = new StringBuilder();
-        sb.append("  Départ");
-        for (int i = 0; i < path.size() - 1; i++) {
-            long a = path.get(i);
-            long b = path.get(i + 1);
-            Edge edge = graph.getEdgeBetween(a, b);
-            String name = (edge != null && edge.getName() != null && !edge.getName().isBlank())
-                    ? edge.getName()
-                    : "Rue sans nom";
-            double dist = edge != null ? edge.getWeight() : Double.NaN;
-            sb.append(" -> ");
-            sb.append(name);
-            if (!Double.isNaN(dist)) {
-                sb.append(String.format(" (%.2f m)", dist));
-            }
+        for (int i = 0; i < steps.size(); i++) {
+            System.out.println("  " + (i + 1) + ". " + steps.get(i));
         }
-        sb.append(" -> Arrivée");
-        System.out.println(sb.toString());
+        System.out.println("  Arrivée");
     }
 
-    private static void runTheme3(Graph graph) {
-        System.out.println("Découpage de la ville en grille 4x4...");
+    private static void runTheme3(Scanner scanner, Graph graph, long depotId, List<CollectionPoint> collectionPoints) {
+        System.out.println("Mode de découpage :");
+        System.out.println("1. Grille 4x4");
+        System.out.println("2. Secteurs équilibrés (partitionnement multiniveau du réseau, par défaut)");
+        System.out.println("3. Quadtree adaptatif (longueur de rues bornée)");
+        System.out.print("Choix : ");
+        String mode = scanner.nextLine().trim();
         int gridSize = 4;
         SectorManager manager = new SectorManager(graph, gridSize);
-        List<Sector> sectors = manager.buildSectors();
+        List<Sector> sectors;
+        switch (mode) {
+            case "1" -> {
+                System.out.println("Découpage de la ville en grille 4x4...");
+                sectors = manager.buildSectors();
+            }
+            case "3" -> {
+                System.out.printf("Découpage de la ville en quadtree (au plus %.0f m de rues par secteur)...%n", QUADTREE_MAX_LENGTH);
+                sectors = manager.buildQuadtreeSectors(SectorManager.Workload.STREET_LENGTH, QUADTREE_MAX_LENGTH);
+            }
+            default -> {
+                System.out.println("Découpage de la ville en " + SECTOR_COUNT + " secteurs équilibrés (partitionnement multiniveau du réseau)...");
+                sectors = manager.buildPartitionedSectors(SECTOR_COUNT);
+            }
+        }
         if (sectors.isEmpty()) {
             System.out.println("Aucun secteur généré (Erreur : graphe vide ?).");
             return;
@@ -338,18 +592,26 @@ public class Main {
         }
 
         GraphColoringSolver solver = new GraphColoringSolver();
-        GraphColoringSolver.ColoringResult res = solver.color(sectors);
+        GraphColoringSolver.ColoringResult res = sectors.size() <= EXACT_COLORING_MAX_SECTORS
+                ? solver.colorExact(sectors, EXACT_COLORING_NODE_LIMIT)
+                : solver.color(sectors);
+
+        System.out.println("Nombre chromatique (jours necessaires) : " + res.getChromaticNumber()
+                + (res.isProvenOptimal() ? " (optimal prouvé)" : ""));
 
+        // Répartir la longueur de rues sur la semaine de travail, sans jamais mettre deux voisins le même jour
+        Map<String, Double> loads = SectorManager.sectorLoads(sectors, manager.nodeWeights(SectorManager.Workload.STREET_LENGTH));
+        GraphColoringSolver.ColoringResult plan = solver.colorBalanced(sectors, loads, PLANNING_DAYS, 0);
         Map<String, List<Sector>> byDay = new HashMap<>();
         for (Sector s : sectors) {
-            String day = res.getColorBySector().get(s.getId());
+            String day = plan.getColorBySector().get(s.getId());
             byDay.computeIfAbsent(day, k -> new ArrayList<>()).add(s);
         }
 
-        System.out.println("Planning final (aucun voisin le meme jour) :");
-        for (String day : byDay.keySet()) {
-            System.out.print("  " + day + " : ");
-            List<Sector> list = byDay.get(day);
+        System.out.println("Planning final équilibré sur " + plan.getLoadByColor().size() + " jours (aucun voisin le meme jour) :");
+        for (String day : plan.getLoadByColor().keySet()) {
+            System.out.printf("  %s (%.1f km) : ", day, plan.getLoadByColor().get(day) / 1000.0);
+            List<Sector> list = byDay.getOrDefault(day, new ArrayList<>());
             list.sort((a, b) -> a.getId().compareTo(b.getId()));
             for (int i = 0; i < list.size(); i++) {
                 System.out.print(list.get(i).getId());
@@ -359,7 +621,55 @@ public class Main {
             }
             System.out.println();
         }
-        System.out.println("Nombre chromatique (jours necessaires) : " + res.getChromaticNumber());
+
+        System.out.println("Circuits de balayage par secteur (postier rural, calcul parallèle) :");
+        long start = System.nanoTime();
+        List<RuralPostmanSolver.SectorCircuit> circuits = new RuralPostmanSolver(graph).solveSectors(sectors, 0);
+        long elapsed = (System.nanoTime() - start) / 1_000_000L;
+        circuits.sort((a, b) -> a.getSectorId().compareTo(b.getSectorId()));
+        for (RuralPostmanSolver.SectorCircuit c : circuits) {
+            if (!c.isFeasible()) {
+                System.out.println("  " + c.getSectorId() + " : aucun circuit (graphe non connexe ?)");
+                continue;
+            }
+            System.out.printf("  %s : %.2f m de rues + %.2f m haut-le-pied = %.2f m%n",
+                    c.getSectorId(), c.getRequiredDistance(), c.getDeadheadDistance(), c.getDistance());
+        }
+        System.out.println("Calcul : " + elapsed + " ms");
+
+        System.out.print("Calculer les tournées de collecte de la semaine ? (O/N) : ");
+        if (scanner.nextLine().trim().equalsIgnoreCase("o")) {
+            runWeeklyPlan(graph, depotId, collectionPoints, sectors, plan);
+        }
+    }
+
+    // Router chaque secteur le jour qui lui est attribué (calcul parallèle), export GeoJSON d'un fichier par jour
+    private static void runWeeklyPlan(Graph graph, long depotId, List<CollectionPoint> collectionPoints, List<Sector> sectors,
+                                      GraphColoringSolver.ColoringResult coloring) {
+        WeeklyPlanPipeline pipeline = new WeeklyPlanPipeline(graph, depotId, collectionPoints, 0, 0, SECTOR_ROUTING_MILLIS);
+        WeeklyPlanPipeline.WeeklyPlan week;
+        try {
+            week = pipeline.run(sectors, coloring.getColorBySector(), "output", CancellationToken.none());
+        } catch (IOException e) {
+            System.out.println("Echec export GeoJSON : " + e.getMessage());
+            return;
+        }
+        for (String day : coloring.getLoadByColor().keySet()) {
+            List<WeeklyPlanPipeline.SectorRoute> routes = week.getRoutesByDay().getOrDefault(day, new ArrayList<>());
+            System.out.printf("  %s : %d secteurs, %d sous-tournées, %.2f km%n", day, routes.size(),
+                    week.getTripCount(day), week.getDistance(day) / 1000.0);
+            for (WeeklyPlanPipeline.SectorRoute route : routes) {
+                if (!route.isFeasible()) {
+                    System.out.println("    " + route.getSectorId() + " : aucune tournée (graphe non connexe ?)");
+                }
+            }
+        }
+        if (!week.getUnplanned().isEmpty()) {
+            System.out.println("Points hors secteur (non planifiés) : " + week.getUnplanned().size());
+        }
+        File archive = new File("output", WeeklyPlanPipeline.ARCHIVE_FILE);
+        System.out.println("Archive binaire des tournées : " + archive.getPath() + " (" + archive.length() + " octets)");
+        System.out.println("Calcul : " + week.getElapsedMillis() + " ms");
     }
 
     private static void maybeExportGeoJson(Scanner scanner, Graph graph, Theme2Solver solver, List<Theme2Solver.SplitTour> splits, String filename) {
@@ -371,25 +681,17 @@ public class Main {
         if (!line.equals("o")) {
             return;
         }
-        List<List<Node>> tours = convertSplitToursToNodes(graph, solver, splits);
-        try {
-            GeoJsonExporter.exportToursToGeoJson(tours, filename);
+        // Écriture en flux : chaque tournée est développée rue par rue puis écrite directement dans le fichier
+        try (GeoJsonWriter writer = GeoJsonWriter.open(filename, false)) {
+            for (int i = 0; i < splits.size(); i++) {
+                writer.writeTour(graph, splits.get(i).path, "Tournée " + (i + 1), null);
+            }
+            System.out.println("Fichier exporté : " + filename);
         } catch (IOException e) {
             System.out.println("Echec export GeoJSON : " + e.getMessage());
         }
     }
 
-    private static List<List<Node>> convertSplitToursToNodes(Graph graph, Theme2Solver solver, List<Theme2Solver.SplitTour> splits) {
-        List<List<Node>> result = new ArrayList<>();
-        for (Theme2Solver.SplitTour st : splits) {
-            List<Node> tourNodes = solver.buildStreetPath(graph, st.path);
-            if (!tourNodes.isEmpty()) {
-                result.add(tourNodes);
-            }
-        }
-        return result;
-    }
-
     private static List<CollectionPoint> mapCollectionPoints(Graph graph, List<CollectionPoint> rawPoints) {
         List<CollectionPoint> mapped = new ArrayList<>();
         for (CollectionPoint cp : rawPoints) {
@@ -0,0 +1,75 @@
+import java.util.Arrays;
+
+// Tas binaire minimal (clé double, valeur entière) sur tableaux primitifs
+// Utilisé en mode « paresseux » : les entrées obsolètes sont ignorées par l'appelant au retrait
+public class MinHeap {
+    private double[] keys;
+    private int[] values;
+    private int size;
+
+    public MinHeap(int capacity) {
+        keys = new double[Math.max(capacity, 4)];
+        values = new int[keys.length];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public double peekKey() {
+        return keys[0];
+    }
+
+    public void push(double key, int value) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        int pos = size++;
+        while (pos > 0) { // Remonter tant que le parent est plus grand
+            int up = (pos - 1) / 2;
+            if (keys[up] <= key) {
+                break;
+            }
+            keys[pos] = keys[up];
+            values[pos] = values[up];
+            pos = up;
+        }
+        keys[pos] = key;
+        values[pos] = value;
+    }
+
+    public int pop() {
+        int top = values[0];
+        size--;
+        double key = keys[size];
+        int value = values[size];
+        int pos = 0;
+        while (true) { // Descendre le dernier élément
+            int child = 2 * pos + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && keys[child + 1] < keys[child]) {
+                child++;
+            }
+            if (keys[child] >= key) {
+                break;
+            }
+            keys[pos] = keys[child];
+            values[pos] = values[child];
+            pos = child;
+        }
+        keys[pos] = key;
+        values[pos] = value;
+        return top;
+    }
+}
@@ -0,0 +1,41 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Dictionnaire de chaînes : chaque nom distinct est stocké une seule fois et désigné par un entier
+// Les arêtes ne gardent que l'identifiant du nom de rue ; la table est partagée par tous les graphes
+public class NameTable {
+    // Table des noms de rue (identifiant 0 : nom vide)
+    public static final NameTable STREETS = new NameTable();
+    private final Map<String, Integer> idByName = new HashMap<>();
+    private volatile String[] names = new String[64]; // Identifiant -> nom
+    private int size;
+
+    public NameTable() {
+        intern("");
+    }
+
+    // Récupérer l'identifiant d'un nom, en l'ajoutant s'il est nouveau (null : nom vide)
+    public synchronized int intern(String name) {
+        String key = name == null ? "" : name;
+        Integer id = idByName.get(key);
+        if (id != null) {
+            return id;
+        }
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+        }
+        names[size] = key;
+        idByName.put(key, size);
+        return size++;
+    }
+
+    public String get(int id) {
+        String[] table = names;
+        return id >= 0 && id < table.length && table[id] != null ? table[id] : "";
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+}
@@ -1,33 +1,26 @@
+// Vue légère sur un sommet rangé dans un NodeStore (tableaux de coordonnées partagés)
 public class Node {
-    private final long id; // Stocker l'identifiant unique du sommet
-    private final double latitude; // Latitude du sommet
-    private final double longitude; // Longitude du sommet
-    private final boolean inferred; // Créer ?
+    private final NodeStore store; // Magasin des sommets du graphe
+    private final int slot; // Emplacement du sommet dans le magasin
 
-    public Node(long id, double latitude, double longitude) {
-        this(id, latitude, longitude, false);
-    }
-
-    public Node(long id, double latitude, double longitude, boolean inferred) {
-        this.id = id;
-        this.latitude = latitude;
-        this.longitude = longitude;
-        this.inferred = inferred;
+    public Node(NodeStore store, int slot) {
+        this.store = store;
+        this.slot = slot;
     }
 
     public long getId() {
-        return id;
+        return store.idAt(slot);
     }
 
     public double getLatitude() {
-        return latitude;
+        return store.latitudeAt(slot);
     }
 
     public double getLongitude() {
-        return longitude;
+        return store.longitudeAt(slot);
     }
 
     public boolean isInferred() {
-        return inferred;
+        return store.isInferredAt(slot);
     }
 }
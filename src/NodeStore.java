@@ -0,0 +1,180 @@
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+// Stockage des sommets en colonnes : identifiants, latitudes et longitudes dans des tableaux parallèles,
+// drapeau « inféré » dans un BitSet, et table de hachage ouverte identifiant -> emplacement (sans objets Long)
+// Les sommets sont rangés dans l'ordre d'ajout ; Node n'est qu'une vue (magasin, emplacement) sur ces tableaux
+public class NodeStore {
+    private static final int EMPTY = -1;
+    private long[] ids = new long[16]; // Emplacement -> identifiant
+    private double[] lat = new double[16];
+    private double[] lon = new double[16];
+    private BitSet inferred = new BitSet();
+    private int size;
+    private long[] keys = new long[32]; // Table de hachage (sondage linéaire), capacité puissance de 2
+    private int[] slots = new int[32]; // Emplacement associé à chaque case (EMPTY : case libre)
+    private final Set<Long> idView = new IdSet();
+
+    public NodeStore() {
+        Arrays.fill(slots, EMPTY);
+    }
+
+    // Ajouter un sommet ; renvoie son emplacement, ou -1 s'il existait déjà (inchangé)
+    public int add(long id, double latitude, double longitude, boolean isInferred) {
+        int h = find(id);
+        if (slots[h] != EMPTY) {
+            return -1;
+        }
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            lat = Arrays.copyOf(lat, capacity);
+            lon = Arrays.copyOf(lon, capacity);
+        }
+        int slot = size++;
+        ids[slot] = id;
+        lat[slot] = latitude;
+        lon[slot] = longitude;
+        inferred.set(slot, isInferred);
+        keys[h] = id;
+        slots[h] = slot;
+        if (2 * size > keys.length) {
+            rehash(keys.length * 2); // Facteur de charge au plus 1/2
+        }
+        return slot;
+    }
+
+    // Emplacement d'un sommet (-1 si inconnu)
+    public int slotOf(long id) {
+        return slots[find(id)];
+    }
+
+    public boolean contains(long id) {
+        return slotOf(id) != EMPTY;
+    }
+
+    // Vue sur un sommet (null si inconnu)
+    public Node get(long id) {
+        int slot = slotOf(id);
+        return slot == EMPTY ? null : new Node(this, slot);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long idAt(int slot) {
+        return ids[slot];
+    }
+
+    public double latitudeAt(int slot) {
+        return lat[slot];
+    }
+
+    public double longitudeAt(int slot) {
+        return lon[slot];
+    }
+
+    public boolean isInferredAt(int slot) {
+        return inferred.get(slot);
+    }
+
+    // Identifiants des sommets, dans l'ordre des emplacements (vue en lecture seule)
+    public Set<Long> ids() {
+        return idView;
+    }
+
+    // Ne garder que les sommets listés ; les emplacements sont compactés (les vues Node existantes deviennent caduques)
+    public void retainAll(Set<Long> keep) {
+        int kept = 0;
+        BitSet flags = new BitSet(size);
+        for (int slot = 0; slot < size; slot++) {
+            if (!keep.contains(ids[slot])) {
+                continue;
+            }
+            ids[kept] = ids[slot];
+            lat[kept] = lat[slot];
+            lon[kept] = lon[slot];
+            flags.set(kept, inferred.get(slot));
+            kept++;
+        }
+        size = kept;
+        inferred = flags;
+        ids = Arrays.copyOf(ids, Math.max(16, kept));
+        lat = Arrays.copyOf(lat, ids.length);
+        lon = Arrays.copyOf(lon, ids.length);
+        int capacity = 32;
+        while (capacity < 2 * kept + 2) {
+            capacity *= 2;
+        }
+        rehash(capacity);
+    }
+
+    // Case de la table contenant id, ou première case libre de sa séquence de sondage
+    private int find(long id) {
+        int mask = keys.length - 1;
+        int h = mix(id) & mask;
+        while (slots[h] != EMPTY && keys[h] != id) {
+            h = (h + 1) & mask;
+        }
+        return h;
+    }
+
+    private void rehash(int capacity) {
+        keys = new long[capacity];
+        slots = new int[capacity];
+        Arrays.fill(slots, EMPTY);
+        for (int slot = 0; slot < size; slot++) {
+            int h = find(ids[slot]);
+            keys[h] = ids[slot];
+            slots[h] = slot;
+        }
+    }
+
+    // Brassage des bits (les identifiants OSM sont souvent consécutifs)
+    private static int mix(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    // Ensemble des identifiants, sans copie
+    private class IdSet extends AbstractSet<Long> {
+        @Override
+        public Iterator<Long> iterator() {
+            return new Iterator<>() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size;
+                }
+
+                @Override
+                public Long next() {
+                    if (next >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    return ids[next++];
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Long && NodeStore.this.contains((Long) o);
+        }
+    }
+}
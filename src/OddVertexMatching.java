@@ -0,0 +1,200 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Couplage parfait de poids minimal des sommets impairs (facteur chinois)
+// Les distances candidates viennent de recherches bornées aux k plus proches sommets impairs, lancées en parallèle
+// sur l'instantané compact ; le couplage est résolu par l'algorithme d'Edmonds (fleurs).
+// Les sommets restés seuls (graphe candidat trop creux) sont recouplés avec un voisinage doublé.
+public class OddVertexMatching {
+    private static final int DEFAULT_NEIGHBORS = 24; // Voisins impairs retenus par sommet
+    private static final int CHUNK = 64; // Sources traitées par tâche
+
+    // Coupler les sommets impairs ; retourner les paires d'identifiants, ou null si un sommet ne peut être couplé
+    public static List<long[]> match(Graph graph, List<Long> oddNodes) {
+        return match(graph, oddNodes, DEFAULT_NEIGHBORS, Runtime.getRuntime().availableProcessors());
+    }
+
+    public static List<long[]> match(Graph graph, List<Long> oddNodes, int neighbors, int threads) {
+        RoutingGraph routing = graph.getRoutingGraph();
+        int k = oddNodes.size();
+        int[] dense = new int[k]; // Indice dense de chaque sommet impair
+        for (int i = 0; i < k; i++) {
+            dense[i] = routing.indexOf(oddNodes.get(i));
+            if (dense[i] < 0) {
+                return null;
+            }
+        }
+        List<long[]> pairs = new ArrayList<>();
+        int[] remaining = new int[k]; // Sommets impairs encore à coupler (indices dans oddNodes)
+        for (int i = 0; i < k; i++) {
+            remaining[i] = i;
+        }
+        int width = Math.max(1, neighbors);
+        int workers = Math.max(1, threads);
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try {
+            while (remaining.length > 0) {
+                int r = remaining.length;
+                if (r % 2 == 1) {
+                    return null; // Nombre impair de sommets : couplage parfait impossible
+                }
+                int[] local = new int[r];
+                for (int i = 0; i < r; i++) {
+                    local[i] = dense[remaining[i]];
+                }
+                boolean complete = width >= r - 1; // Graphe candidat complet : couplage parfait si tout est atteignable
+                Candidates candidates = nearestNeighbors(routing, local, Math.min(width, r - 1), pool);
+                int[] mate = solve(r, candidates);
+                List<Integer> single = new ArrayList<>();
+                for (int i = 0; i < r; i++) {
+                    if (mate[i] == -1) {
+                        single.add(remaining[i]);
+                    } else if (i < mate[i]) {
+                        pairs.add(new long[]{oddNodes.get(remaining[i]), oddNodes.get(remaining[mate[i]])});
+                    }
+                }
+                if (single.size() == r || (complete && !single.isEmpty())) {
+                    return null; // Aucun progrès possible : sommets mutuellement inatteignables
+                }
+                remaining = single.stream().mapToInt(Integer::intValue).toArray();
+                width *= 2; // Élargir le voisinage pour les sommets restants
+            }
+            return pairs;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Échec d'une recherche de voisins impairs", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Chercher, pour chaque sommet, ses « width » plus proches voisins parmi les sommets donnés (en parallèle)
+    private static Candidates nearestNeighbors(RoutingGraph routing, int[] local, int width, ExecutorService pool)
+            throws InterruptedException, ExecutionException {
+        int r = local.length;
+        int[] localOf = new int[routing.size()]; // Indice dense -> indice local (-1 hors ensemble), en lecture seule
+        Arrays.fill(localOf, -1);
+        for (int i = 0; i < r; i++) {
+            localOf[local[i]] = i;
+        }
+        Candidates result = new Candidates(r, width);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int from = 0; from < r; from += CHUNK) {
+            int lo = from;
+            int hi = Math.min(r, from + CHUNK);
+            futures.add(pool.submit(() -> {
+                BoundedSearch search = new BoundedSearch(routing.size()); // Tableaux réutilisés par la tâche
+                for (int i = lo; i < hi; i++) {
+                    search.run(routing, local[i], localOf, width, result.target[i], result.dist[i]);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        return result;
+    }
+
+    // Résoudre le couplage de cardinal maximal et de poids minimal sur le graphe candidat (symétrisé)
+    private static int[] solve(int r, Candidates candidates) {
+        Set<Long> seen = new HashSet<>();
+        List<int[]> edges = new ArrayList<>();
+        List<Long> weights = new ArrayList<>();
+        for (int i = 0; i < r; i++) {
+            for (int t = 0; t < candidates.target[i].length; t++) {
+                int j = candidates.target[i][t];
+                if (j < 0) {
+                    break; // Moins de voisins atteignables que demandé
+                }
+                long key = (long) Math.min(i, j) * r + Math.max(i, j);
+                if (seen.add(key)) {
+                    edges.add(new int[]{i, j});
+                    weights.add(Math.round(candidates.dist[i][t] * 100.0)); // Centimètres
+                }
+            }
+        }
+        int[] from = new int[edges.size()];
+        int[] to = new int[edges.size()];
+        long[] w = new long[edges.size()];
+        for (int e = 0; e < edges.size(); e++) {
+            from[e] = edges.get(e)[0];
+            to[e] = edges.get(e)[1];
+            w[e] = weights.get(e);
+        }
+        return BlossomMatching.minWeightPerfectMatching(r, from, to, w);
+    }
+
+    // Voisins candidats : target[i][t] = indice local du t-ième plus proche voisin (-1 si absent), dist associée
+    private static class Candidates {
+        private final int[][] target;
+        private final double[][] dist;
+
+        private Candidates(int r, int width) {
+            target = new int[r][width];
+            dist = new double[r][width];
+        }
+    }
+
+    // Dijkstra borné sur l'instantané compact, arrêté dès que « width » sommets de l'ensemble sont fixés
+    // Les tableaux sont remis à zéro uniquement sur les sommets touchés
+    private static class BoundedSearch {
+        private final double[] dist;
+        private final boolean[] settled;
+        private final int[] touched;
+        private final MinHeap heap = new MinHeap(64);
+
+        private BoundedSearch(int n) {
+            dist = new double[n];
+            settled = new boolean[n];
+            touched = new int[n];
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        }
+
+        private void run(RoutingGraph routing, int source, int[] localOf, int width, int[] outTarget, double[] outDist) {
+            Arrays.fill(outTarget, -1);
+            int touchedCount = 0;
+            int found = 0;
+            heap.clear();
+            dist[source] = 0.0;
+            touched[touchedCount++] = source;
+            heap.push(0.0, source);
+            while (!heap.isEmpty() && found < width) {
+                double d = heap.peekKey();
+                int u = heap.pop();
+                if (settled[u] || d > dist[u]) {
+                    continue;
+                }
+                settled[u] = true;
+                if (u != source && localOf[u] >= 0) {
+                    outTarget[found] = localOf[u];
+                    outDist[found] = d;
+                    found++;
+                }
+                for (int a = routing.firstArc(u); a < routing.endArc(u); a++) {
+                    int v = routing.getArcTarget(a);
+                    double nd = d + routing.getArcWeight(a);
+                    if (!settled[v] && nd < dist[v]) {
+                        if (dist[v] == Double.POSITIVE_INFINITY) {
+                            touched[touchedCount++] = v;
+                        }
+                        dist[v] = nd;
+                        heap.push(nd, v);
+                    }
+                }
+            }
+            for (int t = 0; t < touchedCount; t++) {
+                dist[touched[t]] = Double.POSITIVE_INFINITY;
+                settled[touched[t]] = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,297 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Session de planification incrémentale pour la journée (Thème 2)
+// La matrice des distances, la tournée et son découpage restent en mémoire ; chaque événement
+// (ajout / retrait d'un point, nouveau volume) est réparé localement au lieu de tout recalculer
+public class PlanningSession {
+    private static final long INITIAL_BUDGET_MS = 2000; // Budget de la recherche locale initiale
+    private static final long REPAIR_BUDGET_MS = 200; // Budget de réparation après un événement
+    private final Graph graph;
+    private final long depotId;
+    private final int truckCapacity;
+    private RoutingGraph routing; // Instantané compact utilisé pour les recherches
+    private long[] nodeIds = new long[16]; // Emplacement -> sommet (emplacement 0 = dépôt)
+    private int[] dense = new int[16]; // Emplacement -> indice dense dans l'instantané
+    private int[] volume = new int[16]; // Emplacement -> volume à collecter
+    private double[][] dist = new double[16][16]; // Distances entre emplacements actifs
+    private int slotCount; // Nombre d'emplacements utilisés (libérés compris)
+    private final Deque<Integer> freeSlots = new ArrayDeque<>(); // Emplacements libérés réutilisables
+    private final Map<Long, Integer> slotByNode = new HashMap<>(); // Sommet de collecte -> emplacement
+    private int[] tour = new int[0]; // Tournée courante en emplacements (dépôt en position 0)
+    private List<Theme2Solver.SplitTour> splits = new ArrayList<>(); // Découpage courant
+    private long lastRepairMillis; // Durée du dernier traitement d'événement
+
+    public PlanningSession(Graph graph, long depotId, int truckCapacity) {
+        this.graph = graph;
+        this.depotId = depotId;
+        this.truckCapacity = truckCapacity;
+    }
+
+    // Construire la matrice, une première tournée (plus proche voisin + recherche locale) et son découpage
+    // Retourner false si un point n'est pas atteignable depuis le dépôt (la session reste alors vide)
+    public boolean initialize(List<CollectionPoint> points) {
+        long start = System.nanoTime();
+        routing = graph.getRoutingGraph();
+        clear();
+        int depotDense = routing.indexOf(depotId);
+        if (depotDense < 0) {
+            return false;
+        }
+        nodeIds[0] = depotId;
+        dense[0] = depotDense;
+        volume[0] = 0;
+        slotCount = 1;
+        for (CollectionPoint cp : points) {
+            Integer existing = slotByNode.get(cp.getNearestNodeId());
+            if (existing != null) {
+                volume[existing] += cp.getVolume(); // Plusieurs bacs sur le même sommet
+                continue;
+            }
+            int idx = routing.indexOf(cp.getNearestNodeId());
+            if (idx < 0) {
+                clear();
+                return false;
+            }
+            int slot = slotCount++;
+            ensureCapacity(slotCount);
+            nodeIds[slot] = cp.getNearestNodeId();
+            dense[slot] = idx;
+            volume[slot] = cp.getVolume();
+            slotByNode.put(cp.getNearestNodeId(), slot);
+        }
+        // Une recherche un-vers-plusieurs par emplacement (triangle supérieur)
+        for (int i = 0; i < slotCount - 1; i++) {
+            int[] targets = Arrays.copyOfRange(dense, i + 1, slotCount);
+            double[] row = Dijkstra.distancesFrom(routing, dense[i], targets);
+            for (int j = i + 1; j < slotCount; j++) {
+                if (Double.isInfinite(row[j - i - 1])) {
+                    clear();
+                    return false; // Graphe non connexe
+                }
+                dist[i][j] = row[j - i - 1];
+                dist[j][i] = row[j - i - 1];
+            }
+        }
+        tour = nearestNeighborTour();
+        new TourImprover(dist, CancellationToken.withTimeout(INITIAL_BUDGET_MS)).improve(tour);
+        resplit();
+        lastRepairMillis = (System.nanoTime() - start) / 1_000_000L;
+        return true;
+    }
+
+    // Ajouter un point en cours de journée : une seule recherche, insertion au moindre coût puis recherche locale
+    public boolean insertPoint(CollectionPoint cp) {
+        if (slotCount == 0) {
+            return false; // Session non initialisée (ou initialisation échouée)
+        }
+        long start = System.nanoTime();
+        long nodeId = cp.getNearestNodeId();
+        Integer existing = slotByNode.get(nodeId);
+        if (existing != null) {
+            volume[existing] += cp.getVolume(); // Sommet déjà planifié : seul le volume change
+            resplit();
+            lastRepairMillis = (System.nanoTime() - start) / 1_000_000L;
+            return true;
+        }
+        int idx = routing.indexOf(nodeId);
+        if (idx < 0) {
+            return false; // Sommet absent du graphe
+        }
+        int[] targets = new int[tour.length];
+        for (int p = 0; p < tour.length; p++) {
+            targets[p] = dense[tour[p]];
+        }
+        double[] row = Dijkstra.distancesFrom(routing, idx, targets); // Distances vers tous les emplacements actifs
+        for (double d : row) {
+            if (Double.isInfinite(d)) {
+                return false; // Point inatteignable
+            }
+        }
+        int slot = allocateSlot();
+        nodeIds[slot] = nodeId;
+        dense[slot] = idx;
+        volume[slot] = cp.getVolume();
+        slotByNode.put(nodeId, slot);
+        dist[slot][slot] = 0.0;
+        for (int p = 0; p < tour.length; p++) {
+            dist[slot][tour[p]] = row[p];
+            dist[tour[p]][slot] = row[p];
+        }
+
+        // Insérer entre les deux étapes consécutives qui allongent le moins la tournée
+        int bestPos = 0;
+        double bestCost = Double.POSITIVE_INFINITY;
+        for (int p = 0; p < tour.length; p++) {
+            int a = tour[p];
+            int b = tour[(p + 1) % tour.length];
+            double cost = dist[a][slot] + dist[slot][b] - dist[a][b];
+            if (cost < bestCost) {
+                bestCost = cost;
+                bestPos = p;
+            }
+        }
+        int[] updated = new int[tour.length + 1];
+        System.arraycopy(tour, 0, updated, 0, bestPos + 1);
+        updated[bestPos + 1] = slot;
+        System.arraycopy(tour, bestPos + 1, updated, bestPos + 2, tour.length - bestPos - 1);
+        tour = updated;
+        repair(start);
+        return true;
+    }
+
+    // Retirer un point (bac vidé par ailleurs, annulation) puis réparer la tournée
+    public boolean removePoint(long nodeId) {
+        long start = System.nanoTime();
+        Integer slot = slotByNode.remove(nodeId);
+        if (slot == null) {
+            return false; // Point inconnu
+        }
+        int[] updated = new int[tour.length - 1];
+        int w = 0;
+        for (int s : tour) {
+            if (s != slot) {
+                updated[w++] = s;
+            }
+        }
+        tour = updated;
+        freeSlots.push(slot); // Réutiliser l'emplacement pour un prochain ajout
+        repair(start);
+        return true;
+    }
+
+    // Mettre à jour le volume d'un point : l'ordre ne change pas, seul le découpage est recalculé
+    public boolean updateVolume(long nodeId, int newVolume) {
+        long start = System.nanoTime();
+        Integer slot = slotByNode.get(nodeId);
+        if (slot == null) {
+            return false;
+        }
+        volume[slot] = newVolume;
+        resplit();
+        lastRepairMillis = (System.nanoTime() - start) / 1_000_000L;
+        return true;
+    }
+
+    // Récupérer l'ordre de visite (dépôt au début et à la fin)
+    public List<Long> getOrder() {
+        List<Long> order = new ArrayList<>();
+        for (int s : tour) {
+            order.add(nodeIds[s]);
+        }
+        order.add(depotId);
+        return order;
+    }
+
+    // Distance de la tournée géante (avant découpage)
+    public double getTourDistance() {
+        return TourImprover.tourLength(tour, dist);
+    }
+
+    public List<Theme2Solver.SplitTour> getSplits() {
+        return splits;
+    }
+
+    public int getPointCount() {
+        return slotByNode.size();
+    }
+
+    public long getLastRepairMillis() {
+        return lastRepairMillis;
+    }
+
+    // Recherche locale bornée puis nouveau découpage
+    private void repair(long startNanos) {
+        new TourImprover(dist, CancellationToken.withTimeout(REPAIR_BUDGET_MS)).improve(tour);
+        resplit();
+        lastRepairMillis = (System.nanoTime() - startNanos) / 1_000_000L;
+    }
+
+    // Recalculer le découpage optimal de la tournée courante
+    private void resplit() {
+        int m = tour.length - 1;
+        int[] idx = new int[m + 1];
+        int[] vol = new int[m + 1];
+        for (int j = 1; j <= m; j++) {
+            idx[j] = tour[j];
+            vol[j] = volume[tour[j]];
+        }
+        List<Theme2Solver.SplitTour> result = new ArrayList<>();
+        for (int[] range : TourSplitter.split(dist, 0, idx, vol, truckCapacity)) {
+            List<Long> path = new ArrayList<>();
+            path.add(depotId);
+            int load = 0;
+            double d = 0.0;
+            int prev = 0;
+            for (int q = range[0]; q <= range[1]; q++) {
+                path.add(nodeIds[idx[q]]);
+                load += vol[q];
+                d += dist[prev][idx[q]];
+                prev = idx[q];
+            }
+            d += dist[prev][0];
+            path.add(depotId);
+            result.add(new Theme2Solver.SplitTour(path, load, d));
+        }
+        splits = result;
+    }
+
+    // Vider la session (aucun emplacement, aucune tournée) : état de départ et état après un échec d'initialisation
+    private void clear() {
+        slotCount = 0;
+        freeSlots.clear();
+        slotByNode.clear();
+        tour = new int[0];
+        splits = new ArrayList<>();
+    }
+
+    // Plus proche voisin sur les emplacements actifs
+    private int[] nearestNeighborTour() {
+        int[] result = new int[slotCount];
+        boolean[] used = new boolean[slotCount];
+        used[0] = true;
+        int current = 0;
+        for (int k = 1; k < slotCount; k++) {
+            int next = -1;
+            for (int j = 1; j < slotCount; j++) {
+                if (!used[j] && (next == -1 || dist[current][j] < dist[current][next])) {
+                    next = j;
+                }
+            }
+            result[k] = next;
+            used[next] = true;
+            current = next;
+        }
+        return result;
+    }
+
+    private int allocateSlot() {
+        if (!freeSlots.isEmpty()) {
+            return freeSlots.pop();
+        }
+        int slot = slotCount++;
+        ensureCapacity(slotCount);
+        return slot;
+    }
+
+    // Agrandir les tableaux (doublement) pour accueillir « needed » emplacements
+    private void ensureCapacity(int needed) {
+        if (needed <= nodeIds.length) {
+            return;
+        }
+        int capacity = Math.max(needed, nodeIds.length * 2);
+        nodeIds = Arrays.copyOf(nodeIds, capacity);
+        dense = Arrays.copyOf(dense, capacity);
+        volume = Arrays.copyOf(volume, capacity);
+        double[][] grown = new double[capacity][];
+        for (int i = 0; i < capacity; i++) {
+            grown[i] = i < dist.length ? Arrays.copyOf(dist[i], capacity) : new double[capacity];
+        }
+        dist = grown;
+    }
+}
@@ -0,0 +1,377 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Format compact des tournées pour les tablettes embarquées (liaisons lentes)
+// Fichier binaire : en-tête « RTB1 », puis un enregistrement par tournée (octet 1) et un octet 0 final
+// Enregistrement : nom, jour, volume, distance, arrêts (identifiants en delta), distance de chaque tronçon,
+// tracé en coordonnées entières (1e-6 degré, ~0,1 m) codées en delta, identifiants d'arêtes en delta
+// Entiers en varint (7 bits par octet), valeurs signées en zigzag, distances en décimètres
+// Les polylignes encodées façon Google (précision 1e-5) sont disponibles pour les échanges texte
+public class RouteArchive {
+    private static final byte[] MAGIC = {'R', 'T', 'B', '1'};
+    private static final double COORD_SCALE = 1e6;
+    private static final double DISTANCE_SCALE = 10.0; // Décimètres
+    private static final double POLYLINE_SCALE = 1e5;
+
+    // Tournée décodée (ou prête à écrire)
+    public static class RouteRecord {
+        private final String name;
+        private final String day;
+        private final int usedVolume;
+        private final double distance;
+        private final long[] stops; // Dépôt, points de collecte, dépôt
+        private final double[] legDistances; // Distance de chaque tronçon entre deux arrêts
+        private final double[] latitudes; // Tracé rue par rue
+        private final double[] longitudes;
+        private final int[] edgeIds; // Arêtes parcourues
+
+        public RouteRecord(String name, String day, int usedVolume, double distance, long[] stops, double[] legDistances,
+                           double[] latitudes, double[] longitudes, int[] edgeIds) {
+            this.name = name;
+            this.day = day;
+            this.usedVolume = usedVolume;
+            this.distance = distance;
+            this.stops = stops;
+            this.legDistances = legDistances;
+            this.latitudes = latitudes;
+            this.longitudes = longitudes;
+            this.edgeIds = edgeIds;
+        }
+
+        // Développer une sous-tournée rue par rue (plus courts chemins) : tracé, arêtes et distance des tronçons
+        public static RouteRecord fromSplitTour(Graph graph, String name, String day, Theme2Solver.SplitTour tour) {
+            ContractedGraph contracted = graph.getContractedGraph();
+            RoutingGraph routing = contracted.getRouting();
+            int stopCount = tour.path.size();
+            long[] stops = new long[stopCount];
+            for (int i = 0; i < stopCount; i++) {
+                stops[i] = tour.path.get(i);
+            }
+            double[] legs = new double[Math.max(0, stopCount - 1)];
+            List<Long> nodes = new ArrayList<>();
+            int[] edges = new int[16];
+            int edgeCount = 0;
+            if (stopCount > 0) {
+                nodes.add(stops[0]);
+            }
+            for (int i = 0; i + 1 < stopCount; i++) {
+                int a = routing.indexOf(stops[i]);
+                int b = routing.indexOf(stops[i + 1]);
+                if (a < 0 || b < 0) {
+                    continue; // Arrêt hors du graphe
+                }
+                Dijkstra.PathResult leg = contracted.shortestPath(a, b); // Déplié rue par rue
+                legs[i] = leg.getDistance();
+                List<Long> path = leg.getPath();
+                for (int j = 1; j < path.size(); j++) {
+                    nodes.add(path.get(j));
+                }
+                for (int edgeId : leg.getEdgeIds()) { // Arêtes relevées par la recherche
+                    if (edgeCount == edges.length) {
+                        edges = Arrays.copyOf(edges, edgeCount * 2);
+                    }
+                    edges[edgeCount++] = edgeId;
+                }
+            }
+            double[] lat = new double[nodes.size()];
+            double[] lon = new double[nodes.size()];
+            for (int i = 0; i < nodes.size(); i++) {
+                Node n = graph.getNode(nodes.get(i));
+                lat[i] = n.getLatitude();
+                lon[i] = n.getLongitude();
+            }
+            return new RouteRecord(name, day, tour.usedVolume, tour.distance, stops, legs, lat, lon,
+                    Arrays.copyOf(edges, edgeCount));
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDay() {
+            return day;
+        }
+
+        public int getUsedVolume() {
+            return usedVolume;
+        }
+
+        public double getDistance() {
+            return distance;
+        }
+
+        public long[] getStops() {
+            return stops;
+        }
+
+        public double[] getLegDistances() {
+            return legDistances;
+        }
+
+        public double[] getLatitudes() {
+            return latitudes;
+        }
+
+        public double[] getLongitudes() {
+            return longitudes;
+        }
+
+        public int[] getEdgeIds() {
+            return edgeIds;
+        }
+
+        public String toPolyline() {
+            return encodePolyline(latitudes, longitudes);
+        }
+    }
+
+    public static Writer openWriter(String filename) throws IOException {
+        File parent = new File(filename).getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs(); // Créer les dossiers si besoin
+        }
+        return new Writer(new BufferedOutputStream(new FileOutputStream(filename), 1 << 16));
+    }
+
+    public static Reader openReader(String filename) throws IOException {
+        return new Reader(new BufferedInputStream(new FileInputStream(filename), 1 << 16));
+    }
+
+    // Lire toutes les tournées d'un fichier
+    public static List<RouteRecord> readAll(String filename) throws IOException {
+        List<RouteRecord> records = new ArrayList<>();
+        try (Reader reader = openReader(filename)) {
+            for (RouteRecord r = reader.next(); r != null; r = reader.next()) {
+                records.add(r);
+            }
+        }
+        return records;
+    }
+
+    // Écriture en flux : un enregistrement par appel à write
+    public static class Writer implements Closeable {
+        private final OutputStream out;
+
+        private Writer(OutputStream out) throws IOException {
+            this.out = out;
+            out.write(MAGIC);
+        }
+
+        public void write(RouteRecord r) throws IOException {
+            out.write(1); // Enregistrement suivant
+            writeString(r.name);
+            writeString(r.day);
+            writeVarint(r.usedVolume);
+            writeVarint(Math.round(r.distance * DISTANCE_SCALE));
+            writeVarint(r.stops.length);
+            long prev = 0;
+            for (long id : r.stops) {
+                writeVarint(zigzag(id - prev));
+                prev = id;
+            }
+            for (double leg : r.legDistances) { // stops.length - 1 tronçons
+                writeVarint(Math.round(leg * DISTANCE_SCALE));
+            }
+            writeVarint(r.latitudes.length);
+            long prevLat = 0;
+            long prevLon = 0;
+            for (int i = 0; i < r.latitudes.length; i++) {
+                long lat = Math.round(r.latitudes[i] * COORD_SCALE);
+                long lon = Math.round(r.longitudes[i] * COORD_SCALE);
+                writeVarint(zigzag(lat - prevLat));
+                writeVarint(zigzag(lon - prevLon));
+                prevLat = lat;
+                prevLon = lon;
+            }
+            writeVarint(r.edgeIds.length);
+            int prevEdge = 0;
+            for (int id : r.edgeIds) {
+                writeVarint(zigzag(id - prevEdge));
+                prevEdge = id;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.write(0); // Fin de fichier
+            out.close();
+        }
+
+        private void writeString(String s) throws IOException {
+            byte[] bytes = (s == null ? "" : s).getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length);
+            out.write(bytes);
+        }
+
+        private void writeVarint(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+    }
+
+    // Lecture en flux : next() retourne null à la fin du fichier
+    public static class Reader implements Closeable {
+        private final InputStream in;
+
+        private Reader(InputStream in) throws IOException {
+            this.in = in;
+            byte[] magic = in.readNBytes(MAGIC.length);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Format de tournées inconnu (en-tête RTB1 attendu)");
+            }
+        }
+
+        public RouteRecord next() throws IOException {
+            int marker = in.read();
+            if (marker <= 0) {
+                return null; // Fin de fichier
+            }
+            String name = readString();
+            String day = readString();
+            int usedVolume = (int) readVarint();
+            double distance = readVarint() / DISTANCE_SCALE;
+            long[] stops = new long[(int) readVarint()];
+            long prev = 0;
+            for (int i = 0; i < stops.length; i++) {
+                prev += unzigzag(readVarint());
+                stops[i] = prev;
+            }
+            double[] legs = new double[Math.max(0, stops.length - 1)];
+            for (int i = 0; i < legs.length; i++) {
+                legs[i] = readVarint() / DISTANCE_SCALE;
+            }
+            int points = (int) readVarint();
+            double[] lat = new double[points];
+            double[] lon = new double[points];
+            long la = 0;
+            long lo = 0;
+            for (int i = 0; i < points; i++) {
+                la += unzigzag(readVarint());
+                lo += unzigzag(readVarint());
+                lat[i] = la / COORD_SCALE;
+                lon[i] = lo / COORD_SCALE;
+            }
+            int[] edges = new int[(int) readVarint()];
+            int prevEdge = 0;
+            for (int i = 0; i < edges.length; i++) {
+                prevEdge += (int) unzigzag(readVarint());
+                edges[i] = prevEdge;
+            }
+            return new RouteRecord(name, day, usedVolume, distance, stops, legs, lat, lon, edges);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        private String readString() throws IOException {
+            int length = (int) readVarint();
+            byte[] bytes = in.readNBytes(length);
+            if (bytes.length < length) {
+                throw new EOFException("Fichier de tournées tronqué");
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private long readVarint() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = in.read();
+                if (b < 0) {
+                    throw new EOFException("Fichier de tournées tronqué");
+                }
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Entier mal formé dans le fichier de tournées");
+        }
+    }
+
+    // Polyligne encodée (algorithme Google, précision 1e-5) : deltas zigzag en groupes de 5 bits, caractères ASCII 63..126
+    public static String encodePolyline(double[] latitudes, double[] longitudes) {
+        StringBuilder sb = new StringBuilder(latitudes.length * 8);
+        long prevLat = 0;
+        long prevLon = 0;
+        for (int i = 0; i < latitudes.length; i++) {
+            long lat = Math.round(latitudes[i] * POLYLINE_SCALE);
+            long lon = Math.round(longitudes[i] * POLYLINE_SCALE);
+            encodeSigned(lat - prevLat, sb);
+            encodeSigned(lon - prevLon, sb);
+            prevLat = lat;
+            prevLon = lon;
+        }
+        return sb.toString();
+    }
+
+    // Décoder une polyligne : tableau {latitudes, longitudes}
+    public static double[][] decodePolyline(String encoded) {
+        double[] lat = new double[16];
+        double[] lon = new double[16];
+        int count = 0;
+        int[] pos = {0};
+        long la = 0;
+        long lo = 0;
+        while (pos[0] < encoded.length()) {
+            la += decodeSigned(encoded, pos);
+            lo += decodeSigned(encoded, pos);
+            if (count == lat.length) {
+                lat = Arrays.copyOf(lat, count * 2);
+                lon = Arrays.copyOf(lon, count * 2);
+            }
+            lat[count] = la / POLYLINE_SCALE;
+            lon[count] = lo / POLYLINE_SCALE;
+            count++;
+        }
+        return new double[][]{Arrays.copyOf(lat, count), Arrays.copyOf(lon, count)};
+    }
+
+    private static void encodeSigned(long value, StringBuilder sb) {
+        long v = value < 0 ? ~(value << 1) : value << 1;
+        while (v >= 0x20) {
+            sb.append((char) ((0x20 | (v & 0x1F)) + 63));
+            v >>= 5;
+        }
+        sb.append((char) (v + 63));
+    }
+
+    private static long decodeSigned(String encoded, int[] pos) {
+        long result = 0;
+        int shift = 0;
+        int b;
+        do {
+            if (pos[0] >= encoded.length()) {
+                throw new IllegalArgumentException("Polyligne tronquée");
+            }
+            b = encoded.charAt(pos[0]++) - 63;
+            result |= (long) (b & 0x1F) << shift;
+            shift += 5;
+        } while (b >= 0x20);
+        return (result & 1) != 0 ? ~(result >> 1) : result >> 1;
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+}
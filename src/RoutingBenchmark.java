@@ -0,0 +1,163 @@
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+// Banc d'essai de la numérotation des sommets de l'instantané compact : même graphe, mêmes sources,
+// quatre ordres (identifiant, aléatoire, Hilbert, Cuthill-McKee inverse), débit de Dijkstra et du parcours en largeur
+// Usage : java RoutingBenchmark [sommets.csv arêtes.csv] | java RoutingBenchmark --grille <côté>
+public class RoutingBenchmark {
+    private static final int SOURCES = 16; // Recherches complètes par mesure
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int MEASURED_ROUNDS = 3;
+    private static final long SEED = 42L;
+
+    public static void main(String[] args) throws IOException {
+        Graph graph;
+        if (args.length >= 2 && args[0].equals("--grille")) {
+            graph = grid(Integer.parseInt(args[1]));
+        } else if (args.length >= 2) {
+            graph = Graph.loadFromCsv(args[0], args[1]);
+        } else {
+            graph = Graph.loadFromCsv("data/nodes.csv", "data/edges.csv");
+        }
+        RoutingGraph hilbert = graph.getRoutingGraph();
+        int n = hilbert.size();
+        System.out.println("Graphe : " + n + " sommets, " + hilbert.getArcCount() + " arcs");
+
+        // Ordre par identifiant (numérotation d'avant) et ordre aléatoire (pire cas, proche d'un HashMap)
+        Integer[] byId = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            byId[i] = i;
+        }
+        Arrays.sort(byId, (a, b) -> Long.compare(hilbert.getNodeId(a), hilbert.getNodeId(b)));
+        int[] idOrder = new int[n];
+        int[] randomOrder = new int[n];
+        for (int i = 0; i < n; i++) {
+            idOrder[i] = byId[i];
+            randomOrder[i] = i;
+        }
+        Random rnd = new Random(SEED);
+        for (int i = n - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            int t = randomOrder[i];
+            randomOrder[i] = randomOrder[j];
+            randomOrder[j] = t;
+        }
+        RoutingGraph[] layouts = {hilbert.reorder(idOrder), hilbert.reorder(randomOrder), hilbert,
+                hilbert.reorder(hilbert.reverseCuthillMcKeeOrder())};
+        String[] names = {"Identifiant", "Aléatoire", "Hilbert", "Cuthill-McKee inv."};
+
+        long[] sources = new long[SOURCES]; // Mêmes sommets de départ pour tous les ordres
+        for (int i = 0; i < SOURCES; i++) {
+            sources[i] = hilbert.getNodeId(rnd.nextInt(n));
+        }
+        int[] warmup = new int[SOURCES];
+        for (int i = 0; i < SOURCES; i++) {
+            warmup[i] = hilbert.indexOf(sources[i]);
+        }
+        for (int r = 0; r < WARMUP_ROUNDS; r++) { // Compiler les boucles avant toute mesure
+            runDijkstra(hilbert, warmup);
+            runBfs(hilbert, warmup);
+        }
+        System.out.printf("%-20s %12s %14s %14s%n", "Ordre", "Écart moyen", "Dijkstra (ms)", "Largeur (ms)");
+        for (int k = 0; k < layouts.length; k++) {
+            RoutingGraph routing = layouts[k];
+            int[] dense = new int[SOURCES];
+            for (int i = 0; i < SOURCES; i++) {
+                dense[i] = routing.indexOf(sources[i]);
+            }
+            for (int r = 0; r < WARMUP_ROUNDS; r++) {
+                runDijkstra(routing, dense);
+                runBfs(routing, dense);
+            }
+            long dijkstra = 0;
+            long bfs = 0;
+            for (int r = 0; r < MEASURED_ROUNDS; r++) {
+                long t0 = System.nanoTime();
+                runDijkstra(routing, dense);
+                long t1 = System.nanoTime();
+                runBfs(routing, dense);
+                long t2 = System.nanoTime();
+                dijkstra += t1 - t0;
+                bfs += t2 - t1;
+            }
+            System.out.printf("%-20s %12.1f %14.1f %14.1f%n", names[k], routing.getMeanArcSpan(),
+                    dijkstra / 1e6 / MEASURED_ROUNDS, bfs / 1e6 / MEASURED_ROUNDS);
+        }
+    }
+
+    // Recherches un-vers-tous (aucune cible : tout le graphe est fixé)
+    private static double runDijkstra(RoutingGraph routing, int[] sources) {
+        int[] all = new int[routing.size()];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = i;
+        }
+        double checksum = 0.0;
+        for (int s : sources) {
+            double[] dist = Dijkstra.distancesFrom(routing, s, all);
+            checksum += dist[dist.length - 1];
+        }
+        return checksum;
+    }
+
+    // Parcours en largeur complets sur l'adjacence CSR
+    private static long runBfs(RoutingGraph routing, int[] sources) {
+        int n = routing.size();
+        int[] queue = new int[n];
+        boolean[] seen = new boolean[n];
+        long reached = 0;
+        for (int s : sources) {
+            Arrays.fill(seen, false);
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = s;
+            seen[s] = true;
+            while (head < tail) {
+                int u = queue[head++];
+                for (int a = routing.firstArc(u); a < routing.endArc(u); a++) {
+                    int v = routing.getArcTarget(a);
+                    if (!seen[v]) {
+                        seen[v] = true;
+                        queue[tail++] = v;
+                    }
+                }
+            }
+            reached += tail;
+        }
+        return reached;
+    }
+
+    // Quadrillage synthétique côté x côté (îlots de 100 m), identifiants mélangés comme ceux d'OSM
+    private static Graph grid(int side) {
+        Graph graph = new Graph();
+        long[] ids = new long[side * side];
+        Random rnd = new Random(SEED);
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i + 1L;
+        }
+        for (int i = ids.length - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            long t = ids[i];
+            ids[i] = ids[j];
+            ids[j] = t;
+        }
+        double step = 0.0009; // Environ 100 m
+        for (int r = 0; r < side; r++) {
+            for (int c = 0; c < side; c++) {
+                graph.addNode(ids[r * side + c], 48.89 + r * step, 2.28 + c * step, false);
+            }
+        }
+        for (int r = 0; r < side; r++) {
+            for (int c = 0; c < side; c++) {
+                long id = ids[r * side + c];
+                if (c + 1 < side) {
+                    graph.addUndirectedEdge(id, ids[r * side + c + 1], 100.0 + rnd.nextInt(20), "Rue " + r);
+                }
+                if (r + 1 < side) {
+                    graph.addUndirectedEdge(id, ids[(r + 1) * side + c], 100.0 + rnd.nextInt(20), "Avenue " + c);
+                }
+            }
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,267 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+// Représentation compacte (CSR) du graphe pour les recherches intensives
+// Chaque sommet reçoit un indice dense 0..n-1 ; les arcs sortants de v sont dans [offsets[v], offsets[v + 1])
+// Instantané en lecture seule : Graph le reconstruit après toute modification
+// Les indices suivent une courbe de Hilbert sur (lat, lon) : des sommets voisins dans la ville sont voisins en mémoire
+public class RoutingGraph {
+    private static final int HILBERT_ORDER = 16; // Grille 2^16 x 2^16 sur l'emprise du graphe
+    private final long[] nodeIds; // Indice dense -> identifiant du sommet
+    private final Map<Long, Integer> indexById; // Identifiant -> indice dense
+    private final int[] offsets; // Début des arcs de chaque sommet (taille n + 1)
+    private final int[] arcTarget; // Indice du sommet d'arrivée de chaque arc
+    private final double[] arcWeight; // Poids de chaque arc
+    private final int[] arcEdgeId; // Identifiant de l'arête (Edge) portée par l'arc
+
+    private RoutingGraph(long[] nodeIds, int[] offsets, int[] arcTarget, double[] arcWeight, int[] arcEdgeId) {
+        this.nodeIds = nodeIds;
+        this.offsets = offsets;
+        this.arcTarget = arcTarget;
+        this.arcWeight = arcWeight;
+        this.arcEdgeId = arcEdgeId;
+        this.indexById = new HashMap<>(nodeIds.length * 2);
+        for (int i = 0; i < nodeIds.length; i++) {
+            indexById.put(nodeIds[i], i);
+        }
+    }
+
+    // Construire l'instantané à partir du graphe (sommets rangés le long de la courbe de Hilbert)
+    public static RoutingGraph build(Graph graph) {
+        return build(hilbertSorted(graph, graph.getNodeIds()), graph::getEdges);
+    }
+
+    // Construire l'instantané d'une vue superposée (arêtes ajoutées comprises, arêtes fermées exclues)
+    public static RoutingGraph build(GraphOverlay overlay) {
+        return build(hilbertSorted(overlay.getBase(), overlay.getNodeIds()), overlay::getEdges);
+    }
+
+    private static RoutingGraph build(long[] ids, Function<Long, List<Edge>> edgesOf) {
+        int n = ids.length;
+        Map<Long, Integer> index = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            index.put(ids[i], i);
+        }
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] = offsets[i] + edgesOf.apply(ids[i]).size();
+        }
+        int arcs = offsets[n];
+        int[] target = new int[arcs];
+        double[] weight = new double[arcs];
+        int[] edgeId = new int[arcs];
+        for (int i = 0; i < n; i++) {
+            int a = offsets[i];
+            List<Edge> edges = edgesOf.apply(ids[i]);
+            for (Edge e : edges) {
+                Integer other = index.get(e.getOther(ids[i]));
+                target[a] = other == null ? i : other; // Une extrémité absente devient une boucle neutre
+                weight[a] = e.getWeight();
+                edgeId[a] = e.getId();
+                a++;
+            }
+        }
+        return new RoutingGraph(ids, offsets, target, weight, edgeId);
+    }
+
+    // Identifiants triés par position sur la courbe de Hilbert, puis par identifiant (ordre stable)
+    private static long[] hilbertSorted(Graph graph, Set<Long> nodeIds) {
+        long[] ids = new long[nodeIds.size()];
+        int n = 0;
+        for (long id : nodeIds) {
+            ids[n++] = id;
+        }
+        Arrays.sort(ids);
+        double minLat = Double.POSITIVE_INFINITY;
+        double maxLat = Double.NEGATIVE_INFINITY;
+        double minLon = Double.POSITIVE_INFINITY;
+        double maxLon = Double.NEGATIVE_INFINITY;
+        for (long id : ids) {
+            Node node = graph.getNode(id);
+            minLat = Math.min(minLat, node.getLatitude());
+            maxLat = Math.max(maxLat, node.getLatitude());
+            minLon = Math.min(minLon, node.getLongitude());
+            maxLon = Math.max(maxLon, node.getLongitude());
+        }
+        int side = 1 << HILBERT_ORDER;
+        double latScale = maxLat > minLat ? (side - 1) / (maxLat - minLat) : 0.0;
+        double lonScale = maxLon > minLon ? (side - 1) / (maxLon - minLon) : 0.0;
+        // Clé sur 32 bits en poids fort, rang dans le tri par identifiant sur 31 bits en poids faible
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            Node node = graph.getNode(ids[i]);
+            int x = (int) ((node.getLongitude() - minLon) * lonScale);
+            int y = (int) ((node.getLatitude() - minLat) * latScale);
+            keys[i] = hilbertIndex(x, y) << 31 | i;
+        }
+        Arrays.sort(keys);
+        long[] sorted = new long[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = ids[(int) (keys[i] & Integer.MAX_VALUE)];
+        }
+        return sorted;
+    }
+
+    // Position d'une case (x, y) sur la courbe de Hilbert de la grille 2^HILBERT_ORDER
+    static long hilbertIndex(int x, int y) {
+        long d = 0;
+        for (int s = 1 << (HILBERT_ORDER - 1); s > 0; s >>= 1) {
+            int rx = (x & s) > 0 ? 1 : 0;
+            int ry = (y & s) > 0 ? 1 : 0;
+            d += (long) s * s * ((3 * rx) ^ ry);
+            if (ry == 0) { // Pivoter le quadrant
+                if (rx == 1) {
+                    x = (1 << HILBERT_ORDER) - 1 - x;
+                    y = (1 << HILBERT_ORDER) - 1 - y;
+                }
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+        return d;
+    }
+
+    // Renuméroter les sommets : order[nouvel indice] = ancien indice ; les arcs de chaque sommet gardent leur ordre
+    public RoutingGraph reorder(int[] order) {
+        int n = nodeIds.length;
+        if (order.length != n) {
+            throw new IllegalArgumentException("Permutation de taille " + order.length + " pour " + n + " sommets");
+        }
+        int[] rank = new int[n]; // Ancien indice -> nouvel indice
+        Arrays.fill(rank, -1);
+        for (int i = 0; i < n; i++) {
+            if (rank[order[i]] >= 0) {
+                throw new IllegalArgumentException("Sommet répété dans la permutation : " + order[i]);
+            }
+            rank[order[i]] = i;
+        }
+        long[] ids = new long[n];
+        int[] newOffsets = new int[n + 1];
+        int[] target = new int[arcTarget.length];
+        double[] weight = new double[arcWeight.length];
+        int[] edgeId = new int[arcEdgeId.length];
+        for (int i = 0; i < n; i++) {
+            int old = order[i];
+            ids[i] = nodeIds[old];
+            int a = newOffsets[i];
+            for (int b = offsets[old]; b < offsets[old + 1]; b++, a++) {
+                target[a] = rank[arcTarget[b]];
+                weight[a] = arcWeight[b];
+                edgeId[a] = arcEdgeId[b];
+            }
+            newOffsets[i + 1] = a;
+        }
+        return new RoutingGraph(ids, newOffsets, target, weight, edgeId);
+    }
+
+    // Ordre de Cuthill-McKee inverse : parcours en largeur depuis un sommet de degré minimal,
+    // voisins pris par degré croissant, puis ordre retourné (réduit la largeur de bande de l'adjacence)
+    public int[] reverseCuthillMcKeeOrder() {
+        int n = nodeIds.length;
+        int[] order = new int[n];
+        boolean[] seen = new boolean[n];
+        Integer[] byDegree = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            byDegree[i] = i;
+        }
+        Arrays.sort(byDegree, (a, b) -> Integer.compare(degree(a), degree(b)));
+        int head = 0;
+        int tail = 0;
+        for (int start : byDegree) {
+            if (seen[start]) {
+                continue; // Composante déjà numérotée
+            }
+            seen[start] = true;
+            order[tail++] = start;
+            while (head < tail) {
+                int u = order[head++];
+                int from = tail;
+                for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                    int v = arcTarget[a];
+                    if (!seen[v]) {
+                        seen[v] = true;
+                        order[tail++] = v;
+                    }
+                }
+                sortByDegree(order, from, tail);
+            }
+        }
+        for (int i = 0, j = n - 1; i < j; i++, j--) {
+            int t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+        return order;
+    }
+
+    // Tri par insertion des voisins nouvellement numérotés (quelques éléments)
+    private void sortByDegree(int[] order, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            int v = order[i];
+            int j = i - 1;
+            while (j >= from && degree(order[j]) > degree(v)) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = v;
+        }
+    }
+
+    private int degree(int node) {
+        return offsets[node + 1] - offsets[node];
+    }
+
+    // Écart moyen |u - v| entre les indices des extrémités d'un arc (mesure de localité mémoire)
+    public double getMeanArcSpan() {
+        long total = 0;
+        for (int u = 0; u < nodeIds.length; u++) {
+            for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                total += Math.abs(arcTarget[a] - u);
+            }
+        }
+        return arcTarget.length == 0 ? 0.0 : (double) total / arcTarget.length;
+    }
+
+    public int size() {
+        return nodeIds.length;
+    }
+
+    public int getArcCount() {
+        return arcTarget.length;
+    }
+
+    public long getNodeId(int index) {
+        return nodeIds[index];
+    }
+
+    // Récupérer l'indice dense d'un sommet (-1 si absent)
+    public int indexOf(long nodeId) {
+        Integer idx = indexById.get(nodeId);
+        return idx == null ? -1 : idx;
+    }
+
+    public int firstArc(int node) {
+        return offsets[node];
+    }
+
+    public int endArc(int node) {
+        return offsets[node + 1];
+    }
+
+    public int getArcTarget(int arc) {
+        return arcTarget[arc];
+    }
+
+    public double getArcWeight(int arc) {
+        return arcWeight[arc];
+    }
+
+    public int getArcEdgeId(int arc) {
+        return arcEdgeId[arc];
+    }
+}
@@ -0,0 +1,299 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Postier rural par secteur : chaque secteur ne couvre que ses rues (arêtes requises), les trajets
+// haut-le-pied pouvant emprunter tout le graphe. Heuristique de Frederickson :
+// 1) relier les composantes des arêtes requises par un arbre couvrant de plus courts chemins
+// 2) équilibrer les degrés par un couplage parfait de poids minimal des sommets impairs
+// 3) construire le circuit eulérien (Hierholzer) ; les secteurs sont résolus en parallèle
+public class RuralPostmanSolver {
+    private final Graph graph;
+
+    public RuralPostmanSolver(Graph graph) {
+        this.graph = graph;
+    }
+
+    // Résoudre tous les secteurs sur un pool de threads ; threads <= 0 : un thread par cœur disponible
+    // Une arête appartient au secteur de son sommet de départ : chaque rue est couverte par un seul secteur
+    public List<SectorCircuit> solveSectors(List<Sector> sectors, int threads) {
+        int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        workers = Math.max(1, Math.min(workers, Math.max(1, sectors.size())));
+        graph.getRoutingGraph(); // Construire les caches paresseux avant de lancer les threads
+        graph.getEdge(0);
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        List<Future<SectorCircuit>> futures = new ArrayList<>();
+        try {
+            for (Sector sector : sectors) {
+                futures.add(pool.submit(() -> solveSector(sector)));
+            }
+            List<SectorCircuit> result = new ArrayList<>();
+            for (Future<SectorCircuit> future : futures) {
+                result.add(future.get());
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ArrayList<>();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Échec du postier rural sur un secteur", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Résoudre un secteur : circuit couvrant toutes ses arêtes requises
+    public SectorCircuit solveSector(Sector sector) {
+        RoutingGraph routing = graph.getRoutingGraph();
+        BitSet required = new BitSet(); // Arêtes requises du secteur
+        List<Edge> working = new ArrayList<>(); // Graphe de travail du secteur : rues requises puis trajets ajoutés
+        double requiredDistance = 0.0;
+        for (long id : sector.getNodeIds()) {
+            for (Edge e : graph.getEdges(id)) {
+                if (e.getFrom() == id && !required.get(e.getId())) {
+                    required.set(e.getId());
+                    working.add(e);
+                    requiredDistance += e.getWeight();
+                }
+            }
+        }
+        if (required.isEmpty()) {
+            return new SectorCircuit(sector.getId(), true, new ArrayList<>(), 0.0, 0.0);
+        }
+        int requiredCount = working.size();
+
+        // Composantes connexes des arêtes requises (union-find sur les indices denses)
+        int n = routing.size();
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+        }
+        BitSet touched = new BitSet(n); // Sommets portant une arête requise
+        for (long id : sector.getNodeIds()) {
+            for (Edge e : graph.getEdges(id)) {
+                if (required.get(e.getId())) {
+                    int a = routing.indexOf(e.getFrom());
+                    int b = routing.indexOf(e.getTo());
+                    touched.set(a);
+                    touched.set(b);
+                    parent[find(parent, a)] = find(parent, b);
+                }
+            }
+        }
+        List<BitSet> components = new ArrayList<>();
+        int[] componentOf = new int[n];
+        Arrays.fill(componentOf, -1);
+        for (int v = touched.nextSetBit(0); v >= 0; v = touched.nextSetBit(v + 1)) {
+            int root = find(parent, v);
+            if (componentOf[root] == -1) {
+                componentOf[root] = components.size();
+                components.add(new BitSet(n));
+            }
+            componentOf[v] = componentOf[root];
+            components.get(componentOf[v]).set(v);
+        }
+
+        // Relier les composantes (Prim sur les distances inter-composantes), un chemin haut-le-pied par arête de l'arbre
+        double deadhead = 0.0;
+        if (components.size() > 1) {
+            Double connected = connectComponents(routing, components, componentOf, working, requiredCount);
+            if (connected == null) {
+                return new SectorCircuit(sector.getId(), false, new ArrayList<>(), requiredDistance, Double.POSITIVE_INFINITY);
+            }
+            deadhead += connected;
+        }
+
+        // Équilibrer les degrés par couplage des sommets impairs (distances sur tout le graphe)
+        Map<Long, Integer> degree = new HashMap<>(); // Degrés dans le graphe de travail
+        for (Edge e : working) {
+            degree.merge(e.getFrom(), 1, Integer::sum);
+            degree.merge(e.getTo(), 1, Integer::sum);
+        }
+        List<Long> odd = new ArrayList<>();
+        for (int v = touched.nextSetBit(0); v >= 0; v = touched.nextSetBit(v + 1)) {
+            if (degree.getOrDefault(routing.getNodeId(v), 0) % 2 != 0) {
+                odd.add(routing.getNodeId(v));
+            }
+        }
+        if (!odd.isEmpty()) {
+            List<long[]> pairs = OddVertexMatching.match(graph, odd, 24, 1); // Un seul thread : les secteurs sont déjà parallèles
+            if (pairs == null) {
+                return new SectorCircuit(sector.getId(), false, new ArrayList<>(), requiredDistance, Double.POSITIVE_INFINITY);
+            }
+            for (long[] pair : pairs) {
+                Dijkstra.PathResult path = Dijkstra.shortestPath(routing, routing.indexOf(pair[0]), routing.indexOf(pair[1]));
+                deadhead += addDeadheadPath(working, requiredCount, path);
+            }
+        }
+
+        // Partir du premier sommet du secteur portant une rue
+        long start = routing.getNodeId(touched.nextSetBit(0));
+        for (long id : sector.getNodeIds()) {
+            if (touched.get(routing.indexOf(id))) {
+                start = id;
+                break;
+            }
+        }
+        List<Long> trail = new ArrayList<>();
+        double distance = EulerianSolver.runHierholzer(working, start, (from, to, edge) -> {
+            if (trail.isEmpty()) {
+                trail.add(from);
+            }
+            trail.add(to);
+        });
+        boolean feasible = !Double.isInfinite(distance);
+        return new SectorCircuit(sector.getId(), feasible, trail, requiredDistance, feasible ? deadhead : Double.POSITIVE_INFINITY);
+    }
+
+    // Relier les composantes par un arbre couvrant : recherche multi-sources depuis chaque composante, puis Prim
+    // Retourner la longueur haut-le-pied ajoutée, ou null si des composantes sont mutuellement inatteignables
+    private Double connectComponents(RoutingGraph routing, List<BitSet> components, int[] componentOf, List<Edge> working,
+                                     int requiredCount) {
+        int c = components.size();
+        double[][] dist = new double[c][c];
+        int[][] entry = new int[c][c]; // entry[i][j] = sommet de j atteint en premier depuis i
+        for (int i = 0; i < c; i++) {
+            nearestComponents(routing, components.get(i), componentOf, c, dist[i], entry[i]);
+        }
+        boolean[] inTree = new boolean[c];
+        double[] key = new double[c];
+        int[] link = new int[c];
+        Arrays.fill(key, Double.POSITIVE_INFINITY);
+        key[0] = 0.0;
+        link[0] = -1;
+        double added = 0.0;
+        for (int step = 0; step < c; step++) {
+            int u = -1;
+            for (int v = 0; v < c; v++) {
+                if (!inTree[v] && (u == -1 || key[v] < key[u])) {
+                    u = v;
+                }
+            }
+            if (Double.isInfinite(key[u])) {
+                return null;
+            }
+            inTree[u] = true;
+            if (link[u] != -1) {
+                // Chemin du point d'entrée de u vers la composante de rattachement la plus proche
+                Dijkstra.PathResult path = Dijkstra.nearestMarked(routing, entry[link[u]][u], components.get(link[u]));
+                added += addDeadheadPath(working, requiredCount, path);
+            }
+            for (int v = 0; v < c; v++) {
+                if (!inTree[v] && dist[u][v] < key[v]) {
+                    key[v] = dist[u][v];
+                    link[v] = u;
+                }
+            }
+        }
+        return added;
+    }
+
+    // Recherche multi-sources depuis une composante : distance et premier sommet atteint de chaque autre composante
+    private void nearestComponents(RoutingGraph routing, BitSet sources, int[] componentOf, int c, double[] out, int[] entry) {
+        int n = routing.size();
+        double[] dist = new double[n];
+        boolean[] settled = new boolean[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(out, Double.POSITIVE_INFINITY);
+        MinHeap heap = new MinHeap(64);
+        for (int s = sources.nextSetBit(0); s >= 0; s = sources.nextSetBit(s + 1)) {
+            dist[s] = 0.0;
+            heap.push(0.0, s);
+        }
+        int remaining = c - 1;
+        while (!heap.isEmpty() && remaining > 0) {
+            double d = heap.peekKey();
+            int u = heap.pop();
+            if (settled[u] || d > dist[u]) {
+                continue;
+            }
+            settled[u] = true;
+            int comp = componentOf[u];
+            if (comp >= 0 && !sources.get(u) && Double.isInfinite(out[comp])) {
+                out[comp] = d; // Première fois que cette composante est atteinte
+                entry[comp] = u;
+                remaining--;
+            }
+            for (int a = routing.firstArc(u); a < routing.endArc(u); a++) {
+                int v = routing.getArcTarget(a);
+                double nd = d + routing.getArcWeight(a);
+                if (!settled[v] && nd < dist[v]) {
+                    dist[v] = nd;
+                    heap.push(nd, v);
+                }
+            }
+        }
+    }
+
+    // Doubler les rues d'un plus court chemin dans le graphe de travail (identifiants au-delà de ceux du graphe)
+    // et retourner la longueur ajoutée
+    private double addDeadheadPath(List<Edge> working, int requiredCount, Dijkstra.PathResult path) {
+        double length = 0.0;
+        for (int edgeId : path.getEdgeIds()) {
+            Edge street = graph.getEdge(edgeId);
+            if (street == null) {
+                throw new IllegalStateException("Arête inconnue sur un trajet haut-le-pied : " + edgeId);
+            }
+            int id = graph.getEdgeIdBound() + working.size() - requiredCount;
+            working.add(new Edge(id, street.getFrom(), street.getTo(), street.getWeight(), street.getNameId(), street.getId()));
+            length += street.getWeight();
+        }
+        return length;
+    }
+
+    private static int find(int[] parent, int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    // Circuit d'un secteur : rues à couvrir et trajets haut-le-pied ajoutés
+    public static class SectorCircuit {
+        private final String sectorId;
+        private final boolean feasible;
+        private final List<Long> trail;
+        private final double requiredDistance;
+        private final double deadheadDistance;
+
+        public SectorCircuit(String sectorId, boolean feasible, List<Long> trail, double requiredDistance, double deadheadDistance) {
+            this.sectorId = sectorId;
+            this.feasible = feasible;
+            this.trail = trail;
+            this.requiredDistance = requiredDistance;
+            this.deadheadDistance = deadheadDistance;
+        }
+
+        public String getSectorId() {
+            return sectorId;
+        }
+
+        public boolean isFeasible() {
+            return feasible;
+        }
+
+        public List<Long> getTrail() {
+            return trail;
+        }
+
+        public double getRequiredDistance() {
+            return requiredDistance;
+        }
+
+        public double getDeadheadDistance() {
+            return deadheadDistance;
+        }
+
+        public double getDistance() {
+            return requiredDistance + deadheadDistance;
+        }
+    }
+}
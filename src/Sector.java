@@ -16,6 +16,11 @@ public class Sector {
         this.gridY = gridY;
     }
 
+    // Secteur hors grille (partitionnement du réseau) : coordonnées de grille à -1
+    public Sector(String id) {
+        this(id, -1, -1);
+    }
+
     public String getId() {
         return id;
     }
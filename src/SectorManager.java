@@ -5,6 +5,8 @@ import java.util.Map;
 import java.util.Optional;
 
 public class SectorManager {
+    private static final long PARTITION_SEED = 42L; // Graine du partitionnement (résultat reproductible)
+    private static final int QUADTREE_MAX_DEPTH = 16; // Profondeur maximale du quadtree
     private final Graph graph; // Graphe à découper en secteurs
     private final int gridSize; // Taille de la grille (nombre de secteurs par dimension)
     private final Map<String, Sector> sectors = new HashMap<>(); // Map des secteurs par ID
@@ -61,6 +63,228 @@ public class SectorManager {
         return new ArrayList<>(sectors.values()); // Retourner la liste des secteurs
     }
 
+    // Construire « parts » secteurs équilibrés en longueur de rues par partitionnement multiniveau du réseau
+    public List<Sector> buildPartitionedSectors(int parts) {
+        return buildPartitionedSectors(parts, null);
+    }
+
+    // Construire « parts » secteurs équilibrés selon le poids des sommets (ex. nombre de bacs par sommet)
+    // Sans poids fournis, chaque sommet pèse la moitié de la longueur de ses rues : les secteurs ont des longueurs voisines
+    // Deux secteurs sont voisins si une rue les relie ; la coupe (nombre de rues partagées) est minimisée
+    public List<Sector> buildPartitionedSectors(int parts, Map<Long, Double> nodeWeights) {
+        sectors.clear();
+        RoutingGraph routing = graph.getRoutingGraph();
+        int n = routing.size();
+        if (n == 0) {
+            return new ArrayList<>();
+        }
+        // Adjacence CSR sans boucles, une unité de poids par rue
+        int[] xadj = new int[n + 1];
+        int[] adj = new int[routing.getArcCount()];
+        int[] edgeWeight = new int[routing.getArcCount()];
+        double[] vertexWeight = new double[n];
+        int m = 0;
+        for (int v = 0; v < n; v++) {
+            for (int a = routing.firstArc(v); a < routing.endArc(v); a++) {
+                int u = routing.getArcTarget(a);
+                if (nodeWeights == null) {
+                    vertexWeight[v] += routing.getArcWeight(a) / 2.0;
+                }
+                if (u != v) {
+                    adj[m] = u;
+                    edgeWeight[m] = 1;
+                    m++;
+                }
+            }
+            xadj[v + 1] = m;
+            if (nodeWeights != null) {
+                vertexWeight[v] = nodeWeights.getOrDefault(routing.getNodeId(v), 0.0);
+            }
+        }
+        int[] part = new GraphPartitioner(PARTITION_SEED).partition(n, xadj, adj, edgeWeight, vertexWeight, Math.max(1, parts));
+
+        List<Sector> result = new ArrayList<>();
+        for (int p = 0; p < Math.max(1, parts); p++) {
+            String id = "Secteur_" + p;
+            Sector s = new Sector(id);
+            sectors.put(id, s);
+            result.add(s);
+        }
+        for (int v = 0; v < n; v++) {
+            result.get(part[v]).addNode(routing.getNodeId(v)); // Ajouter le noeud au secteur
+        }
+        // Deux secteurs sont voisins dès qu'une rue les relie
+        for (int v = 0; v < n; v++) {
+            for (int a = xadj[v]; a < xadj[v + 1]; a++) {
+                if (part[v] != part[adj[a]]) {
+                    result.get(part[v]).addNeighbor(result.get(part[adj[a]]).getId());
+                }
+            }
+        }
+        result.removeIf(s -> s.getNodeIds().isEmpty());
+        return result;
+    }
+
+    // Mesure de charge d'une cellule du quadtree
+    public enum Workload {
+        NODE_COUNT, // Nombre de sommets
+        STREET_LENGTH // Longueur de rues (mètres)
+    }
+
+    // Construire des secteurs par quadtree adaptatif : une cellule est découpée en quatre tant que sa charge dépasse maxWorkload
+    public List<Sector> buildQuadtreeSectors(Workload workload, double maxWorkload) {
+        return buildQuadtreeSectors(nodeWeights(workload), maxWorkload);
+    }
+
+    // Charge de chaque sommet selon la mesure choisie
+    public Map<Long, Double> nodeWeights(Workload workload) {
+        Map<Long, Double> weights = new HashMap<>();
+        for (long id : graph.getNodeIds()) {
+            double w = 1.0;
+            if (workload == Workload.STREET_LENGTH) {
+                w = 0.0;
+                for (Edge e : graph.getEdges(id)) {
+                    w += e.getWeight() / 2.0; // Chaque rue est partagée entre ses deux extrémités
+                }
+            }
+            weights.put(id, w);
+        }
+        return weights;
+    }
+
+    // Charge de chaque secteur : somme des poids de ses sommets (sommets absents de la map : poids nul)
+    public static Map<String, Double> sectorLoads(List<Sector> sectors, Map<Long, Double> nodeWeights) {
+        Map<String, Double> loads = new HashMap<>();
+        for (Sector sector : sectors) {
+            double load = 0.0;
+            for (long id : sector.getNodeIds()) {
+                load += nodeWeights.getOrDefault(id, 0.0);
+            }
+            loads.put(sector.getId(), load);
+        }
+        return loads;
+    }
+
+    // Construire des secteurs par quadtree adaptatif selon un poids par sommet (ex. volume de collecte)
+    // Les cellules vides sont écartées ; deux secteurs sont voisins s'ils partagent un bord de cellule
+    public List<Sector> buildQuadtreeSectors(Map<Long, Double> nodeWeights, double maxWorkload) {
+        sectors.clear();
+        if (graph.getNodeIds().isEmpty()) {
+            return new ArrayList<>();
+        }
+        Bounds bounds = computeBounds();
+        List<Long> ids = new ArrayList<>(graph.getNodeIds());
+        Quad root = new Quad(bounds.minLat, bounds.maxLat, bounds.minLon, bounds.maxLon, 0, 0, 0);
+        List<Sector> result = new ArrayList<>();
+        split(root, ids, nodeWeights, maxWorkload, result);
+        linkQuads(root);
+        return result;
+    }
+
+    // Somme des volumes de collecte par sommet le plus proche (charge du quadtree en volume)
+    public static Map<Long, Double> volumeByNode(List<CollectionPoint> points) {
+        Map<Long, Double> volumes = new HashMap<>();
+        for (CollectionPoint cp : points) {
+            volumes.merge(cp.getNearestNodeId(), (double) cp.getVolume(), Double::sum);
+        }
+        return volumes;
+    }
+
+    // Découper récursivement une cellule ; une feuille non vide devient un secteur
+    private void split(Quad quad, List<Long> ids, Map<Long, Double> nodeWeights, double maxWorkload, List<Sector> result) {
+        double load = 0.0;
+        for (long id : ids) {
+            load += nodeWeights.getOrDefault(id, 0.0);
+        }
+        if (load <= maxWorkload || ids.size() <= 1 || quad.depth >= QUADTREE_MAX_DEPTH) {
+            if (!ids.isEmpty()) {
+                int shift = QUADTREE_MAX_DEPTH - quad.depth; // Coordonnées exprimées à la résolution la plus fine
+                String id = "Secteur_Q" + quad.depth + "_" + quad.x + "_" + quad.y;
+                Sector s = new Sector(id, quad.x << shift, quad.y << shift);
+                for (long nodeId : ids) {
+                    s.addNode(nodeId);
+                }
+                quad.sector = s;
+                sectors.put(id, s);
+                result.add(s);
+            }
+            return;
+        }
+        double midLat = (quad.minLat + quad.maxLat) / 2.0;
+        double midLon = (quad.minLon + quad.maxLon) / 2.0;
+        List<List<Long>> parts = new ArrayList<>();
+        for (int c = 0; c < 4; c++) {
+            parts.add(new ArrayList<>());
+        }
+        for (long id : ids) {
+            Node n = graph.getNode(id);
+            int c = (n.getLatitude() >= midLat ? 2 : 0) + (n.getLongitude() >= midLon ? 1 : 0);
+            parts.get(c).add(id);
+        }
+        quad.children = new Quad[4];
+        for (int c = 0; c < 4; c++) {
+            boolean north = c >= 2;
+            boolean east = (c & 1) == 1;
+            quad.children[c] = new Quad(north ? midLat : quad.minLat, north ? quad.maxLat : midLat,
+                    east ? midLon : quad.minLon, east ? quad.maxLon : midLon,
+                    quad.depth + 1, 2 * quad.x + (east ? 1 : 0), 2 * quad.y + (north ? 1 : 0));
+            split(quad.children[c], parts.get(c), nodeWeights, maxWorkload, result);
+        }
+    }
+
+    // Relier les feuilles voisines en descendant simultanément le long des bords partagés : O(nombre de cellules)
+    private void linkQuads(Quad quad) {
+        if (quad.children == null) {
+            return;
+        }
+        for (Quad child : quad.children) {
+            linkQuads(child);
+        }
+        linkEastWest(quad.children[Quad.SW], quad.children[Quad.SE]);
+        linkEastWest(quad.children[Quad.NW], quad.children[Quad.NE]);
+        linkSouthNorth(quad.children[Quad.SW], quad.children[Quad.NW]);
+        linkSouthNorth(quad.children[Quad.SE], quad.children[Quad.NE]);
+    }
+
+    // Relier les feuilles de « west » qui touchent le bord est aux feuilles de « east » qui touchent le bord ouest
+    private void linkEastWest(Quad west, Quad east) {
+        if (west.children == null && east.children == null) {
+            linkSectors(west.sector, east.sector);
+        } else if (west.children == null) {
+            linkEastWest(west, east.children[Quad.SW]);
+            linkEastWest(west, east.children[Quad.NW]);
+        } else if (east.children == null) {
+            linkEastWest(west.children[Quad.SE], east);
+            linkEastWest(west.children[Quad.NE], east);
+        } else {
+            linkEastWest(west.children[Quad.SE], east.children[Quad.SW]);
+            linkEastWest(west.children[Quad.NE], east.children[Quad.NW]);
+        }
+    }
+
+    // Relier les feuilles de « south » qui touchent le bord nord aux feuilles de « north » qui touchent le bord sud
+    private void linkSouthNorth(Quad south, Quad north) {
+        if (south.children == null && north.children == null) {
+            linkSectors(south.sector, north.sector);
+        } else if (south.children == null) {
+            linkSouthNorth(south, north.children[Quad.SW]);
+            linkSouthNorth(south, north.children[Quad.SE]);
+        } else if (north.children == null) {
+            linkSouthNorth(south.children[Quad.NW], north);
+            linkSouthNorth(south.children[Quad.NE], north);
+        } else {
+            linkSouthNorth(south.children[Quad.NW], north.children[Quad.SW]);
+            linkSouthNorth(south.children[Quad.NE], north.children[Quad.SE]);
+        }
+    }
+
+    private void linkSectors(Sector a, Sector b) {
+        if (a != null && b != null) { // Les cellules vides ne sont pas des secteurs
+            a.addNeighbor(b.getId());
+            b.addNeighbor(a.getId());
+        }
+    }
+
     // Lier un secteur à un voisin si le voisin existe
     private void linkIfPresent(Sector s, int gx, int gy) {
         String neighborId = sectorId(gx, gy);
@@ -91,6 +315,33 @@ public class SectorManager {
         return "Secteur_" + gx + "_" + gy;
     }
 
+    // Cellule du quadtree (enfants : 0 = sud-ouest, 1 = sud-est, 2 = nord-ouest, 3 = nord-est)
+    private static class Quad {
+        static final int SW = 0;
+        static final int SE = 1;
+        static final int NW = 2;
+        static final int NE = 3;
+        final double minLat;
+        final double maxLat;
+        final double minLon;
+        final double maxLon;
+        final int depth;
+        final int x; // Colonne de la cellule à sa profondeur
+        final int y; // Ligne de la cellule à sa profondeur
+        Quad[] children; // null pour une feuille
+        Sector sector; // Secteur de la feuille (null si vide)
+
+        Quad(double minLat, double maxLat, double minLon, double maxLon, int depth, int x, int y) {
+            this.minLat = minLat;
+            this.maxLat = maxLat;
+            this.minLon = minLon;
+            this.maxLon = maxLon;
+            this.depth = depth;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
     private static class Bounds {
         final double minLat;
         final double maxLat;
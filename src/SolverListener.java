@@ -0,0 +1,52 @@
+import java.util.List;
+
+// Recevoir les événements d'une recherche « anytime » (nouvelle meilleure tournée, statistiques)
+public interface SolverListener {
+    // Écouteur qui ignore tous les événements
+    SolverListener NONE = new SolverListener() {
+    };
+
+    // Signaler une nouvelle meilleure tournée (ordre complet dépôt -> ... -> dépôt)
+    default void onImprovement(String method, double distance, List<Long> order) {
+    }
+
+    // Signaler l'avancement de la recherche
+    default void onStatistics(SearchStatistics stats) {
+    }
+
+    class SearchStatistics {
+        private final long iterations; // Nombre de mouvements / nœuds explorés
+        private final int improvements; // Nombre d'améliorations de la meilleure tournée
+        private final double bestDistance; // Distance de la meilleure tournée connue
+        private final long elapsedMillis; // Temps écoulé depuis le début de la recherche
+        private final boolean interrupted; // Indiquer si la recherche a été coupée par le budget
+
+        public SearchStatistics(long iterations, int improvements, double bestDistance, long elapsedMillis, boolean interrupted) {
+            this.iterations = iterations;
+            this.improvements = improvements;
+            this.bestDistance = bestDistance;
+            this.elapsedMillis = elapsedMillis;
+            this.interrupted = interrupted;
+        }
+
+        public long getIterations() {
+            return iterations;
+        }
+
+        public int getImprovements() {
+            return improvements;
+        }
+
+        public double getBestDistance() {
+            return bestDistance;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public boolean isInterrupted() {
+            return interrupted;
+        }
+    }
+}
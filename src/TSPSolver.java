@@ -1,4 +1,5 @@
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -18,12 +19,19 @@ public class TSPSolver {
         private final double distance; // Distance totale du tour
         private final boolean feasible; // Indique si le tour est réalisable
         private final List<List<Long>> legs; // Chemins détaillés entre les étapes
+        private final List<Dijkstra.PathResult> legPaths; // Mêmes trajets avec leurs arêtes (vide si inconnus)
 
         public TSPSolution(List<Long> order, double distance, boolean feasible, List<List<Long>> legs) {
+            this(order, distance, feasible, legs, new ArrayList<>());
+        }
+
+        public TSPSolution(List<Long> order, double distance, boolean feasible, List<List<Long>> legs,
+                           List<Dijkstra.PathResult> legPaths) {
             this.order = order;
             this.distance = distance;
             this.feasible = feasible;
             this.legs = legs;
+            this.legPaths = legPaths;
         }
 
         public List<Long> getOrder() {
@@ -41,10 +49,21 @@ public class TSPSolver {
         public List<List<Long>> getLegs() {
             return legs;
         }
+
+        public List<Dijkstra.PathResult> getLegPaths() {
+            return legPaths;
+        }
     }
 
     // Résoudre le TSP à partir d'un sommet de départ et une liste de cibles
     public TSPSolution solve(long startId, List<Long> targets) {
+        return solve(startId, targets, CancellationToken.none(), SolverListener.NONE);
+    }
+
+    // Résoudre le TSP en mode « anytime » : une tournée est disponible dès la construction,
+    // puis améliorée (force brute ou recherche locale) tant que le jeton n'est pas annulé
+    public TSPSolution solve(long startId, List<Long> targets, CancellationToken token, SolverListener listener) {
+        long startNanos = System.nanoTime();
         // Choix brute force si peu de cibles sinon heuristique plus proche voisin
         if (targets.isEmpty()) {
             List<Long> trivial = new ArrayList<>();
@@ -62,25 +81,75 @@ public class TSPSolver {
         allNodes.addAll(uniqueTargets);
 
         // Calculer tous les plus courts chemins entre chaque paire
-        Map<String, Dijkstra.PathResult> pairwise = computeAllPairs(allNodes);
+        Map<String, Dijkstra.PathResult> pairwise = computeAllPairs(allNodes, token);
         if (pairwise == null) {
+            // Graphe non connexe ou budget épuisé avant la première tournée
             return new TSPSolution(new ArrayList<>(), Double.POSITIVE_INFINITY, false, new ArrayList<>());
         }
 
-        // Choix de la méthode : brute force si peu de cibles, sinon heuristique
+        // Construire immédiatement une première tournée (plus proche voisin)
+        TSPSolution incumbent = nearestNeighbor(startId, uniqueTargets, pairwise);
+        if (!incumbent.isFeasible()) {
+            return incumbent;
+        }
+        listener.onImprovement("Plus proche voisin", incumbent.getDistance(), incumbent.getOrder());
+
+        // Choix de la méthode : brute force si peu de cibles, sinon recherche locale
+        TSPSolution best;
+        long iterations;
         if (uniqueTargets.size() <= BRUTE_FORCE_THRESHOLD) {
-            return bruteForce(startId, uniqueTargets, pairwise);
+            exploredNodes = 0;
+            best = bruteForce(startId, uniqueTargets, pairwise, incumbent, token);
+            iterations = exploredNodes;
+            if (best != incumbent) {
+                listener.onImprovement("Force brute", best.getDistance(), best.getOrder());
+            }
         } else {
-            return nearestNeighbor(startId, uniqueTargets, pairwise);
+            TourImprover improver = new TourImprover(toMatrix(allNodes, pairwise), token);
+            int[] tour = new int[allNodes.size()];
+            for (int k = 1; k < incumbent.getOrder().size() - 1; k++) {
+                tour[k] = allNodes.indexOf(incumbent.getOrder().get(k)); // Convertir l'ordre en indices
+            }
+            best = incumbent;
+            if (improver.improve(tour)) {
+                List<Long> improvedOrder = new ArrayList<>();
+                for (int k = 1; k < tour.length; k++) {
+                    improvedOrder.add(allNodes.get(tour[k]));
+                }
+                best = buildSolution(startId, improvedOrder, pairwise);
+                listener.onImprovement("2-opt / Or-opt", best.getDistance(), best.getOrder());
+            }
+            iterations = improver.getIterations();
         }
+        int improvements = best == incumbent ? 0 : 1;
+        listener.onStatistics(new SolverListener.SearchStatistics(iterations, improvements, best.getDistance(),
+                (System.nanoTime() - startNanos) / 1_000_000L, token.isCancelled()));
+        return best;
+    }
+
+    // Convertir les distances par paires en matrice indexée comme allNodes
+    private double[][] toMatrix(List<Long> allNodes, Map<String, Dijkstra.PathResult> pairwise) {
+        int n = allNodes.size();
+        double[][] d = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                d[i][j] = pairwise.get(key(allNodes.get(i), allNodes.get(j))).getDistance();
+                d[j][i] = d[i][j];
+            }
+        }
+        return d;
     }
 
     // Calculer tous les plus courts chemins entre paires de sommets
-    private Map<String, Dijkstra.PathResult> computeAllPairs(List<Long> nodes) {
+    // Retourner null si une paire est inatteignable ou si le jeton est annulé
+    private Map<String, Dijkstra.PathResult> computeAllPairs(List<Long> nodes, CancellationToken token) {
         // Mémorisation des plus courts chemins pour éviter de recalculer
         Map<String, Dijkstra.PathResult> map = new HashMap<>();
         int n = nodes.size();
         for (int i = 0; i < n; i++) {
+            if (token.isCancelled()) {
+                return null; // Arrêter si le budget est épuisé
+            }
             for (int j = i + 1; j < n; j++) {
                 long a = nodes.get(i);
                 long b = nodes.get(j);
@@ -94,20 +163,27 @@ public class TSPSolver {
         return map;
     }
 
-    // Résolution brute force du TSP
-    private TSPSolution bruteForce(long startId, List<Long> targets, Map<String, Dijkstra.PathResult> pairwise) {
+    // Résolution brute force du TSP, bornée par la tournée initiale
+    // Retourner la tournée initiale si aucune permutation strictement meilleure n'est trouvée avant l'annulation
+    private TSPSolution bruteForce(long startId, List<Long> targets, Map<String, Dijkstra.PathResult> pairwise,
+                                   TSPSolution incumbent, CancellationToken token) {
         boolean[] used = new boolean[targets.size()];
         bestOrderBuffer = null; // Buffer pour stocker la meilleure permutation
-        bruteForceRec(startId, targets, pairwise, used, new ArrayList<>(), Double.POSITIVE_INFINITY);
+        searchToken = token;
+        bruteForceRec(startId, targets, pairwise, used, new ArrayList<>(), incumbent.getDistance());
         List<Long> bestOrder = bestOrderBuffer;
         if (bestOrder == null) {
-            return new TSPSolution(new ArrayList<>(), Double.POSITIVE_INFINITY, false, new ArrayList<>());
+            return incumbent;
         }
         return buildSolution(startId, bestOrder, pairwise);
     }
 
     // Buffer pour mémoriser la meilleure permutation
     private List<Long> bestOrderBuffer = null;
+    // Jeton consulté pendant l'exploration brute force
+    private CancellationToken searchToken = CancellationToken.none();
+    // Nombre de nœuds explorés par la force brute (statistiques)
+    private long exploredNodes = 0;
 
     // Fonction récursive pour l'exploration brute force
     private double bruteForceRec(long startId,
@@ -116,6 +192,10 @@ public class TSPSolver {
                                  boolean[] used,
                                  List<Long> current,
                                  double bestDistance) {
+        exploredNodes++;
+        if (searchToken.isCancelled()) {
+            return bestDistance; // Remonter avec la meilleure solution connue
+        }
         // Vérifier si l'on a placé autant de sommets que nécessaire (solution complète)
         // Dans ce cas, calculer la distance totale de la tournée construite
         if (current.size() == targets.size()) {
@@ -157,6 +237,7 @@ public class TSPSolver {
         long current = startId; // Point de départ actuel
         double total = 0.0; // Distance totale accumulée de la tournée
         List<List<Long>> legs = new ArrayList<>(); // Liste contenant les segments de parcours (pour reconstruire visuellement la route)
+        List<Dijkstra.PathResult> legPaths = new ArrayList<>();
 
         while (!remaining.isEmpty()) { // Boucler tant qu'il reste des sommets à visiter
             double best = Double.POSITIVE_INFINITY;
@@ -172,22 +253,26 @@ public class TSPSolver {
                 return new TSPSolution(new ArrayList<>(), Double.POSITIVE_INFINITY, false, new ArrayList<>());
             }
             order.add(bestNode); // Ajouter ce sommet dans la tournée
-            legs.add(pairwise.get(key(current, bestNode)).getPath()); // Ajouter le chemin détaillé (liste de sommets) pour les legs
+            Dijkstra.PathResult leg = orientedLeg(pairwise, current, bestNode);
+            legs.add(leg.getPath()); // Ajouter le chemin détaillé (liste de sommets) pour les legs
+            legPaths.add(leg);
             total += best; // Ajouter la distance
             current = bestNode; // Déplacer le curseur courant
             remaining.remove(bestNode); // Retirer ce sommet de l’ensemble des sommets restants
         }
 
         // Fermer la boucle en revenant au départ
-        total += pairwise.get(key(current, startId)).getDistance();
-        legs.add(pairwise.get(key(current, startId)).getPath());
+        Dijkstra.PathResult back = orientedLeg(pairwise, current, startId);
+        total += back.getDistance();
+        legs.add(back.getPath());
+        legPaths.add(back);
 
         // Construire l’ordre final avec startId au début et à la fin
         List<Long> finalOrder = new ArrayList<>();
         finalOrder.add(startId);
         finalOrder.addAll(order);
         finalOrder.add(startId);
-        return new TSPSolution(finalOrder, total, true, legs);
+        return new TSPSolution(finalOrder, total, true, legs, legPaths);
     }
 
     // Construire un objet TSPSolution
@@ -200,14 +285,36 @@ public class TSPSolver {
 
         double distance = routeDistance(startId, orderWithoutStart, pairwise); // Calculer la distance totale du circuit
         List<List<Long>> legs = new ArrayList<>(); // Construire les segments détaillés du parcours
+        List<Dijkstra.PathResult> legPaths = new ArrayList<>();
         long current = startId;
         for (long target : orderWithoutStart) { // Ajouter chaque leg correspondant aux distances calculées
-            legs.add(pairwise.get(key(current, target)).getPath());
+            Dijkstra.PathResult leg = orientedLeg(pairwise, current, target);
+            legs.add(leg.getPath());
+            legPaths.add(leg);
             current = target;
         }
-        legs.add(pairwise.get(key(current, startId)).getPath()); // Ajouter le dernier segment (retour à la base)
+        Dijkstra.PathResult back = orientedLeg(pairwise, current, startId);
+        legs.add(back.getPath()); // Ajouter le dernier segment (retour à la base)
+        legPaths.add(back);
+
+        return new TSPSolution(fullOrder, distance, true, legs, legPaths);
+    }
 
-        return new TSPSolution(fullOrder, distance, true, legs);
+    // Chemin from -> to : la table ne garde qu'un sens par paire, le chemin et ses arêtes sont alors retournés
+    private Dijkstra.PathResult orientedLeg(Map<String, Dijkstra.PathResult> pairwise, long from, long to) {
+        Dijkstra.PathResult stored = pairwise.get(key(from, to));
+        List<Long> path = stored.getPath();
+        if (path.isEmpty() || path.get(0) == from) {
+            return stored;
+        }
+        List<Long> reversed = new ArrayList<>(path);
+        Collections.reverse(reversed);
+        int[] edgeIds = stored.getEdgeIds();
+        int[] reversedEdges = new int[edgeIds.length];
+        for (int i = 0; i < edgeIds.length; i++) {
+            reversedEdges[i] = edgeIds[edgeIds.length - 1 - i];
+        }
+        return new Dijkstra.PathResult(stored.getDistance(), reversed, reversedEdges);
     }
 
     // Calculer la distance totale d'un circuit TSP partiel ou complet
@@ -1,19 +1,34 @@
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class Theme2Solver {
     private final Graph graph;
     private final long depotId;
     private final List<CollectionPoint> points;
     private static final int DIST_MATRIX_THRESHOLD = 100;
-    private static final int MAX_TRUCK_CAPACITY = 20; // m3
+    private static final int MST_CANDIDATES = 8; // Voisins candidats par point pour le MST creux
+    public static final int MAX_TRUCK_CAPACITY = 20; // m3
+    private static final int ILS_MAX_STAGNATION = 2000; // Perturbations sans gain avant arrêt (hors échéance)
+    private static final long ILS_SEED = 42L; // Graine fixe pour rendre la recherche reproductible
+    private static final int MULTI_START_COUNT = 32; // Nombre de départs par défaut
+    private static final int MULTI_START_STAGNATION = 300; // Perturbations sans gain avant d'arrêter un départ
+    private static final int CW_NEIGHBORS = 40; // Voisins considérés par point pour la liste des économies
     private final Map<Long, Integer> volumeByNode;
+    private DistanceMatrix collectionMatrix; // Matrice dépôt + points de collecte, calculée à la demande
 
     public Theme2Solver(Graph graph, long depotId, List<CollectionPoint> points) {
         this.graph = graph;
@@ -58,8 +73,18 @@ public class Theme2Solver {
         }
     }
 
-    // Heuristique plus proche voisin sur les sommets de collecte
+    // Heuristique plus proche voisin sur les sommets de collecte (une seule recherche par étape)
     public TourResult solveNearestNeighbor() {
+        return solveNearestNeighbor(true);
+    }
+
+    // singleSearch = true : une recherche par étape, arrêtée au premier sommet de collecte non visité fixé
+    // singleSearch = false : un plus court chemin vers chaque candidat restant (O(n²) recherches)
+    // Les deux modes donnent la même tournée (aux égalités de distance près)
+    public TourResult solveNearestNeighbor(boolean singleSearch) {
+        if (singleSearch) {
+            return solveNearestNeighborSingleSearch();
+        }
 
         if (points.isEmpty()) { // Gérer le cas sans collecte
             return new TourResult(Collections.singletonList(depotId), new ArrayList<>(), 0.0, true, "Voisin le plus proche");
@@ -121,6 +146,58 @@ public class Theme2Solver {
         return new TourResult(fullOrder, legs, total, true, "Voisin le plus proche");
     }
 
+    // Plus proche voisin avec n recherches au lieu de n²/2 : bitmap des sommets restants sur les indices denses
+    private TourResult solveNearestNeighborSingleSearch() {
+        String method = "Voisin le plus proche";
+        if (points.isEmpty()) { // Gérer le cas sans collecte
+            return new TourResult(Collections.singletonList(depotId), new ArrayList<>(), 0.0, true, method);
+        }
+        RoutingGraph routing = graph.getRoutingGraph();
+        int depotIdx = routing.indexOf(depotId);
+        if (depotIdx < 0) {
+            return new TourResult(new ArrayList<>(), new ArrayList<>(), Double.POSITIVE_INFINITY, false, method);
+        }
+        BitSet remaining = new BitSet(routing.size()); // Sommets de collecte encore à visiter
+        for (CollectionPoint cp : points) {
+            int idx = routing.indexOf(cp.getNearestNodeId());
+            if (idx < 0) {
+                return new TourResult(new ArrayList<>(), new ArrayList<>(), Double.POSITIVE_INFINITY, false, method);
+            }
+            remaining.set(idx);
+        }
+        List<Long> order = new ArrayList<>();
+        List<List<Long>> legs = new ArrayList<>();
+        int current = depotIdx;
+        double total = 0.0;
+        while (!remaining.isEmpty()) {
+            Dijkstra.PathResult step = Dijkstra.nearestMarked(routing, current, remaining); // Premier point fixé = le plus proche
+            if (!step.isReachable()) {
+                return new TourResult(new ArrayList<>(), new ArrayList<>(), Double.POSITIVE_INFINITY, false, method);
+            }
+            long next = step.getPath().get(step.getPath().size() - 1);
+            order.add(next);
+            legs.add(step.getPath());
+            total += step.getDistance();
+            current = routing.indexOf(next);
+            remaining.clear(current); // Retirer ce point de la liste
+        }
+        // Retourner au dépôt
+        BitSet depotOnly = new BitSet(routing.size());
+        depotOnly.set(depotIdx);
+        Dijkstra.PathResult back = Dijkstra.nearestMarked(routing, current, depotOnly);
+        if (!back.isReachable()) {
+            return new TourResult(new ArrayList<>(), new ArrayList<>(), Double.POSITIVE_INFINITY, false, method);
+        }
+        total += back.getDistance();
+        legs.add(back.getPath());
+
+        List<Long> fullOrder = new ArrayList<>();
+        fullOrder.add(depotId);
+        fullOrder.addAll(order);
+        fullOrder.add(depotId);
+        return new TourResult(fullOrder, legs, total, true, method);
+    }
+
     public TourResult solveMSTApprox() {
         if (points.isEmpty()) { // Gérer le cas vide
             return new TourResult(Collections.singletonList(depotId), new ArrayList<>(), 0.0, true, "MST DFS");
@@ -132,7 +209,9 @@ public class Theme2Solver {
         }
         int n = ids.size();
         if (n > DIST_MATRIX_THRESHOLD) {
-            System.out.println("Avertissement : " + n + " points a parcourir, la matrice NxN sera couteuse.");
+            // Éviter la matrice NxN : basculer sur le graphe candidat creux
+            System.out.println("Avertissement : " + n + " points a parcourir, passage en MST creux (" + MST_CANDIDATES + " voisins).");
+            return solveMSTApproxSparse(MST_CANDIDATES);
         }
 
         double[][] dist = new double[n][n]; // Créer la matrice des distances
@@ -158,8 +237,9 @@ public class Theme2Solver {
 
         // Faire un DFS sur le MST pour créer une tournée
         List<Long> visitOrder = new ArrayList<>();
-        boolean[] visited = new boolean[n];
-        dfs(0, mstAdj, ids, visited, visitOrder); // Parcourir tous les sommets
+        for (int idx : preorder(Arrays.asList(mstAdj))) { // Parcourir tous les sommets
+            visitOrder.add(ids.get(idx));
+        }
         visitOrder.add(depotId); // Fermer la boucle (retour au dépôt)
 
         double total = 0.0; // Calculer la distance totale
@@ -175,10 +255,428 @@ public class Theme2Solver {
         return new TourResult(visitOrder, legs, total, true, "MST DFS");
     }
 
+    // Heuristique de Christofides : MST + couplage parfait de poids minimal des sommets impairs + raccourcis (garantie 1,5x)
+    public TourResult solveChristofides() {
+        String method = "Christofides";
+        if (points.isEmpty()) { // Gérer le cas vide
+            return new TourResult(Collections.singletonList(depotId), new ArrayList<>(), 0.0, true, method);
+        }
+        DistanceMatrix matrix = getCollectionMatrix(CancellationToken.none());
+        if (matrix == null) {
+            return new TourResult(new ArrayList<>(), new ArrayList<>(), Double.POSITIVE_INFINITY, false, method);
+        }
+        int[] tour = christofidesOrder(matrix.getDistances());
+        if (tour == null) {
+            return new TourResult(new ArrayList<>(), new ArrayList<>(), Double.POSITIVE_INFINITY, false, method);
+        }
+        return toTourResult(tour, matrix, method);
+    }
+
+    // Construire la tournée de Christofides sur la matrice (indices, dépôt en position 0)
+    private int[] christofidesOrder(double[][] d) {
+        int n = d.length;
+        List<Integer>[] mstAdj = buildMST(d); // Construire l'arbre couvrant minimal
+        if (mstAdj == null) {
+            return null;
+        }
+        // Relever les sommets de degré impair dans l'arbre (toujours en nombre pair)
+        int oddCount = 0;
+        for (int i = 0; i < n; i++) {
+            if (mstAdj[i].size() % 2 != 0) {
+                oddCount++;
+            }
+        }
+        int[] odd = new int[oddCount];
+        oddCount = 0;
+        for (int i = 0; i < n; i++) {
+            if (mstAdj[i].size() % 2 != 0) {
+                odd[oddCount++] = i;
+            }
+        }
+        int[] mate = BlossomMatching.minWeightPerfectMatching(d, odd); // Coupler les sommets impairs
+
+        // Réunir les arêtes de l'arbre et du couplage dans un multigraphe eulérien
+        List<int[]> edges = new ArrayList<>();
+        for (int u = 0; u < n; u++) {
+            for (int v : mstAdj[u]) {
+                if (u < v) {
+                    edges.add(new int[]{u, v});
+                }
+            }
+        }
+        for (int a = 0; a < odd.length; a++) {
+            if (mate[a] > a) {
+                edges.add(new int[]{odd[a], odd[mate[a]]});
+            } else if (mate[a] < 0) {
+                return null; // Couplage incomplet (ne doit pas arriver sur un graphe complet)
+            }
+        }
+        int[] circuit = eulerCircuit(n, edges);
+
+        // Raccourcir le circuit en ne gardant que la première visite de chaque sommet
+        int[] tour = new int[n];
+        boolean[] seen = new boolean[n];
+        int count = 0;
+        for (int v : circuit) {
+            if (!seen[v]) {
+                seen[v] = true;
+                tour[count++] = v;
+            }
+        }
+        return count == n ? tour : null;
+    }
+
+    // Circuit eulérien (Hierholzer) depuis l'indice 0 sur un petit multigraphe d'indices
+    private int[] eulerCircuit(int n, List<int[]> edges) {
+        int[] first = new int[n + 1]; // Arêtes incidentes au sommet v dans incident[first[v] .. first[v + 1])
+        for (int[] edge : edges) {
+            first[edge[0] + 1]++;
+            first[edge[1] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            first[v + 1] += first[v];
+        }
+        int[] incident = new int[first[n]];
+        int[] fill = Arrays.copyOf(first, n);
+        for (int e = 0; e < edges.size(); e++) {
+            incident[fill[edges.get(e)[0]]++] = e;
+            incident[fill[edges.get(e)[1]]++] = e;
+        }
+        boolean[] used = new boolean[edges.size()];
+        int[] cursor = Arrays.copyOf(first, n); // Prochaine arête à examiner pour chaque sommet
+        int[] stack = new int[edges.size() + 1];
+        int[] circuit = new int[edges.size() + 1];
+        int top = 0;
+        int count = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int v = stack[top - 1];
+            while (cursor[v] < first[v + 1] && used[incident[cursor[v]]]) {
+                cursor[v]++; // Sauter les arêtes déjà parcourues
+            }
+            if (cursor[v] < first[v + 1]) {
+                int e = incident[cursor[v]];
+                used[e] = true;
+                int[] edge = edges.get(e);
+                stack[top++] = edge[0] == v ? edge[1] : edge[0];
+            } else {
+                circuit[count++] = stack[--top];
+            }
+        }
+        return Arrays.copyOf(circuit, count);
+    }
+
+    // Recherche « anytime » : construire rapidement une tournée puis l'améliorer jusqu'à l'échéance du jeton
+    // Sans échéance, la recherche s'arrête après ILS_MAX_STAGNATION perturbations sans amélioration
+    public TourResult solveAnytime(CancellationToken token, SolverListener listener) {
+        String method = "Recherche bornée";
+        long startNanos = System.nanoTime();
+        if (points.isEmpty()) {
+            return new TourResult(Collections.singletonList(depotId), new ArrayList<>(), 0.0, true, method);
+        }
+        DistanceMatrix matrix = getCollectionMatrix(token); // Une recherche un-vers-plusieurs par point
+        if (matrix == null) {
+            // Graphe non connexe ou budget épuisé avant la première tournée complète
+            return new TourResult(new ArrayList<>(), new ArrayList<>(), Double.POSITIVE_INFINITY, false, method);
+        }
+        double[][] d = matrix.getDistances();
+
+        // Construire les tournées initiales (plus proche voisin, MST, Christofides) et garder la meilleure
+        int[] best = nearestNeighborOrder(d);
+        double bestDist = TourImprover.tourLength(best, d);
+        int improvements = 0;
+        listener.onImprovement("Voisin le plus proche", bestDist, toNodeOrder(best, matrix));
+        List<Integer>[] mstAdj = buildMST(d);
+        if (mstAdj != null) {
+            int[] mstTour = preorder(Arrays.asList(mstAdj));
+            double mstDist = TourImprover.tourLength(mstTour, d);
+            if (mstDist < bestDist) {
+                best = mstTour;
+                bestDist = mstDist;
+                improvements++;
+                listener.onImprovement("MST DFS", bestDist, toNodeOrder(best, matrix));
+            }
+        }
+        if (!token.isCancelled()) {
+            int[] christofides = christofidesOrder(d);
+            if (christofides != null && TourImprover.tourLength(christofides, d) < bestDist) {
+                best = christofides;
+                bestDist = TourImprover.tourLength(best, d);
+                improvements++;
+                listener.onImprovement("Christofides", bestDist, toNodeOrder(best, matrix));
+            }
+        }
+
+        // Descendre à un optimum local puis itérer perturbation + recherche locale
+        TourImprover improver = new TourImprover(d, token);
+        if (improver.improve(best)) {
+            bestDist = TourImprover.tourLength(best, d);
+            improvements++;
+            listener.onImprovement("2-opt / Or-opt", bestDist, toNodeOrder(best, matrix));
+        }
+        SplittableRandom rnd = new SplittableRandom(ILS_SEED);
+        int stagnation = 0;
+        long kicks = 0;
+        while (!token.isCancelled() && stagnation < ILS_MAX_STAGNATION) {
+            int[] candidate = best.clone();
+            TourImprover.doubleBridge(candidate, rnd); // Sortir de l'optimum local
+            improver.improve(candidate);
+            kicks++;
+            double len = TourImprover.tourLength(candidate, d);
+            if (len < bestDist - 1e-9) {
+                best = candidate;
+                bestDist = len;
+                improvements++;
+                stagnation = 0;
+                listener.onImprovement("Recherche locale itérée", bestDist, toNodeOrder(best, matrix));
+            } else {
+                stagnation++;
+            }
+            if (kicks % 100 == 0) {
+                listener.onStatistics(new SolverListener.SearchStatistics(improver.getIterations(), improvements, bestDist,
+                        (System.nanoTime() - startNanos) / 1_000_000L, false));
+            }
+        }
+        listener.onStatistics(new SolverListener.SearchStatistics(improver.getIterations(), improvements, bestDist,
+                (System.nanoTime() - startNanos) / 1_000_000L, token.isCancelled()));
+        return toTourResult(best, matrix, method);
+    }
+
+    // Récupérer (ou construire) la matrice des distances dépôt + points de collecte
+    private DistanceMatrix getCollectionMatrix(CancellationToken token) {
+        if (collectionMatrix == null) {
+            collectionMatrix = DistanceMatrix.build(graph, collectionNodeIds(), token); // Reste null si interrompu
+        }
+        return collectionMatrix;
+    }
+
+    // Lister le dépôt (indice 0) puis les sommets de collecte distincts
+    // Les points situés sur le dépôt gardent leur propre emplacement (même sommet, distance nulle), comme dans PlanningSession
+    private List<Long> collectionNodeIds() {
+        Set<Long> unique = new LinkedHashSet<>();
+        for (CollectionPoint cp : points) {
+            unique.add(cp.getNearestNodeId());
+        }
+        List<Long> ids = new ArrayList<>();
+        ids.add(depotId);
+        ids.addAll(unique);
+        return ids;
+    }
+
+    // Heuristique plus proche voisin sur la matrice (indices, dépôt en position 0)
+    private int[] nearestNeighborOrder(double[][] d) {
+        int n = d.length;
+        int[] tour = new int[n];
+        boolean[] used = new boolean[n];
+        used[0] = true;
+        int current = 0;
+        for (int k = 1; k < n; k++) {
+            int next = -1;
+            for (int j = 1; j < n; j++) {
+                if (!used[j] && (next == -1 || d[current][j] < d[current][next])) {
+                    next = j;
+                }
+            }
+            tour[k] = next;
+            used[next] = true;
+            current = next;
+        }
+        return tour;
+    }
+
+    // Parcours préfixe itératif de l'arbre depuis la racine 0 (indices)
+    // Pile explicite : pas de débordement de la pile d'appels sur les grands arbres
+    private int[] preorder(List<List<Integer>> adj) {
+        int n = adj.size();
+        int[] tour = new int[n];
+        boolean[] visited = new boolean[n];
+        int[] stack = new int[n]; // Chaque sommet n'est empilé qu'une fois dans un arbre
+        int top = 0;
+        int count = 0;
+        stack[top++] = 0;
+        visited[0] = true;
+        while (top > 0) {
+            int u = stack[--top];
+            tour[count++] = u;
+            List<Integer> children = adj.get(u);
+            for (int k = children.size() - 1; k >= 0; k--) { // Empiler à l'envers pour garder l'ordre récursif
+                int v = children.get(k);
+                if (!visited[v]) {
+                    visited[v] = true;
+                    stack[top++] = v;
+                }
+            }
+        }
+        return Arrays.copyOf(tour, count);
+    }
+
+    // Convertir une tournée d'indices en ordre de sommets (dépôt au début et à la fin)
+    private List<Long> toNodeOrder(int[] tour, DistanceMatrix matrix) {
+        List<Long> order = new ArrayList<>();
+        for (int idx : tour) {
+            order.add(matrix.getId(idx));
+        }
+        order.add(depotId);
+        return order;
+    }
+
+    // Construire le résultat final avec les chemins détaillés entre étapes
+    // La distance vient de la matrice ; les chemins sont dépliés sur le graphe contracté (indices denses)
+    private TourResult toTourResult(int[] tour, DistanceMatrix matrix, String method) {
+        double total = TourImprover.tourLength(tour, matrix.getDistances());
+        if (Double.isInfinite(total)) {
+            return new TourResult(new ArrayList<>(), new ArrayList<>(), Double.POSITIVE_INFINITY, false, method);
+        }
+        List<Long> order = toNodeOrder(tour, matrix);
+        ContractedGraph contracted = graph.getContractedGraph();
+        RoutingGraph routing = contracted.getRouting();
+        List<List<Long>> legs = new ArrayList<>();
+        for (int i = 0; i < order.size() - 1; i++) {
+            Dijkstra.PathResult pr = contracted.shortestPath(routing.indexOf(order.get(i)), routing.indexOf(order.get(i + 1)));
+            if (!pr.isReachable()) {
+                return new TourResult(new ArrayList<>(), new ArrayList<>(), Double.POSITIVE_INFINITY, false, method);
+            }
+            legs.add(pr.getPath());
+        }
+        return new TourResult(order, legs, total, true, method);
+    }
+
+    // Variante creuse de solveMSTApprox pour les grandes instances (sans matrice NxN)
+    // Graphe candidat : les k plus proches points de chaque point par distance réseau (une recherche bornée par point)
+    // Prim avec tas sur ce graphe ; si le graphe candidat n'est pas connexe, l'arête manquante est cherchée
+    // exactement par une recherche multi-sources depuis l'arbre courant
+    public TourResult solveMSTApproxSparse(int k) {
+        String method = "MST DFS (creux)";
+        if (points.isEmpty()) { // Gérer le cas vide
+            return new TourResult(Collections.singletonList(depotId), new ArrayList<>(), 0.0, true, method);
+        }
+        List<Long> ids = collectionNodeIds();
+        int depotStop = ids.lastIndexOf(depotId); // Emplacement des points situés sur le dépôt (0 : aucun)
+        if (depotStop > 0) {
+            ids.remove(depotStop); // Les recherches se font par sommet : escale ajoutée après le parcours
+        }
+        int n = ids.size();
+        Map<Long, Integer> index = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            index.put(ids.get(i), i);
+        }
+
+        // Construire les listes de voisins candidats (symétrisées)
+        Set<Long> targets = new HashSet<>(ids);
+        int[][] nearTo = new int[n][];
+        double[][] nearW = new double[n][];
+        int[] degree = new int[n];
+        for (int i = 0; i < n; i++) {
+            targets.remove(ids.get(i)); // Exclure le point lui-même
+            Map<Long, Double> near = Dijkstra.distancesFrom(graph, ids.get(i), targets, k);
+            targets.add(ids.get(i));
+            nearTo[i] = new int[near.size()];
+            nearW[i] = new double[near.size()];
+            int q = 0;
+            for (Map.Entry<Long, Double> e : near.entrySet()) {
+                nearTo[i][q] = index.get(e.getKey());
+                nearW[i][q] = e.getValue();
+                degree[i]++;
+                degree[nearTo[i][q]]++;
+                q++;
+            }
+        }
+        int[][] candTo = new int[n][];
+        double[][] candW = new double[n][];
+        for (int i = 0; i < n; i++) {
+            candTo[i] = new int[degree[i]];
+            candW[i] = new double[degree[i]];
+            degree[i] = 0;
+        }
+        for (int i = 0; i < n; i++) {
+            for (int q = 0; q < nearTo[i].length; q++) {
+                int j = nearTo[i][q];
+                candTo[i][degree[i]] = j;
+                candW[i][degree[i]++] = nearW[i][q];
+                candTo[j][degree[j]] = i;
+                candW[j][degree[j]++] = nearW[i][q];
+            }
+        }
+
+        // Prim avec tas paresseux (les entrées obsolètes sont ignorées au retrait)
+        double[] key = new double[n];
+        int[] parent = new int[n];
+        boolean[] inTree = new boolean[n];
+        Arrays.fill(key, Double.POSITIVE_INFINITY);
+        Arrays.fill(parent, -1);
+        MinHeap heap = new MinHeap(n);
+        key[0] = 0.0;
+        heap.push(0.0, 0);
+        List<Long> treeNodes = new ArrayList<>(); // Sommets déjà dans l'arbre (sources du repli exact)
+        Set<Long> outside = new HashSet<>(ids); // Sommets hors de l'arbre
+        for (int added = 0; added < n; added++) {
+            int u = -1;
+            while (!heap.isEmpty()) {
+                double k0 = heap.peekKey();
+                int v = heap.pop();
+                if (!inTree[v] && k0 == key[v]) {
+                    u = v;
+                    break;
+                }
+            }
+            if (u == -1) {
+                // Aucune arête candidate ne sort de l'arbre : chercher la plus courte exactement
+                Dijkstra.PathResult bridge = Dijkstra.nearestTarget(graph, treeNodes, outside);
+                if (!bridge.isReachable()) {
+                    return new TourResult(new ArrayList<>(), new ArrayList<>(), Double.POSITIVE_INFINITY, false, method);
+                }
+                List<Long> path = bridge.getPath();
+                u = index.get(path.get(path.size() - 1));
+                parent[u] = index.get(path.get(0));
+                key[u] = bridge.getDistance();
+            }
+            inTree[u] = true;
+            treeNodes.add(ids.get(u));
+            outside.remove(ids.get(u));
+            for (int q = 0; q < candTo[u].length; q++) { // Relâcher les arêtes candidates
+                int v = candTo[u][q];
+                if (!inTree[v] && candW[u][q] < key[v]) {
+                    key[v] = candW[u][q];
+                    parent[v] = u;
+                    heap.push(key[v], v);
+                }
+            }
+        }
+        List<List<Integer>> mstAdj = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            mstAdj.add(new ArrayList<>());
+        }
+        for (int v = 1; v < n; v++) {
+            mstAdj.get(parent[v]).add(v);
+            mstAdj.get(v).add(parent[v]);
+        }
+
+        // Parcours préfixe itératif puis chemins réels entre étapes consécutives
+        List<Long> visitOrder = new ArrayList<>();
+        for (int idx : preorder(mstAdj)) {
+            visitOrder.add(ids.get(idx));
+        }
+        if (depotStop > 0) {
+            visitOrder.add(1, depotId); // Points du dépôt : escale de distance nulle dès le départ
+        }
+        visitOrder.add(depotId);
+        double total = 0.0;
+        List<List<Long>> legs = new ArrayList<>();
+        for (int i = 0; i < visitOrder.size() - 1; i++) {
+            Dijkstra.PathResult pr = Dijkstra.shortestPath(graph, visitOrder.get(i), visitOrder.get(i + 1));
+            if (!pr.isReachable()) {
+                return new TourResult(new ArrayList<>(), new ArrayList<>(), Double.POSITIVE_INFINITY, false, method);
+            }
+            total += pr.getDistance();
+            legs.add(pr.getPath());
+        }
+        return new TourResult(visitOrder, legs, total, true, method);
+    }
+
     private Map<Long, Integer> buildVolumeMap(List<CollectionPoint> pts) {
         Map<Long, Integer> map = new HashMap<>(); // Créer la map volumes
         for (CollectionPoint cp : pts) { // Parcourir les points
-            map.put(cp.getNearestNodeId(), cp.getVolume()); // Associer sommet -> volume
+            map.merge(cp.getNearestNodeId(), cp.getVolume(), Integer::sum); // Cumuler les volumes d’un même sommet
         }
         return map; // Retourner la map
     }
@@ -239,6 +737,266 @@ public class Theme2Solver {
         return tours;
     }
 
+    // Découpage optimal d'un ordre de visite fixé (Prins 2004, voir TourSplitter)
+    // Les distances viennent de la matrice (aucune recherche dans le graphe) ; coût O(n·k), k = points par camion
+    // Au-delà de DIST_MATRIX_THRESHOLD points, la matrice n'est pas construite pour le seul découpage : découpage glouton
+    public List<SplitTour> splitTourOptimal(List<Long> order) {
+        if (order.size() < 2) { // Vérifier liste valide
+            return new ArrayList<>();
+        }
+        if (collectionMatrix == null && collectionNodeIds().size() > DIST_MATRIX_THRESHOLD) {
+            return splitTourIntoSubTours(order);
+        }
+        DistanceMatrix matrix = getCollectionMatrix(CancellationToken.none());
+        if (matrix == null) {
+            return Collections.emptyList();
+        }
+        // Points situés sur le dépôt : à distance nulle, ils ne dépendent pas de leur place dans l'ordre
+        // et sont sortis du découpage puis chargés dans la sous-tournée qui a le plus de place
+        List<Long> stops = new ArrayList<>();
+        stops.add(depotId);
+        int depotVolume = 0;
+        for (int j = 1; j < order.size() - 1; j++) {
+            if (order.get(j) == depotId) {
+                depotVolume = volumeByNode.getOrDefault(depotId, 0);
+            } else {
+                stops.add(order.get(j));
+            }
+        }
+        int m = stops.size() - 1; // Nombre de points entre les deux passages au dépôt
+        int[] idx = new int[m + 1]; // idx[j] = indice matrice du j-ième point (1..m)
+        int[] vol = new int[m + 1];
+        for (int j = 1; j <= m; j++) {
+            idx[j] = matrix.indexOf(stops.get(j));
+            if (idx[j] < 0) {
+                return splitTourIntoSubTours(order); // Sommet hors matrice : revenir au découpage glouton
+            }
+            vol[j] = volumeByNode.getOrDefault(stops.get(j), 1);
+        }
+        int depot = matrix.indexOf(depotId);
+        double[][] d = matrix.getDistances();
+
+        // Construire les sous-tournées à partir des bornes du découpage optimal
+        List<SplitTour> tours = new ArrayList<>();
+        for (int[] range : TourSplitter.split(d, depot, idx, vol, MAX_TRUCK_CAPACITY)) {
+            List<Long> path = new ArrayList<>();
+            path.add(depotId);
+            int load = 0;
+            double dist = 0.0;
+            int prev = depot;
+            for (int q = range[0]; q <= range[1]; q++) {
+                path.add(stops.get(q));
+                load += vol[q];
+                dist += d[prev][idx[q]];
+                prev = idx[q];
+            }
+            dist += d[prev][depot];
+            path.add(depotId);
+            tours.add(new SplitTour(path, load, dist));
+        }
+        if (depotVolume > 0) {
+            int roomiest = -1;
+            for (int t = 0; t < tours.size(); t++) {
+                if (roomiest == -1 || tours.get(t).usedVolume < tours.get(roomiest).usedVolume) {
+                    roomiest = t;
+                }
+            }
+            if (roomiest >= 0 && tours.get(roomiest).usedVolume + depotVolume <= MAX_TRUCK_CAPACITY) {
+                SplitTour st = tours.get(roomiest);
+                st.path.add(1, depotId); // Collecte au départ, sans détour
+                tours.set(roomiest, new SplitTour(st.path, st.usedVolume + depotVolume, st.distance));
+            } else {
+                // Aucune sous-tournée n'a la place : un trajet dédié, chargé au dépôt
+                tours.add(new SplitTour(new ArrayList<>(Arrays.asList(depotId, depotId, depotId)), depotVolume, 0.0));
+            }
+        }
+        return tours;
+    }
+
+    // Construire directement des tournées respectant MAX_TRUCK_CAPACITY par l'algorithme des économies (Clarke-Wright)
+    // Retourner une liste vide si le graphe n'est pas connexe
+    public List<SplitTour> solveClarkeWright() {
+        List<SplitTour> tours = new ArrayList<>();
+        if (points.isEmpty()) {
+            return tours;
+        }
+        DistanceMatrix matrix = getCollectionMatrix(CancellationToken.none());
+        if (matrix == null) {
+            return Collections.emptyList();
+        }
+        double[][] d = matrix.getDistances();
+        int n = matrix.size();
+        int[] volume = new int[n];
+        for (int i = 1; i < n; i++) {
+            volume[i] = volumeByNode.getOrDefault(matrix.getId(i), 1); // Récupérer le volume du point
+        }
+        for (int[] route : clarkeWrightRoutes(d, volume, MAX_TRUCK_CAPACITY)) {
+            List<Long> path = new ArrayList<>();
+            path.add(depotId);
+            int load = 0;
+            double dist = 0.0;
+            int prev = 0;
+            for (int idx : route) {
+                path.add(matrix.getId(idx));
+                load += volume[idx];
+                dist += d[prev][idx];
+                prev = idx;
+            }
+            dist += d[prev][0]; // Retour au dépôt
+            path.add(depotId);
+            tours.add(new SplitTour(path, load, dist));
+        }
+        return tours;
+    }
+
+    // Cœur de Clarke-Wright sur la matrice (indice 0 = dépôt) ; retourner les tournées sous forme d'indices
+    private static List<int[]> clarkeWrightRoutes(double[][] d, int[] volume, int capacity) {
+        int n = d.length;
+        int customers = n - 1;
+        List<int[]> routes = new ArrayList<>();
+        if (customers <= 0) {
+            return routes;
+        }
+        // Limiter les économies aux CW_NEIGHBORS plus proches voisins de chaque point
+        int k = Math.min(CW_NEIGHBORS, customers - 1);
+        int[] pairI = new int[customers * Math.max(k, 1)];
+        int[] pairJ = new int[pairI.length];
+        long[] keys = new long[pairI.length];
+        int pairCount = 0;
+        int[] heap = new int[Math.max(k, 1)]; // Tas max (par distance) des k plus proches voisins
+        for (int i = 1; i < n && k > 0; i++) {
+            int size = 0;
+            for (int j = 1; j < n; j++) {
+                if (j == i) {
+                    continue;
+                }
+                if (size < k) {
+                    heap[size] = j;
+                    siftUp(heap, size++, d[i]);
+                } else if (d[i][j] < d[i][heap[0]]) {
+                    heap[0] = j; // Remplacer le plus lointain des voisins retenus
+                    siftDown(heap, size, d[i]);
+                }
+            }
+            for (int q = 0; q < size; q++) {
+                int j = heap[q];
+                double saving = d[0][i] + d[0][j] - d[i][j];
+                if (saving < 0) {
+                    continue; // Fusion sans intérêt (économie nulle gardée : elle évite un trajet, ex. point sur le dépôt)
+                }
+                // Clé triable : bits du flottant positif (croissants) puis numéro de paire
+                keys[pairCount] = ((long) Float.floatToIntBits((float) saving) << 32) | pairCount;
+                pairI[pairCount] = i;
+                pairJ[pairCount] = j;
+                pairCount++;
+            }
+        }
+        Arrays.sort(keys, 0, pairCount); // Tri primitif, économies croissantes
+
+        // Chaque point démarre seul dans sa tournée
+        int[] parent = new int[n]; // Union-find : représentant de la tournée
+        int[] load = new int[n]; // Charge de la tournée (valide sur le représentant)
+        int[] linkA = new int[n]; // Premier voisin dans la tournée (-1 = dépôt)
+        int[] linkB = new int[n]; // Second voisin dans la tournée (-1 = dépôt)
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+            load[i] = volume[i];
+            linkA[i] = -1;
+            linkB[i] = -1;
+        }
+        // Fusionner par économies décroissantes
+        for (int p = pairCount - 1; p >= 0; p--) {
+            int pair = (int) (keys[p] & 0xFFFFFFFFL);
+            int i = pairI[pair];
+            int j = pairJ[pair];
+            if (linkB[i] != -1 || linkB[j] != -1) {
+                continue; // Un des deux points est intérieur à sa tournée
+            }
+            int ri = find(parent, i);
+            int rj = find(parent, j);
+            if (ri == rj || load[ri] + load[rj] > capacity) {
+                continue; // Même tournée ou capacité dépassée
+            }
+            link(linkA, linkB, i, j);
+            link(linkA, linkB, j, i);
+            parent[ri] = rj;
+            load[rj] += load[ri];
+        }
+
+        // Lire chaque tournée depuis une de ses extrémités
+        boolean[] seen = new boolean[n];
+        for (int start = 1; start < n; start++) {
+            if (seen[start] || linkB[start] != -1) {
+                continue; // Démarrer uniquement depuis une extrémité non lue
+            }
+            int[] route = new int[customers];
+            int len = 0;
+            int prev = -1;
+            int cur = start;
+            while (cur != -1) {
+                seen[cur] = true;
+                route[len++] = cur;
+                int next = linkA[cur] != prev ? linkA[cur] : linkB[cur];
+                prev = cur;
+                cur = next;
+            }
+            routes.add(Arrays.copyOf(route, len));
+        }
+        return routes;
+    }
+
+    // Enregistrer j comme voisin de i dans la tournée
+    private static void link(int[] linkA, int[] linkB, int i, int j) {
+        if (linkA[i] == -1) {
+            linkA[i] = j;
+        } else {
+            linkB[i] = j;
+        }
+    }
+
+    // Trouver le représentant d'une tournée (compression de chemin)
+    private static int find(int[] parent, int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    private static void siftUp(int[] heap, int pos, double[] key) {
+        while (pos > 0) {
+            int up = (pos - 1) / 2;
+            if (key[heap[up]] >= key[heap[pos]]) {
+                break;
+            }
+            int tmp = heap[up];
+            heap[up] = heap[pos];
+            heap[pos] = tmp;
+            pos = up;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, double[] key) {
+        int pos = 0;
+        while (true) {
+            int left = 2 * pos + 1;
+            int largest = pos;
+            if (left < size && key[heap[left]] > key[heap[largest]]) {
+                largest = left;
+            }
+            if (left + 1 < size && key[heap[left + 1]] > key[heap[largest]]) {
+                largest = left + 1;
+            }
+            if (largest == pos) {
+                return;
+            }
+            int tmp = heap[largest];
+            heap[largest] = heap[pos];
+            heap[pos] = tmp;
+            pos = largest;
+        }
+    }
+
     public void runGreedyOnly() {
         TourResult nn = solveNearestNeighbor(); // Exécuter l'heuristique voisin le plus proche
         if (!nn.isFeasible()) { // Vérifier faisabilité
@@ -295,13 +1053,127 @@ public class Theme2Solver {
         }
     }
 
+    // Recherche locale itérée multi-départs, répartie sur tous les cœurs
+    // Départ 0 = plus proche voisin, départ 1 = MST, les autres sont aléatoires
+    // Chaque départ possède son propre SplittableRandom dérivé de la graine : même graine => même tournée
+    public TourResult solveMultiStart(int starts, long seed, CancellationToken token) {
+        String method = "Multi-départs (ILS)";
+        if (points.isEmpty()) {
+            return new TourResult(Collections.singletonList(depotId), new ArrayList<>(), 0.0, true, method);
+        }
+        DistanceMatrix matrix = getCollectionMatrix(token);
+        if (matrix == null) {
+            return new TourResult(new ArrayList<>(), new ArrayList<>(), Double.POSITIVE_INFINITY, false, method);
+        }
+        double[][] d = matrix.getDistances();
+        int[] nnStart = nearestNeighborOrder(d);
+        List<Integer>[] mstAdj = buildMST(d);
+        int[] mstStart = mstAdj == null ? null : preorder(Arrays.asList(mstAdj));
+
+        int count = Math.max(1, starts);
+        int threads = Math.min(count, Runtime.getRuntime().availableProcessors());
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<int[]>> futures = new ArrayList<>();
+        SplittableRandom root = new SplittableRandom(seed);
+        try {
+            for (int k = 0; k < count; k++) {
+                SplittableRandom rnd = root.split(); // Dérivé dans l'ordre des départs, indépendant de l'ordonnancement
+                int[] initial;
+                if (k == 0) {
+                    initial = nnStart.clone();
+                } else if (k == 1 && mstStart != null) {
+                    initial = mstStart.clone();
+                } else {
+                    initial = randomTour(d.length, rnd);
+                }
+                futures.add(pool.submit(() -> iteratedLocalSearch(initial, d, rnd, token)));
+            }
+            int[] best = null;
+            double bestDist = Double.POSITIVE_INFINITY;
+            for (Future<int[]> future : futures) { // Parcourir dans l'ordre des départs (égalité => plus petit indice)
+                int[] tour = future.get();
+                double len = TourImprover.tourLength(tour, d);
+                if (len < bestDist - 1e-9) {
+                    best = tour;
+                    bestDist = len;
+                }
+            }
+            return toTourResult(best, matrix, method);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new TourResult(new ArrayList<>(), new ArrayList<>(), Double.POSITIVE_INFINITY, false, method);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Échec d'un départ de la recherche multi-départs", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Améliorer un départ : recherche locale puis perturbations « double pont » tant qu'elles finissent par payer
+    private int[] iteratedLocalSearch(int[] start, double[][] d, SplittableRandom rnd, CancellationToken token) {
+        TourImprover improver = new TourImprover(d, token);
+        int[] best = start;
+        improver.improve(best);
+        double bestDist = TourImprover.tourLength(best, d);
+        int stagnation = 0;
+        while (!token.isCancelled() && stagnation < MULTI_START_STAGNATION) {
+            int[] candidate = best.clone();
+            TourImprover.doubleBridge(candidate, rnd);
+            improver.improve(candidate);
+            double len = TourImprover.tourLength(candidate, d);
+            if (len < bestDist - 1e-9) {
+                best = candidate;
+                bestDist = len;
+                stagnation = 0;
+            } else {
+                stagnation++;
+            }
+        }
+        return best;
+    }
+
+    // Tirer une tournée aléatoire (dépôt fixé en position 0)
+    private int[] randomTour(int n, SplittableRandom rnd) {
+        int[] tour = new int[n];
+        for (int i = 0; i < n; i++) {
+            tour[i] = i;
+        }
+        for (int i = n - 1; i > 1; i--) { // Mélange de Fisher-Yates sur les positions 1..n-1
+            int j = 1 + rnd.nextInt(i);
+            int tmp = tour[i];
+            tour[i] = tour[j];
+            tour[j] = tmp;
+        }
+        return tour;
+    }
+
+    public void runMultiStart() {
+        TourResult nn = solveNearestNeighbor(); // Référence : plus proche voisin
+        TourResult multi = solveMultiStart(MULTI_START_COUNT, ILS_SEED, CancellationToken.none());
+        if (!multi.isFeasible()) {
+            System.out.println("Recherche multi-départs impossible (graphe non connexe ?)");
+            return;
+        }
+        System.out.printf("Distance totale (Multi-départs, %d départs) : %.2f m%n", MULTI_START_COUNT, multi.getDistance());
+        if (nn.isFeasible()) {
+            double diffPercent = ((multi.getDistance() - nn.getDistance()) / nn.getDistance()) * 100.0;
+            System.out.printf("Gain/Perte (Multi-départs vs Greedy) : %.2f %% %n", diffPercent);
+        }
+        printTourWithSplits(multi);
+    }
+
     public void printTourWithSplits(TourResult tr) {
         System.out.println("Tournée des points de collectes (" + tr.getMethod() + ")");
-        List<SplitTour> splits = splitTourIntoSubTours(tr.getOrder()); // Découper la tournée
+        List<SplitTour> splits = splitTourOptimal(tr.getOrder()); // Découper la tournée (découpage optimal)
         if (splits.isEmpty()) { // Vérifier si découpage possible
             System.out.println("  Impossible de decouper la tournée (graphe non connexe ?)");
             return;
         }
+        printSplitTours(splits);
+    }
+
+    // Afficher des sous-tournées déjà construites et leur distance cumulée
+    public void printSplitTours(List<SplitTour> splits) {
         double total = 0.0;
         for (int i = 0; i < splits.size(); i++) { // Parcourir les sous-tournées
             SplitTour st = splits.get(i);
@@ -313,36 +1185,6 @@ public class Theme2Solver {
         System.out.printf("Distance totale cumulée : %.2f m%n", total);
     }
 
-    public List<Node> buildStreetPath(Graph graph, List<Long> pathIds) {
-        List<Node> result = new ArrayList<>(); // Liste résultat
-        if (pathIds == null || pathIds.size() < 2) {
-            return result; // Vérifier liste trop petite
-        }
-
-        // Parcourir les paires de sommets
-        for (int i = 0; i < pathIds.size() - 1; i++) {
-            long a = pathIds.get(i);
-            long b = pathIds.get(i + 1);
-            Dijkstra.PathResult pr = Dijkstra.shortestPath(graph, a, b); // Calculer plus court chemin
-            List<Long> ids = pr.getPath();
-            if (ids.isEmpty()) { // Ignorer si vide
-                continue;
-            }
-
-            for (int j = 0; j < ids.size(); j++) { // Ajouter les points du chemin
-                // Eviter doublons
-                if (i > 0 && j == 0) {
-                    continue;
-                }
-                Node n = graph.getNode(ids.get(j)); // récupérer le sommet
-                if (n != null) { // Vérifier null
-                    result.add(n);
-                }
-            }
-        }
-        return result;
-    }
-
     public static class SplitTour {
         public final List<Long> path;
         public final int usedVolume;
@@ -406,16 +1248,6 @@ public class Theme2Solver {
         return idx;
     }
 
-    private void dfs(int u, List<Integer>[] adj, List<Long> ids, boolean[] visited, List<Long> order) {
-        visited[u] = true;
-        order.add(ids.get(u));
-        for (int v : adj[u]) {
-            if (!visited[v]) {
-                dfs(v, adj, ids, visited, order);
-            }
-        }
-    }
-
     private String key(long a, long b) {
         if (a < b) {
             return a + "-" + b;
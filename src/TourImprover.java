@@ -0,0 +1,184 @@
+import java.util.SplittableRandom;
+
+// Recherche locale sur une tournée fermée exprimée en indices d'une matrice de distances
+// L'indice en position 0 (le dépôt) reste fixe ; la tournée revient implicitement au dépôt
+public class TourImprover {
+    private static final double EPS = 1e-9; // Tolérance pour éviter les boucles sur des gains nuls
+    private static final int MAX_SEGMENT = 3; // Longueur maximale des segments déplacés par Or-opt
+    private final double[][] dist; // Matrice de distances symétrique
+    private final CancellationToken token; // Jeton vérifié entre deux passes
+    private long iterations; // Nombre de mouvements évalués
+
+    public TourImprover(double[][] dist, CancellationToken token) {
+        this.dist = dist;
+        this.token = token;
+    }
+
+    public long getIterations() {
+        return iterations;
+    }
+
+    // Calculer la longueur d'une tournée fermée
+    public static double tourLength(int[] tour, double[][] dist) {
+        double total = 0.0;
+        for (int i = 0; i < tour.length; i++) {
+            total += dist[tour[i]][tour[(i + 1) % tour.length]];
+        }
+        return total;
+    }
+
+    // Enchaîner 2-opt et Or-opt jusqu'à un optimum local (ou jusqu'à l'annulation)
+    public boolean improve(int[] tour) {
+        boolean improved = false;
+        boolean changed = true;
+        while (changed && !token.isCancelled()) {
+            changed = twoOpt(tour);
+            changed |= orOpt(tour);
+            improved |= changed;
+        }
+        return improved;
+    }
+
+    // Inverser des portions de tournée tant que cela raccourcit le circuit
+    public boolean twoOpt(int[] tour) {
+        int n = tour.length;
+        if (n < 4) {
+            return false; // Aucun échange possible
+        }
+        boolean improved = false;
+        boolean found = true;
+        while (found) {
+            found = false;
+            for (int i = 0; i < n - 2; i++) {
+                if (token.isCancelled()) {
+                    return improved;
+                }
+                for (int j = i + 2; j < n; j++) {
+                    if (i == 0 && j == n - 1) {
+                        continue; // Arêtes adjacentes via le dépôt
+                    }
+                    int a = tour[i];
+                    int b = tour[i + 1];
+                    int c = tour[j];
+                    int e = tour[(j + 1) % n];
+                    iterations++;
+                    double delta = dist[a][c] + dist[b][e] - dist[a][b] - dist[c][e];
+                    if (delta < -EPS) {
+                        reverse(tour, i + 1, j); // Remplacer (a,b),(c,e) par (a,c),(b,e)
+                        found = true;
+                        improved = true;
+                    }
+                }
+            }
+        }
+        return improved;
+    }
+
+    // Déplacer des segments de 1 à 3 sommets (éventuellement inversés) vers leur meilleure position
+    public boolean orOpt(int[] tour) {
+        int n = tour.length;
+        if (n < 5) {
+            return false;
+        }
+        boolean improved = false;
+        for (int len = 1; len <= MAX_SEGMENT; len++) {
+            for (int i = 1; i + len - 1 < n; i++) {
+                if (token.isCancelled()) {
+                    return improved;
+                }
+                int first = tour[i];
+                int last = tour[i + len - 1];
+                int prev = tour[i - 1];
+                int next = tour[(i + len) % n];
+                double removeGain = dist[prev][first] + dist[last][next] - dist[prev][next];
+                if (removeGain <= EPS) {
+                    continue; // Retirer le segment ne rapporte rien
+                }
+                double bestAdd = removeGain - EPS;
+                int bestPos = -1;
+                boolean bestReversed = false;
+                for (int j = 0; j < n; j++) {
+                    if (j >= i - 1 && j <= i + len - 1) {
+                        continue; // Ignorer les arêtes qui touchent le segment
+                    }
+                    int p = tour[j];
+                    int q = tour[(j + 1) % n];
+                    iterations++;
+                    double add = dist[p][first] + dist[last][q] - dist[p][q];
+                    double addReversed = dist[p][last] + dist[first][q] - dist[p][q];
+                    if (add < bestAdd) {
+                        bestAdd = add;
+                        bestPos = j;
+                        bestReversed = false;
+                    }
+                    if (addReversed < bestAdd) {
+                        bestAdd = addReversed;
+                        bestPos = j;
+                        bestReversed = true;
+                    }
+                }
+                if (bestPos >= 0) {
+                    moveSegment(tour, i, len, tour[bestPos], bestReversed);
+                    improved = true;
+                }
+            }
+        }
+        return improved;
+    }
+
+    // Perturber une tournée par un « double pont » (échange de deux segments), utilisé par la recherche locale itérée
+    public static void doubleBridge(int[] tour, SplittableRandom rnd) {
+        int n = tour.length;
+        if (n < 6) {
+            return; // Tournée trop courte pour être perturbée
+        }
+        // Choisir trois coupures 1 < a < b < c < n
+        int a = 2 + rnd.nextInt(n - 4);
+        int b = a + 1 + rnd.nextInt(n - a - 2);
+        int c = b + 1 + rnd.nextInt(n - b - 1);
+        int[] copy = tour.clone();
+        int k = a;
+        for (int i = b; i < c; i++) {
+            tour[k++] = copy[i]; // Segment C
+        }
+        for (int i = a; i < b; i++) {
+            tour[k++] = copy[i]; // Segment B
+        }
+    }
+
+    // Inverser la portion [from, to] du tableau
+    private static void reverse(int[] tour, int from, int to) {
+        while (from < to) {
+            int tmp = tour[from];
+            tour[from] = tour[to];
+            tour[to] = tmp;
+            from++;
+            to--;
+        }
+    }
+
+    // Retirer le segment [start, start + len) et le réinsérer juste après le sommet « after »
+    private static void moveSegment(int[] tour, int start, int len, int after, boolean reversed) {
+        int n = tour.length;
+        int[] segment = new int[len];
+        for (int k = 0; k < len; k++) {
+            segment[k] = reversed ? tour[start + len - 1 - k] : tour[start + k];
+        }
+        int[] rest = new int[n - len];
+        int r = 0;
+        for (int k = 0; k < n; k++) {
+            if (k < start || k >= start + len) {
+                rest[r++] = tour[k];
+            }
+        }
+        int w = 0;
+        for (int k = 0; k < rest.length; k++) {
+            tour[w++] = rest[k];
+            if (rest[k] == after) {
+                for (int s : segment) {
+                    tour[w++] = s; // Insérer le segment après le sommet choisi
+                }
+            }
+        }
+    }
+}
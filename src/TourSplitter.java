@@ -0,0 +1,50 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// Découpage optimal d'une tournée géante en sous-tournées de capacité bornée (Prins 2004)
+// Plus court chemin dans le DAG auxiliaire : l'arc i -> j représente la sous-tournée
+// dépôt -> point(i+1) .. point(j) -> dépôt, présent seulement si elle tient dans le camion
+public class TourSplitter {
+
+    // idx[1..m] : indices matrice des points dans l'ordre de visite, vol[1..m] : volumes (case 0 ignorée)
+    // Retourner les bornes [début, fin] (positions 1..m incluses) de chaque sous-tournée, dans l'ordre
+    // Un point seul plus volumineux que la capacité forme sa propre sous-tournée ; coût O(m·k)
+    public static List<int[]> split(double[][] d, int depot, int[] idx, int[] vol, int capacity) {
+        int m = idx.length - 1;
+        double[] best = new double[m + 1]; // best[j] = coût minimal pour servir les j premiers points
+        int[] pred = new int[m + 1]; // Début (exclu) de la dernière sous-tournée
+        Arrays.fill(best, Double.POSITIVE_INFINITY);
+        best[0] = 0.0;
+        for (int i = 0; i < m; i++) {
+            if (Double.isInfinite(best[i])) {
+                continue;
+            }
+            int load = 0;
+            double cost = 0.0;
+            for (int j = i + 1; j <= m; j++) {
+                load += vol[j];
+                if (load > capacity && j > i + 1) {
+                    break; // Capacité dépassée
+                }
+                if (j == i + 1) {
+                    cost = d[depot][idx[j]] + d[idx[j]][depot];
+                } else {
+                    cost += d[idx[j - 1]][idx[j]] + d[idx[j]][depot] - d[idx[j - 1]][depot];
+                }
+                if (best[i] + cost < best[j]) {
+                    best[j] = best[i] + cost;
+                    pred[j] = i;
+                }
+            }
+        }
+        // Remonter les prédécesseurs depuis la fin
+        List<int[]> ranges = new ArrayList<>();
+        for (int j = m; j > 0; j = pred[j]) {
+            ranges.add(new int[]{pred[j] + 1, j});
+        }
+        Collections.reverse(ranges);
+        return ranges;
+    }
+}
@@ -0,0 +1,239 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Chaîne de planification hebdomadaire : chaque couple (jour, secteur) issu de la coloration devient une tâche
+// indépendante (tournée des points de collecte du secteur + découpage à la capacité des camions)
+// Les tâches tournent sur un pool borné ; au plus maxInFlight tâches sont soumises à la fois (contre-pression) :
+// le thread appelant consomme les résultats dans l'ordre où ils se terminent et les diffuse vers le planning
+// vers un fichier GeoJSON par jour et vers une archive binaire compacte, sans conserver les géométries en mémoire
+public class WeeklyPlanPipeline {
+    public static final String ARCHIVE_FILE = "planning_semaine.rtb"; // Archive binaire des tournées de la semaine
+    private final Graph graph;
+    private final long depotId;
+    private final List<CollectionPoint> points;
+    private final int threads;
+    private final int maxInFlight;
+    private final long sectorBudgetMillis; // Budget de recherche locale par secteur
+
+    // threads <= 0 : un thread par cœur ; maxInFlight <= 0 : deux tâches en attente par thread
+    public WeeklyPlanPipeline(Graph graph, long depotId, List<CollectionPoint> points, int threads, int maxInFlight,
+                              long sectorBudgetMillis) {
+        this.graph = graph;
+        this.depotId = depotId;
+        this.points = points;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.maxInFlight = maxInFlight > 0 ? maxInFlight : 2 * this.threads;
+        this.sectorBudgetMillis = sectorBudgetMillis;
+    }
+
+    // Planifier la semaine : dayBySector vient de la coloration ; outputDir null : pas d'export GeoJSON
+    public WeeklyPlan run(List<Sector> sectors, Map<String, String> dayBySector, String outputDir, CancellationToken token)
+            throws IOException {
+        long start = System.nanoTime();
+        // Répartir les points de collecte par secteur (sommet le plus proche)
+        Map<Long, String> sectorByNode = new HashMap<>();
+        for (Sector s : sectors) {
+            for (long id : s.getNodeIds()) {
+                sectorByNode.put(id, s.getId());
+            }
+        }
+        Map<String, List<CollectionPoint>> pointsBySector = new HashMap<>();
+        List<CollectionPoint> unplanned = new ArrayList<>();
+        for (CollectionPoint cp : points) {
+            String sectorId = sectorByNode.get(cp.getNearestNodeId());
+            if (sectorId == null || !dayBySector.containsKey(sectorId)) {
+                unplanned.add(cp);
+            } else {
+                pointsBySector.computeIfAbsent(sectorId, k -> new ArrayList<>()).add(cp);
+            }
+        }
+
+        graph.getContractedGraph(); // Construire les vues compacte et contractée avant de les partager entre les threads
+        WeeklyPlan plan = new WeeklyPlan(unplanned);
+        Map<String, GeoJsonWriter> streams = new HashMap<>();
+        RouteArchive.Writer archive = outputDir == null ? null : RouteArchive.openWriter(outputDir + "/" + ARCHIVE_FILE);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CompletionService<SectorRoute> completion = new ExecutorCompletionService<>(pool);
+        int inFlight = 0;
+        try {
+            for (Sector sector : sectors) {
+                List<CollectionPoint> sectorPoints = pointsBySector.get(sector.getId());
+                if (sectorPoints == null || token.isCancelled()) {
+                    continue; // Rien à collecter, ou arrêt demandé : ne plus soumettre
+                }
+                String day = dayBySector.get(sector.getId());
+                while (inFlight >= maxInFlight) { // Contre-pression : attendre qu'une tâche se termine
+                    consume(completion.take().get(), plan, streams, archive, outputDir);
+                    inFlight--;
+                }
+                completion.submit(() -> routeSector(day, sector.getId(), sectorPoints, outputDir != null, token));
+                inFlight++;
+            }
+            while (inFlight > 0) {
+                consume(completion.take().get(), plan, streams, archive, outputDir);
+                inFlight--;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Échec de la planification d'un secteur", e.getCause());
+        } finally {
+            pool.shutdownNow();
+            for (GeoJsonWriter stream : streams.values()) {
+                stream.close();
+            }
+            if (archive != null) {
+                archive.close();
+            }
+        }
+        plan.elapsedMillis = (System.nanoTime() - start) / 1_000_000L;
+        return plan;
+    }
+
+    // Tâche d'un secteur : tournée de ses points (recherche locale itérée bornée) puis découpage optimal à la capacité
+    private SectorRoute routeSector(String day, String sectorId, List<CollectionPoint> sectorPoints, boolean withGeometry,
+                                   CancellationToken token) {
+        Theme2Solver solver = new Theme2Solver(graph, depotId, sectorPoints);
+        CancellationToken budget = CancellationToken.withTimeout(Math.min(sectorBudgetMillis, token.remainingMillis()));
+        Theme2Solver.TourResult tour = solver.solveAnytime(budget, SolverListener.NONE);
+        if (!tour.isFeasible()) {
+            return new SectorRoute(day, sectorId, sectorPoints.size(), new ArrayList<>(), null);
+        }
+        List<Theme2Solver.SplitTour> splits = solver.splitTourOptimal(tour.getOrder());
+        List<RouteArchive.RouteRecord> geometry = null;
+        if (withGeometry) {
+            geometry = new ArrayList<>();
+            for (int i = 0; i < splits.size(); i++) { // Développer les rues dans le thread de calcul
+                geometry.add(RouteArchive.RouteRecord.fromSplitTour(graph, sectorId + " - tournée " + (i + 1), day, splits.get(i)));
+            }
+        }
+        return new SectorRoute(day, sectorId, sectorPoints.size(), splits, geometry);
+    }
+
+    // Étape de consommation (thread appelant) : ajouter au planning, écrire les tournées dans le fichier GeoJSON du jour
+    // et dans l'archive binaire de la semaine
+    private void consume(SectorRoute route, WeeklyPlan plan, Map<String, GeoJsonWriter> streams, RouteArchive.Writer archive,
+                         String outputDir) throws IOException {
+        plan.add(route);
+        if (outputDir == null || route.geometry == null) {
+            return;
+        }
+        GeoJsonWriter stream = streams.get(route.day);
+        if (stream == null) {
+            stream = GeoJsonWriter.open(outputDir + "/planning_" + route.day.toLowerCase() + ".geojson", false);
+            streams.put(route.day, stream);
+        }
+        for (RouteArchive.RouteRecord record : route.geometry) {
+            stream.writeCoordinates(record.getLatitudes(), record.getLongitudes(), record.getName(), null);
+            archive.write(record);
+        }
+        route.geometry = null; // La géométrie est écrite : ne pas la garder dans le planning
+    }
+
+    // Tournées d'un secteur pour son jour de collecte
+    public static class SectorRoute {
+        private final String day;
+        private final String sectorId;
+        private final int pointCount;
+        private final List<Theme2Solver.SplitTour> splits;
+        private List<RouteArchive.RouteRecord> geometry; // Tracé des tournées, libéré une fois écrit
+
+        public SectorRoute(String day, String sectorId, int pointCount, List<Theme2Solver.SplitTour> splits,
+                           List<RouteArchive.RouteRecord> geometry) {
+            this.day = day;
+            this.sectorId = sectorId;
+            this.pointCount = pointCount;
+            this.splits = splits;
+            this.geometry = geometry;
+        }
+
+        public String getDay() {
+            return day;
+        }
+
+        public String getSectorId() {
+            return sectorId;
+        }
+
+        public int getPointCount() {
+            return pointCount;
+        }
+
+        public List<Theme2Solver.SplitTour> getSplits() {
+            return splits;
+        }
+
+        public boolean isFeasible() {
+            return pointCount == 0 || !splits.isEmpty();
+        }
+
+        public double getDistance() {
+            double total = 0.0;
+            for (Theme2Solver.SplitTour st : splits) {
+                total += st.distance;
+            }
+            return total;
+        }
+
+        public int getLoad() {
+            int total = 0;
+            for (Theme2Solver.SplitTour st : splits) {
+                total += st.usedVolume;
+            }
+            return total;
+        }
+    }
+
+    // Planning de la semaine : tournées par jour, dans l'ordre d'arrivée des résultats
+    public static class WeeklyPlan {
+        private final Map<String, List<SectorRoute>> routesByDay = new LinkedHashMap<>();
+        private final List<CollectionPoint> unplanned; // Points hors de tout secteur colorié
+        private long elapsedMillis;
+
+        public WeeklyPlan(List<CollectionPoint> unplanned) {
+            this.unplanned = unplanned;
+        }
+
+        public void add(SectorRoute route) {
+            routesByDay.computeIfAbsent(route.getDay(), k -> new ArrayList<>()).add(route);
+        }
+
+        public Map<String, List<SectorRoute>> getRoutesByDay() {
+            return routesByDay;
+        }
+
+        public List<CollectionPoint> getUnplanned() {
+            return unplanned;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        // Nombre de sous-tournées (départs du dépôt à capacité pleine) un jour donné
+        public int getTripCount(String day) {
+            int count = 0;
+            for (SectorRoute route : routesByDay.getOrDefault(day, new ArrayList<>())) {
+                count += route.getSplits().size();
+            }
+            return count;
+        }
+
+        public double getDistance(String day) {
+            double total = 0.0;
+            for (SectorRoute route : routesByDay.getOrDefault(day, new ArrayList<>())) {
+                total += route.getDistance();
+            }
+            return total;
+        }
+    }
+}